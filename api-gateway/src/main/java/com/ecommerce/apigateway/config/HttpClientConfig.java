@@ -0,0 +1,45 @@
+package com.ecommerce.apigateway.config;
+
+import com.ecommerce.apigateway.filter.UpstreamRoutingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+@Configuration
+public class HttpClientConfig {
+    
+    // Prior-knowledge h2c to the services (Tomcat with server.http2.enabled). The flag is checked here
+    // rather than with a condition so it still applies to AOT-processed builds.
+    @Bean
+    public HttpClientCustomizer upstreamProtocolCustomizer(@Value("${gateway.upstream.h2c:true}") boolean h2c) {
+        return httpClient -> h2c ? httpClient.protocol(HttpProtocol.H2C) : httpClient;
+    }
+    
+    // Takes the place of Spring Cloud Gateway's routing filter, which application.yml turns off
+    // (spring.cloud.gateway.global-filter.netty-routing.enabled)
+    @Bean
+    public UpstreamRoutingFilter upstreamRoutingFilter(HttpClient httpClient,
+                                                       ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                                       HttpClientProperties properties,
+                                                       UpstreamPools upstreamPools,
+                                                       MeterRegistry meterRegistry) {
+        return new UpstreamRoutingFilter(httpClient, headersFilters, properties, upstreamPools, meterRegistry);
+    }
+    
+    // Turned off along with the routing filter, though it is still the one writing the response body
+    @Bean
+    public NettyWriteResponseFilter nettyWriteResponseFilter(GatewayProperties gatewayProperties) {
+        return new NettyWriteResponseFilter(gatewayProperties.getStreamingMediaTypes());
+    }
+}
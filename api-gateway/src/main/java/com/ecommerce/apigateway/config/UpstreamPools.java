@@ -0,0 +1,96 @@
+package com.ecommerce.apigateway.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One HTTP client per upstream pool, each with a connection pool of its own (see
+ * docs/UPSTREAMS.md). A slow service then holds up only the requests waiting for its own
+ * connections, and once its bounded queue of waiting requests is full, further ones fail at once
+ * instead of piling up.
+ *
+ * The clients are otherwise configured exactly like Spring Cloud Gateway's shared one
+ * ({@code spring.cloud.gateway.httpclient.*} and the {@link HttpClientCustomizer}s).
+ */
+@Component
+public class UpstreamPools {
+    
+    @Autowired
+    private UpstreamProperties upstreamProperties;
+    
+    @Autowired
+    private HttpClientProperties httpClientProperties;
+    
+    @Autowired
+    private ServerProperties serverProperties;
+    
+    @Autowired
+    private HttpClientSslConfigurer sslConfigurer;
+    
+    @Autowired
+    private List<HttpClientCustomizer> customizers;
+    
+    private final Map<String, Upstream> upstreams = new ConcurrentHashMap<>();
+    
+    private record Upstream(ConnectionProvider connectionProvider, HttpClient httpClient) {
+    }
+    
+    public HttpClient client(String pool) {
+        return upstreams.computeIfAbsent(pool, this::create).httpClient();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        upstreams.values().forEach(upstream -> upstream.connectionProvider().dispose());
+    }
+    
+    private Upstream create(String pool) {
+        UpstreamProperties.Pool settings = upstreamProperties.getPools().get(pool);
+        if (settings == null) {
+            settings = new UpstreamProperties.Pool();
+        }
+        // metrics(true) publishes reactor.netty.connection.provider.* tagged with the pool name
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(pool)
+                .maxConnections(settings.getMaxConnections())
+                .pendingAcquireMaxCount(settings.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(settings.getPendingAcquireTimeout())
+                .maxIdleTime(settings.getMaxIdleTime())
+                .metrics(true)
+                .build();
+        return new Upstream(connectionProvider, new PoolClientFactory(connectionProvider, httpClientProperties,
+                serverProperties, sslConfigurer, customizers).build());
+    }
+    
+    private static final class PoolClientFactory extends HttpClientFactory {
+        
+        private final ConnectionProvider connectionProvider;
+        
+        PoolClientFactory(ConnectionProvider connectionProvider, HttpClientProperties properties,
+                          ServerProperties serverProperties, HttpClientSslConfigurer sslConfigurer,
+                          List<HttpClientCustomizer> customizers) {
+            super(properties, serverProperties, sslConfigurer, customizers);
+            this.connectionProvider = connectionProvider;
+        }
+        
+        @Override
+        protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+            return connectionProvider;
+        }
+        
+        HttpClient build() {
+            return createInstance();
+        }
+    }
+}
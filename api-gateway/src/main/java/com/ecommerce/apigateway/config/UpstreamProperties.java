@@ -0,0 +1,43 @@
+package com.ecommerce.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties("gateway.upstream")
+public class UpstreamProperties {
+    
+    /**
+     * Connection pool settings per pool name. A route uses the pool named by its
+     * {@code upstream-pool} metadata, else the one named after its {@code lb://} service id.
+     * Pools not listed here get the defaults.
+     */
+    private Map<String, Pool> pools = new LinkedHashMap<>();
+    
+    @Data
+    public static class Pool {
+        
+        /**
+         * Connections to each instance. With h2c each one carries many requests at once.
+         */
+        private int maxConnections = 100;
+        
+        /**
+         * Requests waiting for a connection beyond which new ones fail at once.
+         */
+        private int pendingAcquireMaxCount = 200;
+        
+        /**
+         * How long a request waits for a connection before it fails.
+         */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+        
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+    }
+}
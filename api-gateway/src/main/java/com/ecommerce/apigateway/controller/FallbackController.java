@@ -2,32 +2,35 @@ package com.ecommerce.apigateway.controller;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Where the routes' circuit breakers forward a request when the service fails, times out or its
+ * breaker is open (see docs/UPSTREAMS.md). Any method, since the forward keeps the original one.
+ */
 @RestController
 @RequestMapping("/fallback")
 public class FallbackController {
     
-    @GetMapping("/user-service")
+    @RequestMapping("/user-service")
     public ResponseEntity<?> userServiceFallback() {
         Map<String, String> response = new HashMap<>();
         response.put("error", "User Service is currently unavailable. Please try again later.");
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
     }
     
-    @GetMapping("/product-service")
+    @RequestMapping("/product-service")
     public ResponseEntity<?> productServiceFallback() {
         Map<String, String> response = new HashMap<>();
         response.put("error", "Product Service is currently unavailable. Please try again later.");
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
     }
     
-    @GetMapping("/order-service")
+    @RequestMapping("/order-service")
     public ResponseEntity<?> orderServiceFallback() {
         Map<String, String> response = new HashMap<>();
         response.put("error", "Order Service is currently unavailable. Please try again later.");
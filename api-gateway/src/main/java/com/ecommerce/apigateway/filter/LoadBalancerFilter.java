@@ -0,0 +1,77 @@
+package com.ecommerce.apigateway.filter;
+
+import com.ecommerce.registry.balancer.LoadBalancer;
+import com.ecommerce.registry.balancer.NoAvailableInstanceException;
+import com.ecommerce.registry.balancer.Selection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_SCHEME_PREFIX_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.addOriginalRequestUrl;
+
+/**
+ * Resolves {@code lb://<service-id>} routes to one instance per request and reports back how the
+ * request went, so slow instances get less traffic and failing ones are ejected (see docs/DISCOVERY.md).
+ * Runs just before the slot of Spring Cloud's own load balancer filter, which is not on the classpath.
+ */
+@Component
+public class LoadBalancerFilter implements GlobalFilter, Ordered {
+    
+    @Autowired
+    private LoadBalancer loadBalancer;
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        String schemePrefix = exchange.getAttribute(GATEWAY_SCHEME_PREFIX_ATTR);
+        if (url == null || (!"lb".equals(url.getScheme()) && !"lb".equals(schemePrefix))) {
+            return chain.filter(exchange);
+        }
+        
+        Selection selection;
+        try {
+            selection = loadBalancer.choose(url.getHost());
+        } catch (NoAvailableInstanceException e) {
+            throw NotFoundException.create(true, e.getMessage());
+        }
+        
+        addOriginalRequestUrl(exchange, url);
+        URI instance = selection.uri();
+        URI target = UriComponentsBuilder.fromUri(url)
+                .scheme("lb".equals(url.getScheme()) ? instance.getScheme() : url.getScheme())
+                .host(instance.getHost())
+                .port(instance.getPort())
+                .build(true)
+                .toUri();
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, target);
+        
+        return chain.filter(exchange)
+                .doOnSuccess(done -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is5xxServerError()) {
+                        selection.recordFailure();
+                    } else {
+                        selection.recordSuccess();
+                    }
+                })
+                .doOnError(e -> selection.recordFailure())
+                .doOnCancel(selection::release);
+    }
+    
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.apigateway.filter;
+
+import com.ecommerce.apigateway.priority.Lane;
+import com.ecommerce.apigateway.priority.LaneRejectedException;
+import com.ecommerce.apigateway.priority.LaneScheduler;
+import com.ecommerce.apigateway.priority.PriorityProperties;
+import com.ecommerce.apigateway.priority.RequestClassifier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Holds each request until {@link LaneScheduler} admits it in its lane, so a flood of catalog
+ * browsing cannot crowd out checkout (see docs/PRIORITY-LANES.md). A request turned away gets a
+ * 503 with {@code Retry-After} at once, before it costs an upstream connection.
+ *
+ * Runs after {@link LoggingFilter} and ahead of the route filters, so a retried request keeps the
+ * one slot it was admitted with.
+ */
+@Component
+public class PriorityFilter implements GlobalFilter, Ordered {
+    
+    private static final byte[] BUSY = "{\"error\":\"The gateway is busy. Please try again shortly.\"}"
+            .getBytes(StandardCharsets.UTF_8);
+    
+    @Autowired
+    private PriorityProperties properties;
+    
+    @Autowired
+    private RequestClassifier classifier;
+    
+    @Autowired
+    private LaneScheduler laneScheduler;
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        Lane lane = classifier.classify(exchange.getRequest());
+        if (lane == null) {
+            return chain.filter(exchange);
+        }
+        return laneScheduler.acquire(lane)
+                .flatMap(permit -> chain.filter(exchange).doFinally(signal -> permit.release()))
+                .onErrorResume(LaneRejectedException.class, e -> busy(exchange.getResponse()));
+    }
+    
+    private static Mono<Void> busy(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer body = response.bufferFactory().wrap(BUSY);
+        return response.writeWith(Mono.just(body));
+    }
+    
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+}
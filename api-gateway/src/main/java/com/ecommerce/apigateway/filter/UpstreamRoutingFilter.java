@@ -0,0 +1,85 @@
+package com.ecommerce.apigateway.filter;
+
+import com.ecommerce.apigateway.config.UpstreamPools;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.CONNECT_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Spring Cloud Gateway's routing filter, sending each route through the connection pool of its
+ * upstream instead of one pool shared by all routes (see docs/UPSTREAMS.md). Requests turned away
+ * by a full pool are counted as {@code gateway.upstream.rejections}.
+ */
+public class UpstreamRoutingFilter extends NettyRoutingFilter {
+    
+    /**
+     * Route metadata naming the pool; defaults to the route's service id.
+     */
+    public static final String POOL_ATTR = "upstream-pool";
+    
+    private final UpstreamPools upstreamPools;
+    private final MeterRegistry meterRegistry;
+    
+    public UpstreamRoutingFilter(HttpClient httpClient,
+                                 ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                 HttpClientProperties properties,
+                                 UpstreamPools upstreamPools,
+                                 MeterRegistry meterRegistry) {
+        super(httpClient, headersFiltersProvider, properties);
+        this.upstreamPools = upstreamPools;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return super.filter(exchange, chain).doOnError(e -> {
+            String reason = rejectionReason(e);
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            if (reason != null && route != null) {
+                meterRegistry.counter("gateway.upstream.rejections", "pool", poolOf(route), "reason", reason)
+                        .increment();
+            }
+        });
+    }
+    
+    // Same per-route connect-timeout metadata as the original, applied to the route's own pool
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        HttpClient httpClient = upstreamPools.client(poolOf(route));
+        Object connectTimeout = route.getMetadata().get(CONNECT_TIMEOUT_ATTR);
+        if (connectTimeout != null) {
+            return httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Integer.parseInt(connectTimeout.toString()));
+        }
+        return httpClient;
+    }
+    
+    static String poolOf(Route route) {
+        Object pool = route.getMetadata().get(POOL_ATTR);
+        if (pool != null) {
+            return pool.toString();
+        }
+        return route.getUri().getHost() != null ? route.getUri().getHost() : route.getId();
+    }
+    
+    // Reactor Netty shades reactor-pool into an internal package, so match on the class name
+    private static String rejectionReason(Throwable e) {
+        return switch (e.getClass().getSimpleName()) {
+            case "PoolAcquirePendingLimitException" -> "pending_limit";
+            case "PoolAcquireTimeoutException" -> "acquire_timeout";
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.apigateway.priority;
+
+import java.util.Locale;
+
+/**
+ * Priority classes of gateway traffic, highest first (see docs/PRIORITY-LANES.md).
+ */
+public enum Lane {
+    
+    /**
+     * Placing and cancelling orders, and logging in to do so.
+     */
+    CHECKOUT,
+    
+    /**
+     * Everything not classified otherwise, and signed-in users' catalog reads.
+     */
+    STANDARD,
+    
+    /**
+     * Anonymous catalog listing and search, the traffic crawlers generate.
+     */
+    BROWSE;
+    
+    private final String tag = name().toLowerCase(Locale.ROOT);
+    
+    public String tag() {
+        return tag;
+    }
+}
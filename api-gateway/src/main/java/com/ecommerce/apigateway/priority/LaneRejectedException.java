@@ -0,0 +1,25 @@
+package com.ecommerce.apigateway.priority;
+
+/**
+ * A request turned away by {@link LaneScheduler}: its lane's queue was full ({@code queue_full}),
+ * or it waited longer than the lane's {@code max-wait} ({@code timeout}).
+ */
+public class LaneRejectedException extends RuntimeException {
+    
+    private final Lane lane;
+    private final String reason;
+    
+    public LaneRejectedException(Lane lane, String reason) {
+        super("Request in lane " + lane.tag() + " rejected: " + reason, null, false, false);
+        this.lane = lane;
+        this.reason = reason;
+    }
+    
+    public Lane getLane() {
+        return lane;
+    }
+    
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,268 @@
+package com.ecommerce.apigateway.priority;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits gateway requests lane by lane (see docs/PRIORITY-LANES.md).
+ *
+ * At most {@code max-concurrent} requests are forwarded at once, and each lane has a budget of
+ * its own within that. A request over either limit waits in its lane's queue. Each freed slot
+ * goes to the waiting lane with the lowest pass; taking a slot advances a lane's pass by the
+ * inverse of its weight (stride scheduling). While checkout (weight 8) and browse (weight 1) both
+ * wait, checkout gets eight slots for each one browse gets, and browse still never starves.
+ *
+ * A full queue, or a wait longer than the lane's {@code max-wait}, fails the request at once with
+ * {@link LaneRejectedException}. Browse has the shortest queue and wait, so it is shed first.
+ */
+@Component
+public class LaneScheduler {
+    
+    private static final long STRIDE = 1_000_000L;
+    
+    @Autowired
+    private PriorityProperties properties;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final Map<Lane, LaneState> lanes = new EnumMap<>(Lane.class);
+    private final Object lock = new Object();
+    
+    // Guarded by lock
+    private int inFlight;
+    private long virtualTime;
+    
+    @PostConstruct
+    public void init() {
+        for (Lane lane : Lane.values()) {
+            PriorityProperties.LaneSettings settings = properties.settings(lane);
+            if (settings.getWeight() < 1 || settings.getMaxConcurrent() < 1 || settings.getMaxQueue() < 0) {
+                throw new IllegalStateException("gateway.priority.lanes." + lane.tag()
+                        + ": weight and max-concurrent must be at least 1, max-queue at least 0");
+            }
+            LaneState state = new LaneState(lane, settings);
+            lanes.put(lane, state);
+            Gauge.builder("gateway.priority.in.flight", state, s -> s.inFlight)
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+            Gauge.builder("gateway.priority.queued", state, s -> s.queue.size())
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+        }
+        if (properties.getMaxConcurrent() < 1) {
+            throw new IllegalStateException("gateway.priority.max-concurrent must be at least 1");
+        }
+    }
+    
+    /**
+     * Emits a permit once the request may be forwarded; the caller releases it when the exchange
+     * ends. Fails with {@link LaneRejectedException} when the request is turned away. Cancelling
+     * while waiting leaves the queue.
+     */
+    public Mono<Permit> acquire(Lane lane) {
+        LaneState state = lanes.get(lane);
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(state, sink, System.nanoTime());
+            sink.onCancel(() -> withdraw(waiter));
+            boolean queued;
+            synchronized (lock) {
+                if (state.queue.isEmpty() && hasRoom(state)) {
+                    waiter.permit = admit(state);
+                    waiter.status = Status.GRANTED;
+                    queued = false;
+                } else if (state.queue.size() < state.settings.getMaxQueue()) {
+                    if (state.queue.isEmpty()) {
+                        // A lane that sat idle does not bank credit against the busy ones
+                        state.pass = Math.max(state.pass, virtualTime);
+                    }
+                    state.queue.addLast(waiter);
+                    queued = true;
+                } else {
+                    waiter.status = Status.REJECTED;
+                    queued = false;
+                }
+            }
+            if (queued) {
+                Schedulers.parallel().schedule(() -> expire(waiter),
+                        state.settings.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+            } else if (waiter.status == Status.GRANTED) {
+                state.waitTimer.record(0, TimeUnit.NANOSECONDS);
+                sink.success(waiter.permit);
+            } else {
+                reject(waiter, "queue_full");
+            }
+        });
+    }
+    
+    private boolean hasRoom(LaneState state) {
+        return inFlight < properties.getMaxConcurrent() && state.inFlight < state.settings.getMaxConcurrent();
+    }
+    
+    private Permit admit(LaneState state) {
+        inFlight++;
+        state.inFlight++;
+        return new Permit(state);
+    }
+    
+    private void release(LaneState state) {
+        List<Waiter> granted;
+        synchronized (lock) {
+            inFlight--;
+            state.inFlight--;
+            granted = dispatch();
+        }
+        if (granted.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (Waiter waiter : granted) {
+            waiter.state.waitTimer.record(now - waiter.enqueuedAt, TimeUnit.NANOSECONDS);
+            waiter.sink.success(waiter.permit);
+        }
+    }
+    
+    // Hands free slots to waiting lanes, lowest pass first. Called under lock
+    private List<Waiter> dispatch() {
+        List<Waiter> granted = List.of();
+        while (inFlight < properties.getMaxConcurrent()) {
+            LaneState next = null;
+            for (LaneState candidate : lanes.values()) {
+                if (!candidate.queue.isEmpty() && candidate.inFlight < candidate.settings.getMaxConcurrent()
+                        && (next == null || candidate.pass < next.pass)) {
+                    next = candidate;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            Waiter waiter = next.queue.pollFirst();
+            virtualTime = next.pass;
+            next.pass += next.stride;
+            waiter.permit = admit(next);
+            waiter.status = Status.GRANTED;
+            if (granted.isEmpty()) {
+                granted = new ArrayList<>();
+            }
+            granted.add(waiter);
+        }
+        return granted;
+    }
+    
+    private void expire(Waiter waiter) {
+        synchronized (lock) {
+            if (waiter.status != Status.WAITING) {
+                return;
+            }
+            waiter.state.queue.remove(waiter);
+            waiter.status = Status.REJECTED;
+        }
+        reject(waiter, "timeout");
+    }
+    
+    // The client went away: leave the queue, or give back a slot granted but not yet delivered
+    private void withdraw(Waiter waiter) {
+        Permit granted = null;
+        synchronized (lock) {
+            if (waiter.status == Status.WAITING) {
+                waiter.state.queue.remove(waiter);
+            } else if (waiter.status == Status.GRANTED) {
+                granted = waiter.permit;
+            }
+            waiter.status = Status.CANCELLED;
+        }
+        if (granted != null) {
+            granted.release();
+        }
+    }
+    
+    private void reject(Waiter waiter, String reason) {
+        Counter rejections = "timeout".equals(reason) ? waiter.state.timedOut : waiter.state.queueFull;
+        rejections.increment();
+        waiter.sink.error(new LaneRejectedException(waiter.state.lane, reason));
+    }
+    
+    /**
+     * A slot taken by one request. Releasing it more than once has no effect.
+     */
+    public final class Permit {
+        
+        private final LaneState state;
+        private final AtomicBoolean released = new AtomicBoolean();
+        
+        private Permit(LaneState state) {
+            this.state = state;
+        }
+        
+        public Lane lane() {
+            return state.lane;
+        }
+        
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                LaneScheduler.this.release(state);
+            }
+        }
+    }
+    
+    private enum Status {
+        WAITING, GRANTED, REJECTED, CANCELLED
+    }
+    
+    private static final class Waiter {
+        
+        final LaneState state;
+        final MonoSink<Permit> sink;
+        final long enqueuedAt;
+        
+        // Guarded by lock
+        Status status = Status.WAITING;
+        Permit permit;
+        
+        Waiter(LaneState state, MonoSink<Permit> sink, long enqueuedAt) {
+            this.state = state;
+            this.sink = sink;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+    
+    private final class LaneState {
+        
+        final Lane lane;
+        final PriorityProperties.LaneSettings settings;
+        final long stride;
+        final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+        final Timer waitTimer;
+        final Counter queueFull;
+        final Counter timedOut;
+        
+        // Guarded by lock; read unguarded by the gauges
+        volatile int inFlight;
+        long pass;
+        
+        LaneState(Lane lane, PriorityProperties.LaneSettings settings) {
+            this.lane = lane;
+            this.settings = settings;
+            this.stride = STRIDE / settings.getWeight();
+            this.waitTimer = meterRegistry.timer("gateway.priority.wait", "lane", lane.tag());
+            this.queueFull = meterRegistry.counter("gateway.priority.rejections", "lane", lane.tag(), "reason", "queue_full");
+            this.timedOut = meterRegistry.counter("gateway.priority.rejections", "lane", lane.tag(), "reason", "timeout");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.apigateway.priority;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties("gateway.priority")
+public class PriorityProperties {
+    
+    /**
+     * Off: every request goes straight through, as before.
+     */
+    private boolean enabled = true;
+    
+    /**
+     * Requests the gateway forwards at once across all lanes. Further ones wait in their lane.
+     */
+    private int maxConcurrent = 512;
+    
+    /**
+     * Lane of requests no lane's routes match.
+     */
+    private Lane defaultLane = Lane.STANDARD;
+    
+    /**
+     * Lane a request with a valid bearer token is raised to when its route alone would put it in a
+     * lower one.
+     */
+    private Lane signedInLane = Lane.STANDARD;
+    
+    /**
+     * Requests that bypass the lanes entirely: the long-lived event streams, which would otherwise
+     * hold a slot for minutes. Rules are "METHOD /pattern", or "/pattern" for any method.
+     */
+    private List<String> exempt = new ArrayList<>();
+    
+    private Map<Lane, LaneSettings> lanes = new EnumMap<>(Lane.class);
+    
+    public LaneSettings settings(Lane lane) {
+        LaneSettings settings = lanes.get(lane);
+        return settings != null ? settings : new LaneSettings();
+    }
+    
+    @Data
+    public static class LaneSettings {
+        
+        /**
+         * Share of the freed slots the lane gets while several lanes have requests waiting.
+         */
+        private int weight = 1;
+        
+        /**
+         * Requests of this lane forwarded at once, on top of the gateway-wide limit.
+         */
+        private int maxConcurrent = Integer.MAX_VALUE;
+        
+        /**
+         * Requests waiting in the lane beyond which new ones are turned away at once.
+         */
+        private int maxQueue = 100;
+        
+        /**
+         * How long a request waits for a slot before it is turned away.
+         */
+        private Duration maxWait = Duration.ofSeconds(1);
+        
+        /**
+         * Requests that belong to this lane, as "METHOD /pattern" or "/pattern" rules. Lanes are
+         * tried highest first.
+         */
+        private List<String> routes = new ArrayList<>();
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecommerce.apigateway.priority;
+
+import com.ecommerce.auth.InvalidTokenException;
+import com.ecommerce.auth.JwtTokenService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Puts each request in a {@link Lane} by method and path, then by caller: a valid bearer token
+ * raises it to {@code signed-in-lane}. The token is verified only when that could change the lane,
+ * so checkout and standard requests cost a few path matches. The rules are parsed once, at startup.
+ */
+@Component
+public class RequestClassifier {
+    
+    private static final String BEARER = "Bearer ";
+    
+    @Autowired
+    private PriorityProperties properties;
+    
+    @Autowired
+    private JwtTokenService jwtTokenService;
+    
+    private List<Rule> exempt;
+    private final Map<Lane, List<Rule>> routes = new EnumMap<>(Lane.class);
+    
+    // Rules are "METHOD /pattern", or "/pattern" for any method
+    private record Rule(String method, PathPattern pattern) {
+        
+        boolean matches(String requestMethod, PathContainer path) {
+            return (method == null || method.equalsIgnoreCase(requestMethod)) && pattern.matches(path);
+        }
+    }
+    
+    @PostConstruct
+    public void init() {
+        exempt = parse(properties.getExempt());
+        for (Lane lane : Lane.values()) {
+            routes.put(lane, parse(properties.settings(lane).getRoutes()));
+        }
+    }
+    
+    /**
+     * @return the request's lane, or {@code null} when it is exempt
+     */
+    public Lane classify(ServerHttpRequest request) {
+        String method = request.getMethod().name();
+        PathContainer path = request.getPath().pathWithinApplication();
+        if (matchesAny(exempt, method, path)) {
+            return null;
+        }
+        Lane lane = properties.getDefaultLane();
+        for (Lane candidate : Lane.values()) {
+            if (matchesAny(routes.get(candidate), method, path)) {
+                lane = candidate;
+                break;
+            }
+        }
+        Lane signedInLane = properties.getSignedInLane();
+        if (lane.compareTo(signedInLane) > 0 && isSignedIn(request)) {
+            return signedInLane;
+        }
+        return lane;
+    }
+    
+    // The gateway does not receive revocations; a revoked token still counts until it expires
+    private boolean isSignedIn(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER)) {
+            return false;
+        }
+        try {
+            jwtTokenService.verify(header.substring(BEARER.length()));
+            return true;
+        } catch (InvalidTokenException e) {
+            return false;
+        }
+    }
+    
+    private static boolean matchesAny(List<Rule> rules, String method, PathContainer path) {
+        for (Rule rule : rules) {
+            if (rule.matches(method, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static List<Rule> parse(List<String> rules) {
+        List<Rule> parsed = new ArrayList<>();
+        for (String rule : rules) {
+            int space = rule.indexOf(' ');
+            String method = space < 0 ? null : rule.substring(0, space);
+            String pattern = space < 0 ? rule : rule.substring(space + 1).trim();
+            parsed.add(new Rule(method, PathPatternParser.defaultInstance.parse(pattern)));
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.auth;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@AutoConfiguration
+@EnableConfigurationProperties(AuthTokenProperties.class)
+public class AuthTokenAutoConfiguration {
+    
+    // Ahead of Spring Security's filter chain (-100), which in user-service reads the claims
+    static final int FILTER_ORDER = -110;
+    
+    @Bean
+    public JwtTokenService jwtTokenService(AuthTokenProperties properties) {
+        return new JwtTokenService(properties.getSecret(), properties.getExpiration());
+    }
+    
+    // Always registered: AOT freezes conditions at build time, so the flag is checked inside
+    @Bean
+    public TokenRevocationList tokenRevocationList(AuthTokenProperties properties) {
+        return new TokenRevocationList(properties.getRevocation().isEnabled(), properties.getExpiration(),
+                properties.getRevocation().getMaxEntries());
+    }
+    
+    /**
+     * The filter and the revocation endpoint, for the servlet services. The reactive gateway only
+     * reads tokens, with {@link JwtTokenService}.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class ServletConfiguration {
+        
+        @Bean
+        public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilter(
+                JwtTokenService jwtTokenService, TokenRevocationList tokenRevocationList,
+                AuthTokenProperties properties, MeterRegistry meterRegistry) {
+            FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(
+                    new JwtAuthenticationFilter(jwtTokenService, tokenRevocationList, properties, meterRegistry));
+            registration.setOrder(FILTER_ORDER);
+            return registration;
+        }
+        
+        @Bean
+        public TokenRevocationController tokenRevocationController(TokenRevocationList tokenRevocationList) {
+            return new TokenRevocationController(tokenRevocationList);
+        }
+    }
+}
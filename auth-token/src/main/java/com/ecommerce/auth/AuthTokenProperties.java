@@ -0,0 +1,66 @@
+package com.ecommerce.auth;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties("jwt")
+public class AuthTokenProperties {
+    
+    /**
+     * HMAC key shared by user-service, which signs the tokens, and every service verifying them.
+     */
+    private String secret;
+    
+    /**
+     * Lifetime of an issued token. A bare number is read as milliseconds. The services that only
+     * verify tokens keep a revocation no longer than this.
+     */
+    private Duration expiration = Duration.ofHours(24);
+    
+    /**
+     * Whether requests under {@code /api/} need a valid token, {@link #adminPaths} the
+     * {@code ADMIN} role and {@link #servicePaths} the {@code SERVICE} role. Off, a token is still verified and exposed when one is sent, and
+     * requests without one are served as before.
+     */
+    private boolean enforce;
+    
+    /**
+     * {@code "METHOD /pattern"} or {@code "/pattern"} (any method) under {@code /api/} served
+     * without a token even when enforcing. Patterns are Ant-style.
+     */
+    private List<String> publicPaths = new ArrayList<>(List.of("/api/auth/**", "/api/*/health"));
+    
+    /**
+     * {@code "METHOD /pattern"} or {@code "/pattern"} (any method) needing the {@code ADMIN} role
+     * when enforcing.
+     */
+    private List<String> adminPaths = new ArrayList<>();
+    
+    /**
+     * {@code "METHOD /pattern"} or {@code "/pattern"} (any method) needing the {@code SERVICE} role
+     * when enforcing, for calls only another service makes. {@code ADMIN} passes too.
+     */
+    private List<String> servicePaths = new ArrayList<>();
+    
+    private Revocation revocation = new Revocation();
+    
+    @Data
+    public static class Revocation {
+        
+        /**
+         * Whether revoked tokens are refused before they expire. Each instance keeps the list in
+         * memory; user-service pushes new revocations to the others.
+         */
+        private boolean enabled;
+        
+        /**
+         * Revoked tokens kept at most. Further revocations are refused until entries expire.
+         */
+        private int maxEntries = 100_000;
+    }
+}
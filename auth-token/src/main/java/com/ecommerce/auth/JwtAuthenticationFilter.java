@@ -0,0 +1,121 @@
+package com.ecommerce.auth;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Verifies the bearer token of each request and stores its claims under
+ * {@link TokenClaims#REQUEST_ATTRIBUTE}. A missing, invalid, expired or revoked token leaves the
+ * request anonymous.
+ *
+ * When {@code jwt.enforce} is on, an anonymous request under {@code /api/} outside the public
+ * paths is refused with 401, a request to an admin path by anyone but an {@code ADMIN} with 403,
+ * and a request to a service path by anyone but a {@code SERVICE} or an {@code ADMIN} with 403. The settings are read per request, because AOT fixes the bean set at build time.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    
+    private static final Logger logger = Logger.getLogger(JwtAuthenticationFilter.class.getName());
+    
+    private static final String BEARER = "Bearer ";
+    
+    private final JwtTokenService tokens;
+    private final TokenRevocationList revocations;
+    private final AuthTokenProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher paths = new AntPathMatcher();
+    
+    public JwtAuthenticationFilter(JwtTokenService tokens, TokenRevocationList revocations,
+                                   AuthTokenProperties properties, MeterRegistry meterRegistry) {
+        this.tokens = tokens;
+        this.revocations = revocations;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        TokenClaims claims = authenticate(request);
+        if (claims != null) {
+            request.setAttribute(TokenClaims.REQUEST_ATTRIBUTE, claims);
+        }
+        // CORS preflights never carry the token
+        if (properties.isEnforce() && !"OPTIONS".equals(request.getMethod())) {
+            String path = request.getRequestURI();
+            String method = request.getMethod();
+            if (path.startsWith("/api/") && !matchesAny(properties.getPublicPaths(), method, path)) {
+                if (claims == null) {
+                    refuse(response, HttpServletResponse.SC_UNAUTHORIZED, "Authentication required");
+                    return;
+                }
+                if (!claims.isAdmin() && matchesAny(properties.getAdminPaths(), method, path)) {
+                    refuse(response, HttpServletResponse.SC_FORBIDDEN, "Admin role required");
+                    return;
+                }
+                if (!claims.isAdmin() && !claims.isService() && matchesAny(properties.getServicePaths(), method, path)) {
+                    refuse(response, HttpServletResponse.SC_FORBIDDEN, "Service role required");
+                    return;
+                }
+            }
+        }
+        chain.doFilter(request, response);
+    }
+    
+    private TokenClaims authenticate(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER)) {
+            return null;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        TokenClaims claims = null;
+        try {
+            claims = tokens.verify(header.substring(BEARER.length()));
+            if (revocations.isRevoked(claims)) {
+                logger.fine("Revoked token " + claims.tokenId() + " of user " + claims.userId());
+                claims = null;
+            }
+        } catch (InvalidTokenException e) {
+            logger.fine("Invalid JWT token: " + e.getMessage());
+        } finally {
+            sample.stop(meterRegistry.timer("jwt.validation", "outcome", claims != null ? "valid" : "invalid"));
+        }
+        return claims;
+    }
+    
+    // Rules are "METHOD /pattern", or "/pattern" for any method
+    private boolean matchesAny(List<String> rules, String method, String path) {
+        for (String rule : rules) {
+            int space = rule.indexOf(' ');
+            if (space < 0) {
+                if (paths.match(rule, path)) {
+                    return true;
+                }
+            } else if (rule.substring(0, space).equalsIgnoreCase(method)
+                    && paths.match(rule.substring(space + 1).trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static void refuse(HttpServletResponse response, int status, String error) throws IOException {
+        response.setStatus(status);
+        if (status == HttpServletResponse.SC_UNAUTHORIZED) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + error + "\"}");
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.auth;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Issues and verifies HS512-signed access tokens.
+ *
+ * Besides the username ({@code sub}) a token carries the user's id ({@code uid}), role
+ * ({@code role}) and its own id ({@code jti}, used by {@link TokenRevocationList}), so a service
+ * can authorize a request from the token alone. The key and parser are built once; both are
+ * immutable and shared by all requests.
+ */
+public class JwtTokenService {
+    
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLE_CLAIM = "role";
+    
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final Duration expiration;
+    
+    public JwtTokenService(String secret, Duration expiration) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("jwt.secret is not set");
+        }
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.expiration = expiration;
+    }
+    
+    public String issue(Long userId, String username, String role) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(username)
+                .claim(USER_ID_CLAIM, userId)
+                .claim(ROLE_CLAIM, role)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(expiration)))
+                .signWith(signingKey, SignatureAlgorithm.HS512)
+                .compact();
+    }
+    
+    public Duration getExpiration() {
+        return expiration;
+    }
+    
+    /**
+     * Checks the signature and expiry and reads the claims.
+     *
+     * @throws InvalidTokenException when the token is malformed, forged or expired, or predates
+     *         the id and role claims
+     */
+    public TokenClaims verify(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException(e.getMessage(), e);
+        }
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (userId == null || role == null || claims.getId() == null) {
+            throw new InvalidTokenException("Token without user id, role or token id; log in again");
+        }
+        UUID tokenId;
+        try {
+            tokenId = UUID.fromString(claims.getId());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTokenException("Malformed token id", e);
+        }
+        return new TokenClaims(userId, claims.getSubject(), role, tokenId, claims.getExpiration().toInstant());
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.auth;
+
+import java.time.Instant;
+
+/**
+ * A token with the {@link TokenClaims#SERVICE} role that a service issues itself, for calls to
+ * another service's {@code jwt.service-paths} (see docs/AUTH-TOKENS.md). It is reissued once half
+ * of its lifetime has passed, so a call never carries one about to expire.
+ */
+public class ServiceToken {
+    
+    /** The {@code uid} of service tokens; no user has it. */
+    public static final Long SERVICE_USER_ID = 0L;
+    
+    private final JwtTokenService tokens;
+    private final String serviceName;
+    
+    private volatile String token;
+    private volatile Instant renewAt = Instant.MIN;
+    
+    /**
+     * @param serviceName the calling service, as the token's subject
+     */
+    public ServiceToken(JwtTokenService tokens, String serviceName) {
+        this.tokens = tokens;
+        this.serviceName = serviceName;
+    }
+    
+    public String get() {
+        Instant now = Instant.now();
+        if (now.isAfter(renewAt)) {
+            // Racing callers may each issue one; any of them is valid
+            token = tokens.issue(SERVICE_USER_ID, serviceName, TokenClaims.SERVICE);
+            renewAt = now.plus(tokens.getExpiration().dividedBy(2));
+        }
+        return token;
+    }
+    
+    /** The {@code Authorization} header value carrying {@link #get()}. */
+    public String authorization() {
+        return "Bearer " + get();
+    }
+}
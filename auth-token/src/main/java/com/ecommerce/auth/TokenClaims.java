@@ -0,0 +1,36 @@
+package com.ecommerce.auth;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * What a verified access token says about the caller. Enough to authorize a request without
+ * looking the user up.
+ *
+ * {@link JwtAuthenticationFilter} stores it on the request under {@link #REQUEST_ATTRIBUTE};
+ * controllers take it as {@code @RequestAttribute(name = TokenClaims.REQUEST_ATTRIBUTE, required = false)}.
+ */
+public record TokenClaims(Long userId, String username, String role, UUID tokenId, Instant expiresAt) {
+    
+    public static final String REQUEST_ATTRIBUTE = "com.ecommerce.auth.TokenClaims";
+    
+    public static final String ADMIN = "ADMIN";
+    
+    /** Role of the tokens a service issues itself for its calls to another ({@link ServiceToken}). */
+    public static final String SERVICE = "SERVICE";
+    
+    public boolean isAdmin() {
+        return ADMIN.equals(role);
+    }
+    
+    public boolean isService() {
+        return SERVICE.equals(role);
+    }
+    
+    /**
+     * Whether the caller may act for {@code userId}: it is their own id, or they are an admin.
+     */
+    public boolean canActFor(Long userId) {
+        return isAdmin() || this.userId.equals(userId);
+    }
+}
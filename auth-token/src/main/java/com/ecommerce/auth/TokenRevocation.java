@@ -0,0 +1,10 @@
+package com.ecommerce.auth;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Body of {@code POST /internal/token-revocations}, sent by user-service when a token is revoked.
+ */
+public record TokenRevocation(UUID tokenId, Instant expiresAt) {
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.auth;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Token revocations pushed by user-service. Not routed by the gateway.
+ */
+@RestController
+@RequestMapping("/internal/token-revocations")
+public class TokenRevocationController {
+    
+    private final TokenRevocationList revocations;
+    
+    public TokenRevocationController(TokenRevocationList revocations) {
+        this.revocations = revocations;
+    }
+    
+    @PostMapping
+    public ResponseEntity<?> revoke(@RequestBody TokenRevocation revocation) {
+        if (revocation.tokenId() == null || revocation.expiresAt() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "tokenId and expiresAt are required"));
+        }
+        if (!revocations.revoke(revocation.tokenId(), revocation.expiresAt())) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Too many revoked tokens, try again later"));
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.auth;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ids of tokens revoked before they expire, kept in memory (see docs/AUTH-TOKENS.md).
+ *
+ * An entry is only needed until its token expires, after which the signature check rejects it
+ * anyway, so the list holds at most the tokens revoked within one token lifetime. The expiry a
+ * revocation names is capped at one lifetime from now, and the list at {@code maxEntries}.
+ * Expired entries are swept every {@value #SWEEP_EVERY} revocations, and at most once a second
+ * while the list is full. While revocation is disabled nothing is stored and the check is a
+ * field read.
+ */
+public class TokenRevocationList {
+    
+    static final int SWEEP_EVERY = 1024;
+    
+    private final boolean enabled;
+    private final Duration tokenLifetime;
+    private final int maxEntries;
+    
+    // Token id -> expiry, epoch seconds
+    private final Map<UUID, Long> revoked = new ConcurrentHashMap<>();
+    private final AtomicInteger sinceSweep = new AtomicInteger();
+    private final AtomicLong lastSweep = new AtomicLong();
+    
+    /**
+     * @param tokenLifetime how long an issued token is valid ({@code jwt.expiration})
+     */
+    public TokenRevocationList(boolean enabled, Duration tokenLifetime, int maxEntries) {
+        this.enabled = enabled;
+        this.tokenLifetime = tokenLifetime;
+        this.maxEntries = maxEntries;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * @return false when the list is full of entries that have not expired; the token stays valid
+     */
+    public boolean revoke(UUID tokenId, Instant expiresAt) {
+        Instant now = Instant.now();
+        if (!enabled || !expiresAt.isAfter(now)) {
+            return true;
+        }
+        // No token outlives one lifetime, whatever the sender claims
+        Instant latest = now.plus(tokenLifetime);
+        long expiry = (expiresAt.isAfter(latest) ? latest : expiresAt).getEpochSecond();
+        long nowSeconds = now.getEpochSecond();
+        if (sinceSweep.incrementAndGet() >= SWEEP_EVERY
+                || (revoked.size() >= maxEntries && lastSweep.get() < nowSeconds)) {
+            sinceSweep.set(0);
+            lastSweep.set(nowSeconds);
+            revoked.values().removeIf(entry -> entry <= nowSeconds);
+        }
+        if (revoked.size() >= maxEntries && !revoked.containsKey(tokenId)) {
+            return false;
+        }
+        revoked.put(tokenId, expiry);
+        return true;
+    }
+    
+    public boolean isRevoked(TokenClaims claims) {
+        return enabled && !revoked.isEmpty() && revoked.containsKey(claims.tokenId());
+    }
+    
+    public int size() {
+        return revoked.size();
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.auth.AuthTokenProperties;
+import com.ecommerce.auth.JwtAuthenticationFilter;
+import com.ecommerce.auth.TokenRevocationList;
+import com.ecommerce.userservice.security.AuthTokenFilter;
+import com.ecommerce.userservice.security.JwtUtils;
+import com.ecommerce.userservice.security.UserAccount;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The full per-request authentication path of user-service: header parsing and token
+ * verification in the auth-token library's filter, then security context population from the
+ * claims. No user lookup is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthTokenFilterBenchmark {
+    
+    private JwtAuthenticationFilter tokenFilter;
+    private AuthTokenFilter filter;
+    private FilterChain chain;
+    private String authorizationHeader;
+    
+    @Setup
+    public void setup() {
+        JwtUtils jwtUtils = Fixtures.jwtUtils();
+        UserAccount user = new UserAccount(370542375360118785L, "benchmark-user", "unused",
+                "benchmark@example.com", "USER");
+        
+        tokenFilter = new JwtAuthenticationFilter(Fixtures.jwtTokenService(), new TokenRevocationList(true, Duration.ofHours(24), 100_000),
+                new AuthTokenProperties(), Fixtures.METER_REGISTRY);
+        filter = new AuthTokenFilter();
+        // The library filter runs first, as registered ahead of Spring Security
+        chain = (request, response) -> filter.doFilter(request, response, new MockFilterChain());
+        
+        String token = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        authorizationHeader = "Bearer " + token;
+    }
+    
+    @Benchmark
+    public Object authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader("Authorization", authorizationHeader);
+        try {
+            tokenFilter.doFilter(request, new MockHttpServletResponse(), chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+    
+    @Benchmark
+    public Object anonymousRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/health");
+        tokenFilter.doFilter(request, new MockHttpServletResponse(), chain);
+        return request;
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.orderservice.dto.OrderRequest;
+import com.ecommerce.orderservice.dto.ProductDTO;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.pricing.PricingProperties;
+import com.ecommerce.orderservice.service.OrderService;
+import com.ecommerce.orderservice.service.ProductServiceClient;
+import com.ecommerce.orderservice.service.ProductSnapshotCache;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderService.createOrder with product-service and the database stubbed out, i.e. the
+ * order-service CPU cost per checkout excluding network and MySQL time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateOrderBenchmark {
+    
+    private OrderService orderService;
+    private OrderRequest request;
+    
+    static class StubProductServiceClient extends ProductServiceClient {
+        private final ProductDTO product;
+        
+        StubProductServiceClient(ProductDTO product) {
+            super(WebClient.builder(), Fixtures.jwtTokenService(), "order-service");
+            this.product = product;
+        }
+        
+        @Override
+        public ProductDTO getProduct(Long productId) {
+            return product;
+        }
+        
+        @Override
+        public boolean checkStock(Long productId, Integer quantity) {
+            return true;
+        }
+        
+        @Override
+        public void updateStock(Long productId, Integer quantity, BigDecimal expectedPrice) {
+        }
+    }
+    
+    @Setup
+    public void setup() {
+        ProductDTO product = new ProductDTO();
+        product.setId(1L);
+        product.setName("MacBook Pro 16\"");
+        product.setPrice(new BigDecimal("249900.00"));
+        product.setStock(50);
+        product.setCategory("Electronics");
+        
+        StubProductServiceClient productServiceClient = new StubProductServiceClient(product);
+        ProductSnapshotCache productSnapshotCache = new ProductSnapshotCache();
+        ReflectionTestUtils.setField(productSnapshotCache, "productServiceClient", productServiceClient);
+        ReflectionTestUtils.setField(productSnapshotCache, "meterRegistry", Fixtures.METER_REGISTRY);
+        ReflectionTestUtils.setField(productSnapshotCache, "enabled", true);
+        ReflectionTestUtils.setField(productSnapshotCache, "ttl", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(productSnapshotCache, "maxEntries", 10_000);
+        productSnapshotCache.init();
+        
+        orderService = new OrderService();
+        ReflectionTestUtils.setField(orderService, "orderRepository", Fixtures.inMemoryOrderRepository());
+        ReflectionTestUtils.setField(orderService, "productServiceClient", productServiceClient);
+        ReflectionTestUtils.setField(orderService, "productSnapshotCache", productSnapshotCache);
+        ReflectionTestUtils.setField(orderService, "pricingEngine", Fixtures.pricingEngine(new PricingProperties()));
+        ReflectionTestUtils.setField(orderService, "meterRegistry", Fixtures.METER_REGISTRY);
+        ReflectionTestUtils.setField(orderService, "observationRegistry", ObservationRegistry.NOOP);
+        
+        request = new OrderRequest();
+        request.setUserId(1L);
+        request.setProductId(1L);
+        request.setQuantity(2);
+        request.setPaymentMethod("CREDIT_CARD");
+        request.setShippingAddress("123 Main St, Mumbai, India");
+    }
+    
+    @Benchmark
+    public Order createOrder() {
+        return orderService.createOrder(request);
+    }
+}
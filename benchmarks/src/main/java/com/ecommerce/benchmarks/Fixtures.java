@@ -0,0 +1,113 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.auth.JwtTokenService;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.pricing.PricingEngine;
+import com.ecommerce.orderservice.pricing.PricingProperties;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.userservice.security.JwtUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared test data and stand-ins for the Spring-managed collaborators of the benchmarked classes.
+ */
+final class Fixtures {
+    
+    // Same value as user-service's application.yml
+    static final String JWT_SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437"
+            + "776A5A7234753778217A25432A462D4A614E645267556B58703273357638792F42";
+    static final int JWT_EXPIRATION_MS = 86_400_000;
+    
+    // Meters are recorded as in production, just never exported
+    static final MeterRegistry METER_REGISTRY = new SimpleMeterRegistry();
+    
+    private Fixtures() {
+    }
+    
+    static JwtTokenService jwtTokenService() {
+        return new JwtTokenService(JWT_SECRET, Duration.ofMillis(JWT_EXPIRATION_MS));
+    }
+    
+    static JwtUtils jwtUtils() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtTokenService", jwtTokenService());
+        return jwtUtils;
+    }
+    
+    static PricingEngine pricingEngine(PricingProperties properties) {
+        PricingEngine pricingEngine = new PricingEngine();
+        ReflectionTestUtils.setField(pricingEngine, "properties", properties);
+        ReflectionTestUtils.setField(pricingEngine, "meterRegistry", METER_REGISTRY);
+        pricingEngine.init();
+        return pricingEngine;
+    }
+    
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= count; i++) {
+            products.add(new Product((long) i, "Product " + i,
+                    "Long-form description of product " + i + " with enough text to resemble a TEXT column.",
+                    new BigDecimal("1499.99").add(BigDecimal.valueOf(i)), 100 + i, "Electronics",
+                    "https://example.com/images/" + i + ".jpg", now, now));
+        }
+        return products;
+    }
+    
+    static List<Order> orders(int count) {
+        List<Order> orders = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= count; i++) {
+            orders.add(new Order((long) i, (long) (i % 50), (long) (i % 10), 1 + i % 3,
+                    new BigDecimal("2999.98"), OrderStatus.CONFIRMED, "CREDIT_CARD",
+                    "123 Main St, Mumbai, India", now, now));
+        }
+        return orders;
+    }
+    
+    /**
+     * An {@link OrderRepository} backed by a map, supporting the calls OrderService makes.
+     */
+    static OrderRepository inMemoryOrderRepository() {
+        Map<Long, Order> store = new ConcurrentHashMap<>();
+        AtomicLong ids = new AtomicLong();
+        return (OrderRepository) Proxy.newProxyInstance(OrderRepository.class.getClassLoader(),
+                new Class<?>[]{OrderRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "save":
+                        case "saveAndFlush":
+                            Order order = (Order) args[0];
+                            if (order.getId() == null) {
+                                order.setId(ids.incrementAndGet());
+                            }
+                            store.put(order.getId(), order);
+                            return order;
+                        case "findById":
+                            return Optional.ofNullable(store.get((Long) args[0]));
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "InMemoryOrderRepository";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.auth.JwtTokenService;
+import com.ecommerce.auth.TokenClaims;
+import com.ecommerce.userservice.security.JwtUtils;
+import com.ecommerce.userservice.security.UserAccount;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing and verification as done on every login and every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    
+    private JwtUtils jwtUtils;
+    private JwtTokenService jwtTokenService;
+    private Authentication authentication;
+    private String token;
+    
+    @Setup
+    public void setup() {
+        jwtUtils = Fixtures.jwtUtils();
+        jwtTokenService = Fixtures.jwtTokenService();
+        UserAccount principal = new UserAccount(370542375360118785L, "benchmark-user", "unused",
+                "benchmark@example.com", "USER");
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = jwtUtils.generateJwtToken(authentication);
+    }
+    
+    @Benchmark
+    public String sign() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+    
+    @Benchmark
+    public TokenClaims verify() {
+        return jwtTokenService.verify(token);
+    }
+}
@@ -0,0 +1,125 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.orderservice.dto.ProductDTO;
+import com.ecommerce.orderservice.pricing.CartLine;
+import com.ecommerce.orderservice.pricing.PriceQuote;
+import com.ecommerce.orderservice.pricing.PricingEngine;
+import com.ecommerce.orderservice.pricing.PricingProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PricingEngine over carts of 10, 100 and 1000 lines with a tax rate and a few promotions, once
+ * forced onto the calling thread and once forced onto the fork/join pool. {@code bigDecimal} does
+ * the same per-line work in BigDecimal, as createOrder used to, for comparison with the cents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingBenchmark {
+    
+    private static final String[] CATEGORIES = {"Electronics", "Books", "Clothing", "Home"};
+    private static final BigDecimal TAX_RATE = new BigDecimal("8.25");
+    
+    @Param({"10", "100", "1000"})
+    private int lines;
+    
+    private PricingEngine sequentialEngine;
+    private PricingEngine parallelEngine;
+    private List<PricingProperties.Promotion> promotions;
+    private List<CartLine> cart;
+    private Map<Long, ProductDTO> products;
+    
+    @Setup
+    public void setup() {
+        promotions = List.of(
+                promotion("electronics-5", "Electronics", 1, "5"),
+                promotion("electronics-bulk", "Electronics", 10, "12.5"),
+                promotion("books-3-for-2", "Books", 3, "33.33"),
+                promotion("storewide", null, 20, "2"));
+        sequentialEngine = Fixtures.pricingEngine(properties(Integer.MAX_VALUE, 0));
+        // At least two threads, or the engine would price on the calling thread anyway
+        parallelEngine = Fixtures.pricingEngine(properties(1, Math.max(2, Runtime.getRuntime().availableProcessors())));
+        
+        cart = new ArrayList<>(lines);
+        products = new HashMap<>();
+        for (int i = 1; i <= lines; i++) {
+            ProductDTO product = new ProductDTO();
+            product.setId((long) i);
+            product.setName("Product " + i);
+            product.setPrice(new BigDecimal("19.99").add(BigDecimal.valueOf(i, 2)));
+            product.setStock(100);
+            product.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            products.put(product.getId(), product);
+            cart.add(new CartLine(product.getId(), 1 + i % 25));
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        sequentialEngine.shutdown();
+        parallelEngine.shutdown();
+    }
+    
+    @Benchmark
+    public PriceQuote sequential() {
+        return sequentialEngine.price(cart, products);
+    }
+    
+    @Benchmark
+    public PriceQuote parallel() {
+        return parallelEngine.price(cart, products);
+    }
+    
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        BigDecimal hundred = BigDecimal.valueOf(100);
+        for (CartLine line : cart) {
+            ProductDTO product = products.get(line.productId());
+            BigDecimal subtotal = product.getPrice().multiply(BigDecimal.valueOf(line.quantity()));
+            BigDecimal percentOff = BigDecimal.ZERO;
+            for (PricingProperties.Promotion promotion : promotions) {
+                if (line.quantity() >= promotion.getMinQuantity()
+                        && (promotion.getCategory() == null
+                        || promotion.getCategory().equalsIgnoreCase(product.getCategory()))) {
+                    percentOff = percentOff.max(promotion.getPercentOff());
+                }
+            }
+            BigDecimal discount = subtotal.multiply(percentOff).divide(hundred, 2, RoundingMode.HALF_UP);
+            BigDecimal taxable = subtotal.subtract(discount);
+            BigDecimal tax = taxable.multiply(TAX_RATE).divide(hundred, 2, RoundingMode.HALF_UP);
+            total = total.add(taxable).add(tax);
+        }
+        return total;
+    }
+    
+    private PricingProperties properties(int parallelThreshold, int parallelism) {
+        PricingProperties properties = new PricingProperties();
+        properties.setParallelThreshold(parallelThreshold);
+        properties.setParallelism(parallelism);
+        properties.setTaxRate(TAX_RATE);
+        properties.setPromotions(promotions);
+        return properties;
+    }
+    
+    private static PricingProperties.Promotion promotion(String name, String category, int minQuantity,
+                                                         String percentOff) {
+        PricingProperties.Promotion promotion = new PricingProperties.Promotion();
+        promotion.setName(name);
+        promotion.setCategory(category);
+        promotion.setMinQuantity(minQuantity);
+        promotion.setPercentOff(new BigDecimal(percentOff));
+        return promotion;
+    }
+}
@@ -0,0 +1,94 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.orderservice.dto.OrderField;
+import com.ecommerce.orderservice.dto.OrderResponse;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.productservice.dto.ProductField;
+import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.entity.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding of the list endpoints' payloads, using ObjectMappers configured the same way
+ * Spring Boot configures the services' message converters. {@code productList} and
+ * {@code orderList} serialize the JPA entities, as the controllers used to; the
+ * {@code *Response*} methods serialize the response records the controllers return now.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+    
+    @Param({"10", "100", "1000"})
+    private int size;
+    
+    private ObjectMapper objectMapper;
+    private ObjectMapper cborMapper;
+    private List<Product> products;
+    private List<Order> orders;
+    private List<ProductResponse> productResponses;
+    private List<ProductResponse> productSummaries;
+    private List<OrderResponse> orderResponses;
+    
+    @Setup
+    public void setup() {
+        // Boot turns WRITE_DATES_AS_TIMESTAMPS off, so dates go out as ISO-8601 strings
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        cborMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .factory(new CBORFactory())
+                .build();
+        products = Fixtures.products(size);
+        orders = Fixtures.orders(size);
+        productResponses = ProductResponse.fromAll(products, ProductField.ALL);
+        productSummaries = ProductResponse.fromAll(products, ProductField.parse("id,name,price,stock"));
+        orderResponses = OrderResponse.fromAll(orders, OrderField.ALL);
+    }
+    
+    @Benchmark
+    public byte[] productList() throws Exception {
+        return objectMapper.writeValueAsBytes(products);
+    }
+    
+    @Benchmark
+    public byte[] orderList() throws Exception {
+        return objectMapper.writeValueAsBytes(orders);
+    }
+    
+    @Benchmark
+    public byte[] productResponseList() throws Exception {
+        return objectMapper.writeValueAsBytes(productResponses);
+    }
+    
+    @Benchmark
+    public byte[] productResponseListSelectedFields() throws Exception {
+        return objectMapper.writeValueAsBytes(productSummaries);
+    }
+    
+    @Benchmark
+    public byte[] productResponseListCbor() throws Exception {
+        return cborMapper.writeValueAsBytes(productResponses);
+    }
+    
+    @Benchmark
+    public byte[] orderResponseList() throws Exception {
+        return objectMapper.writeValueAsBytes(orderResponses);
+    }
+    
+    @Benchmark
+    public byte[] orderResponseListCbor() throws Exception {
+        return cborMapper.writeValueAsBytes(orderResponses);
+    }
+}
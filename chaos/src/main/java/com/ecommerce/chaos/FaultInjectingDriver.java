@@ -0,0 +1,140 @@
+package com.ecommerce.chaos;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * JDBC driver wrapping the real one named by the rest of its URL, {@code jdbc:fault:jdbc:h2:mem:...},
+ * that injects the faults of the {@code chaos.jdbc} system property ({@link FaultProfile}) into every
+ * statement execution:
+ *
+ * <ul>
+ *   <li>Latency holds the statement before it runs.</li>
+ *   <li>An error throws an {@link SQLTransientException} without running it.</li>
+ *   <li>A reset closes the physical connection and throws with SQL state {@code 08S01}, so the pool
+ *   evicts it like a connection the database dropped.</li>
+ * </ul>
+ *
+ * Put the jar on a service's {@code loader.path} and set {@code spring.datasource.driver-class-name}
+ * to this class. The counts are printed to standard error when the JVM exits.
+ */
+public class FaultInjectingDriver implements Driver {
+    
+    public static final String URL_PREFIX = "jdbc:fault:";
+    public static final String PROFILE_PROPERTY = "chaos.jdbc";
+    
+    private static final FaultInjector INJECTOR =
+            new FaultInjector(FaultProfile.parse(System.getProperty(PROFILE_PROPERTY)));
+    
+    static {
+        try {
+            DriverManager.registerDriver(new FaultInjectingDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.println(
+                "Chaos JDBC faults (" + INJECTOR.getProfile() + "): " + INJECTOR), "fault-driver-report"));
+    }
+    
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        Connection connection = DriverManager.getConnection(url.substring(URL_PREFIX.length()), info);
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+    
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+    
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+        return DriverManager.getDriver(url.substring(URL_PREFIX.length())).getPropertyInfo(url, info);
+    }
+    
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+    
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+    
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+    
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+    
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(FaultInjectingDriver.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    // Hands out statements that inject faults; everything else goes straight to the real connection
+    private record ConnectionHandler(Connection connection) implements InvocationHandler {
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = FaultInjectingDriver.invoke(connection, method, args);
+            if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return proxy(method.getReturnType(), new StatementHandler(connection, result));
+            }
+            return result;
+        }
+    }
+    
+    private record StatementHandler(Connection connection, Object statement) implements InvocationHandler {
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().startsWith("execute")) {
+                FaultProfile.Outcome outcome;
+                try {
+                    outcome = INJECTOR.next();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLTransientException("Interrupted while injecting latency", e);
+                }
+                if (outcome == FaultProfile.Outcome.ERROR) {
+                    throw new SQLTransientException("Fault injected by the chaos driver");
+                }
+                if (outcome == FaultProfile.Outcome.RESET) {
+                    connection.close();
+                    throw new SQLNonTransientConnectionException("Connection reset by the chaos driver", "08S01");
+                }
+            }
+            return FaultInjectingDriver.invoke(statement, method, args);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.ecommerce.chaos;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies a {@link FaultProfile} to calls one by one and counts what it did to them.
+ */
+public class FaultInjector {
+    
+    private final FaultProfile profile;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    
+    public FaultInjector(FaultProfile profile) {
+        this.profile = profile;
+    }
+    
+    /**
+     * Holds the calling thread for the sampled delay, if any, then decides how the call ends.
+     */
+    public FaultProfile.Outcome next() throws InterruptedException {
+        calls.increment();
+        Duration delay = profile.sampleDelay();
+        if (!delay.isZero()) {
+            delayed.increment();
+            Thread.sleep(delay.toMillis(), delay.toNanosPart() % 1_000_000);
+        }
+        FaultProfile.Outcome outcome = profile.sampleOutcome();
+        if (outcome == FaultProfile.Outcome.ERROR) {
+            errors.increment();
+        } else if (outcome == FaultProfile.Outcome.RESET) {
+            resets.increment();
+        }
+        return outcome;
+    }
+    
+    public FaultProfile getProfile() {
+        return profile;
+    }
+    
+    /** Starts the counts over, e.g. between two load-test scenarios. */
+    public void reset() {
+        calls.reset();
+        delayed.reset();
+        errors.reset();
+        resets.reset();
+    }
+    
+    public Map<String, Long> counts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("calls", calls.sum());
+        counts.put("delayed", delayed.sum());
+        counts.put("errors", errors.sum());
+        counts.put("resets", resets.sum());
+        return counts;
+    }
+    
+    @Override
+    public String toString() {
+        return calls.sum() + " calls, " + delayed.sum() + " delayed, " + errors.sum() + " failed, "
+                + resets.sum() + " dropped";
+    }
+}
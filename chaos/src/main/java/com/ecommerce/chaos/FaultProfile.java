@@ -0,0 +1,148 @@
+package com.ecommerce.chaos;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Which faults to inject into calls to a dependency, and how often. Written as
+ * {@code latency=200ms@0.2,error=0.05,reset=0.01}:
+ *
+ * <ul>
+ *   <li>{@code latency=<min>[-<max>]ms[@<rate>]}: delays that share of calls (all of them without a
+ *   rate) by a time picked evenly between min and max. {@code s} works as a unit too.</li>
+ *   <li>{@code error=<rate>}: fails that share of calls (a 503, or an {@code SQLException}).</li>
+ *   <li>{@code reset=<rate>}: drops the connection for that share of calls, without an answer.</li>
+ * </ul>
+ *
+ * A delayed call can still fail or be dropped; errors and resets exclude each other.
+ */
+public final class FaultProfile {
+    
+    public static final FaultProfile NONE = new FaultProfile(Duration.ZERO, Duration.ZERO, 0, 0, 0);
+    
+    public enum Outcome {
+        PASS, ERROR, RESET
+    }
+    
+    private final Duration minLatency;
+    private final Duration maxLatency;
+    private final double latencyRate;
+    private final double errorRate;
+    private final double resetRate;
+    
+    public FaultProfile(Duration minLatency, Duration maxLatency, double latencyRate, double errorRate,
+                        double resetRate) {
+        if (maxLatency.compareTo(minLatency) < 0) {
+            throw new IllegalArgumentException("Latency range " + minLatency + "-" + maxLatency + " is reversed");
+        }
+        this.minLatency = minLatency;
+        this.maxLatency = maxLatency;
+        this.latencyRate = rate("latency", latencyRate);
+        this.errorRate = rate("error", errorRate);
+        this.resetRate = rate("reset", resetRate);
+        if (errorRate + resetRate > 1) {
+            throw new IllegalArgumentException("error and reset rates add up to more than 1");
+        }
+    }
+    
+    /**
+     * @param spec as described above; empty, blank or {@code none} for no faults
+     */
+    public static FaultProfile parse(String spec) {
+        if (spec == null || spec.isBlank() || "none".equals(spec.trim())) {
+            return NONE;
+        }
+        Duration minLatency = Duration.ZERO;
+        Duration maxLatency = Duration.ZERO;
+        double latencyRate = 0;
+        double errorRate = 0;
+        double resetRate = 0;
+        for (String part : spec.split(",")) {
+            int eq = part.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected name=value in fault profile, got " + part);
+            }
+            String name = part.substring(0, eq).trim();
+            String value = part.substring(eq + 1).trim();
+            switch (name) {
+                case "latency" -> {
+                    int at = value.indexOf('@');
+                    String range = at < 0 ? value : value.substring(0, at);
+                    latencyRate = at < 0 ? 1 : Double.parseDouble(value.substring(at + 1));
+                    String unit = range.endsWith("ms") ? "ms" : range.endsWith("s") ? "s" : "";
+                    String amounts = range.substring(0, range.length() - unit.length());
+                    int dash = amounts.indexOf('-');
+                    minLatency = duration(dash < 0 ? amounts : amounts.substring(0, dash), unit);
+                    maxLatency = dash < 0 ? minLatency : duration(amounts.substring(dash + 1), unit);
+                }
+                case "error" -> errorRate = Double.parseDouble(value);
+                case "reset" -> resetRate = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException(
+                        "Unknown fault " + name + ", expected latency, error or reset");
+            }
+        }
+        return new FaultProfile(minLatency, maxLatency, latencyRate, errorRate, resetRate);
+    }
+    
+    public boolean isNone() {
+        return (latencyRate == 0 || maxLatency.isZero()) && errorRate == 0 && resetRate == 0;
+    }
+    
+    /**
+     * @return how long to hold up the next call, zero for most calls unless the rate is high
+     */
+    public Duration sampleDelay() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (maxLatency.isZero() || random.nextDouble() >= latencyRate) {
+            return Duration.ZERO;
+        }
+        long min = minLatency.toNanos();
+        long max = maxLatency.toNanos();
+        return Duration.ofNanos(min == max ? min : random.nextLong(min, max + 1));
+    }
+    
+    public Outcome sampleOutcome() {
+        double draw = ThreadLocalRandom.current().nextDouble();
+        if (draw < errorRate) {
+            return Outcome.ERROR;
+        }
+        return draw < errorRate + resetRate ? Outcome.RESET : Outcome.PASS;
+    }
+    
+    private static double rate(String name, double value) {
+        if (value < 0 || value > 1) {
+            throw new IllegalArgumentException(name + " rate must be between 0 and 1, got " + value);
+        }
+        return value;
+    }
+    
+    private static Duration duration(String amount, String unit) {
+        long value = Long.parseLong(amount.trim());
+        return "s".equals(unit) ? Duration.ofSeconds(value) : Duration.ofMillis(value);
+    }
+    
+    /**
+     * @return the profile in the form {@link #parse} reads
+     */
+    @Override
+    public String toString() {
+        if (isNone()) {
+            return "none";
+        }
+        StringBuilder spec = new StringBuilder();
+        if (latencyRate > 0 && !maxLatency.isZero()) {
+            spec.append("latency=").append(minLatency.toMillis());
+            if (!maxLatency.equals(minLatency)) {
+                spec.append('-').append(maxLatency.toMillis());
+            }
+            spec.append("ms@").append(latencyRate);
+        }
+        if (errorRate > 0) {
+            spec.append(spec.isEmpty() ? "" : ",").append("error=").append(errorRate);
+        }
+        if (resetRate > 0) {
+            spec.append(spec.isEmpty() ? "" : ",").append("reset=").append(resetRate);
+        }
+        return spec.toString();
+    }
+}
@@ -0,0 +1,159 @@
+package com.ecommerce.chaos;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP/1.1 proxy in front of one service that injects the faults of a {@link FaultProfile} into
+ * the calls passing through it. Point a dependent at {@link #baseUrl()} instead of the service.
+ *
+ * <ul>
+ *   <li>Latency holds the request before it is forwarded.</li>
+ *   <li>An error answers 503 without forwarding, like an overloaded instance.</li>
+ *   <li>A reset closes the connection without an answer; the caller sees it closed prematurely.</li>
+ * </ul>
+ *
+ * Bodies are buffered in both directions, so streamed responses (server-sent events) only arrive
+ * once the service has finished them.
+ */
+public class FaultProxy implements AutoCloseable {
+    
+    // Set by the client or the server for each hop; HttpClient refuses some of them outright
+    private static final Set<String> HOP_BY_HOP = Set.of("connection", "keep-alive", "proxy-connection",
+            "transfer-encoding", "te", "trailer", "upgrade", "host", "content-length", "expect",
+            "http2-settings", "date");
+    
+    private final String name;
+    private final URI upstream;
+    private final FaultInjector injector;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final HttpClient client;
+    
+    /**
+     * @param name     the service behind the proxy, for reports
+     * @param port     local port to listen on
+     * @param upstream base URL of the service, e.g. {@code http://localhost:8082}
+     */
+    public FaultProxy(String name, int port, String upstream, FaultProfile profile) throws IOException {
+        this.name = name;
+        this.upstream = URI.create(upstream);
+        this.injector = new FaultInjector(profile);
+        // Unbounded: delayed calls each hold a thread, and the proxy must not add a queue of its own
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fault-proxy-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .executor(executor)
+                .build();
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+    
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public FaultInjector getInjector() {
+        return injector;
+    }
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            FaultProfile.Outcome outcome;
+            try {
+                outcome = injector.next();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            switch (outcome) {
+                // Closing an exchange that has not sent its headers closes the connection
+                case RESET -> { }
+                case ERROR -> respond(exchange, 503, "{\"error\":\"Fault injected by the chaos proxy\"}");
+                case PASS -> forward(exchange);
+            }
+        }
+    }
+    
+    private void forward(HttpExchange exchange) throws IOException {
+        byte[] requestBody = exchange.getRequestBody().readAllBytes();
+        HttpRequest.Builder request = HttpRequest.newBuilder(upstream.resolve(exchange.getRequestURI().toString()))
+                .method(exchange.getRequestMethod(), requestBody.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(requestBody));
+        copyHeaders(exchange.getRequestHeaders(), request::header);
+        
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            respond(exchange, 502, "{\"error\":\"Chaos proxy could not reach " + name + "\"}");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        copyHeaders(response.headers().map(), exchange.getResponseHeaders()::add);
+        byte[] body = response.body();
+        boolean noBody = body.length == 0 || "HEAD".equals(exchange.getRequestMethod());
+        exchange.sendResponseHeaders(response.statusCode(), noBody ? -1 : body.length);
+        if (!noBody) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+    
+    private static void copyHeaders(Map<String, List<String>> headers, HeaderSink sink) {
+        headers.forEach((header, values) -> {
+            if (header != null && !HOP_BY_HOP.contains(header.toLowerCase())) {
+                values.forEach(value -> sink.add(header, value));
+            }
+        });
+    }
+    
+    private interface HeaderSink {
+        void add(String name, String value);
+    }
+    
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,346 @@
+package com.ecommerce.events;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pushes the latest state of a set of keys (product ids, order ids) to server-sent event
+ * subscribers.
+ *
+ * Events are conflated: a subscriber holds at most one pending event per key it watches, and a
+ * newer event replaces the one not yet sent. A slow client therefore skips intermediate states
+ * instead of building up a backlog, and the memory a subscriber can take is bounded by the number
+ * of keys it watches. An event equal to the last one queued for a subscriber is dropped, so
+ * publishing the same state again is cheap. With an {@code order}, an event older than the last
+ * one queued for the key is dropped too, so a state read before a change cannot overwrite it.
+ *
+ * Publishing never blocks on the network. A subscriber with pending events is queued once on a
+ * shared queue, and a few sender threads write to the connections. A heartbeat comment goes out
+ * every {@code heartbeat}; it keeps proxies from closing idle streams and finds clients that went
+ * away.
+ *
+ * Writes to a connection block while the client does not read. A subscriber whose write takes
+ * longer than {@code sendTimeout} is dropped, and a new sender thread takes over from the stuck
+ * one. The stuck thread ends the stream and exits once the container gives up on the write.
+ *
+ * @param <E> event payload, serialized as JSON; must implement {@code equals}
+ */
+public class SseBroadcaster<E> {
+    
+    private static final Logger logger = Logger.getLogger(SseBroadcaster.class.getName());
+    
+    private final String eventName;
+    private final int maxSubscribers;
+    private final int maxKeysPerSubscriber;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+    private final Comparator<? super E> order;
+    
+    private final Map<Long, Set<Subscriber>> subscribersByKey = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final LinkedBlockingQueue<Subscriber> ready = new LinkedBlockingQueue<>();
+    private final Set<Sender> activeSenders = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService timers;
+    
+    private volatile boolean running = true;
+    
+    public SseBroadcaster(String eventName, int maxSubscribers, int maxKeysPerSubscriber, int senderThreads,
+                          Duration timeout, Duration heartbeat, Duration sendTimeout) {
+        this(eventName, maxSubscribers, maxKeysPerSubscriber, senderThreads, timeout, heartbeat, sendTimeout, null);
+    }
+    
+    /**
+     * @param eventName SSE event name of every event
+     * @param senderThreads threads writing to the connections
+     * @param timeout how long a stream stays open; clients reconnect after it
+     * @param sendTimeout how long one write may block before the subscriber is dropped
+     * @param order orders the events of one key by age; null when any event may replace any other
+     */
+    public SseBroadcaster(String eventName, int maxSubscribers, int maxKeysPerSubscriber, int senderThreads,
+                          Duration timeout, Duration heartbeat, Duration sendTimeout, Comparator<? super E> order) {
+        this.eventName = eventName;
+        this.maxSubscribers = maxSubscribers;
+        this.maxKeysPerSubscriber = maxKeysPerSubscriber;
+        this.timeoutMs = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.order = order;
+        // Not fixed: stuck senders are replaced, and keep their thread until their write ends
+        this.senders = Executors.newCachedThreadPool(daemon("sse-" + eventName + "-sender"));
+        for (int i = 0; i < senderThreads; i++) {
+            startSender();
+        }
+        this.timers = Executors.newSingleThreadScheduledExecutor(daemon("sse-" + eventName + "-timer"));
+        timers.scheduleWithFixedDelay(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(),
+                TimeUnit.MILLISECONDS);
+        long checkMs = Math.max(1, sendTimeout.toMillis() / 2);
+        timers.scheduleWithFixedDelay(this::dropStalledSends, checkMs, checkMs, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Opens a stream of the events for {@code keys}. The caller then publishes the current state
+     * of each key with {@link #publish}, so the client starts from it.
+     *
+     * @throws IllegalArgumentException when no keys or more than {@code maxKeysPerSubscriber} are given
+     * @throws SubscriberLimitException when {@code maxSubscribers} streams are already open
+     */
+    public SseEmitter subscribe(Collection<Long> keys) {
+        if (keys.isEmpty() || keys.size() > maxKeysPerSubscriber) {
+            throw new IllegalArgumentException("Between 1 and " + maxKeysPerSubscriber + " ids per stream");
+        }
+        if (keys.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Stream ids must not be empty");
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new SubscriberLimitException("Too many open " + eventName + " streams, try again later");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(keys));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        for (Long key : subscriber.keys) {
+            subscribersByKey.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+        return emitter;
+    }
+    
+    /**
+     * Queues {@code event} for every stream watching {@code key}. Returns at once; costs one map
+     * lookup when nobody watches the key.
+     */
+    public void publish(long key, E event) {
+        Set<Subscriber> subscribers = subscribersByKey.get(key);
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(key, event)) {
+                schedule(subscriber);
+            }
+        }
+    }
+    
+    /**
+     * Keys watched by at least one stream.
+     */
+    public Set<Long> watchedKeys() {
+        return Set.copyOf(subscribersByKey.keySet());
+    }
+    
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+    
+    public void shutdown() {
+        running = false;
+        timers.shutdownNow();
+        senders.shutdownNow();
+        for (Set<Subscriber> subscribers : subscribersByKey.values()) {
+            subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        }
+    }
+    
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.queued.compareAndSet(false, true)) {
+            ready.add(subscriber);
+        }
+    }
+    
+    private void startSender() {
+        Sender sender = new Sender();
+        activeSenders.add(sender);
+        senders.execute(() -> sendLoop(sender));
+    }
+    
+    private void sendLoop(Sender sender) {
+        while (running) {
+            Subscriber subscriber;
+            try {
+                subscriber = ready.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (!subscriber.closed) {
+                sender.begin(subscriber);
+                send(subscriber);
+                if (!sender.end()) {
+                    // Dropped as too slow while this thread was stuck, and another sender took over
+                    subscriber.emitter.complete();
+                    return;
+                }
+            }
+            // One sender per subscriber at a time, so its events go out in order. Events offered
+            // while it was being sent did not queue it again, hence the second look.
+            subscriber.queued.set(false);
+            if (!subscriber.closed && subscriber.hasWork()) {
+                schedule(subscriber);
+            }
+        }
+    }
+    
+    private void send(Subscriber subscriber) {
+        Map<Long, E> events = subscriber.drain();
+        boolean heartbeat = subscriber.heartbeatDue.getAndSet(false);
+        try {
+            for (E event : events.values()) {
+                subscriber.emitter.send(SseEmitter.event().name(eventName).data(event, MediaType.APPLICATION_JSON));
+            }
+            if (heartbeat && events.isEmpty()) {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client gone or stream already completed
+            logger.log(Level.FINE, "Dropping " + eventName + " subscriber", e);
+            subscriber.emitter.completeWithError(e);
+            remove(subscriber);
+        }
+    }
+    
+    private void dropStalledSends() {
+        long now = System.nanoTime();
+        for (Sender sender : activeSenders) {
+            Subscriber stalled = sender.retireIfStalled(now);
+            if (stalled != null) {
+                logger.info("Dropping " + eventName + " subscriber, a write blocked for longer than "
+                        + TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos) + " ms");
+                activeSenders.remove(sender);
+                remove(stalled);
+                if (running) {
+                    startSender();
+                }
+            }
+        }
+    }
+    
+    private void heartbeat() {
+        Set<Subscriber> all = new HashSet<>();
+        subscribersByKey.values().forEach(all::addAll);
+        for (Subscriber subscriber : all) {
+            subscriber.heartbeatDue.set(true);
+            schedule(subscriber);
+        }
+    }
+    
+    private void remove(Subscriber subscriber) {
+        if (subscriber.closed) {
+            return;
+        }
+        synchronized (subscriber) {
+            if (subscriber.closed) {
+                return;
+            }
+            subscriber.closed = true;
+        }
+        subscriberCount.decrementAndGet();
+        for (Long key : subscriber.keys) {
+            subscribersByKey.computeIfPresent(key, (k, subscribers) -> {
+                subscribers.remove(subscriber);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+    }
+    
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    private final class Sender {
+        
+        // Guarded by this
+        private Subscriber sending;
+        private long sendStarted;
+        private boolean retired;
+        
+        synchronized void begin(Subscriber subscriber) {
+            sending = subscriber;
+            sendStarted = System.nanoTime();
+        }
+        
+        // False when the sender was retired during the send
+        synchronized boolean end() {
+            sending = null;
+            return !retired;
+        }
+        
+        // The subscriber being sent to, when the send has taken too long; the sender is done then
+        synchronized Subscriber retireIfStalled(long now) {
+            if (sending == null || now - sendStarted < sendTimeoutNanos) {
+                return null;
+            }
+            retired = true;
+            return sending;
+        }
+    }
+    
+    private final class Subscriber {
+        
+        final SseEmitter emitter;
+        final Set<Long> keys;
+        final AtomicBoolean queued = new AtomicBoolean();
+        final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        volatile boolean closed;
+        
+        // Guarded by this
+        private Map<Long, E> pending = new LinkedHashMap<>();
+        private final Map<Long, E> lastOffered = new HashMap<>();
+        
+        Subscriber(SseEmitter emitter, Set<Long> keys) {
+            this.emitter = emitter;
+            this.keys = keys;
+        }
+        
+        // False when the event repeats the last one for the key, is older than it, or the stream is closed
+        synchronized boolean offer(long key, E event) {
+            E last = lastOffered.get(key);
+            if (closed || Objects.equals(last, event)
+                    || (order != null && last != null && order.compare(event, last) < 0)) {
+                return false;
+            }
+            lastOffered.put(key, event);
+            pending.put(key, event);
+            return true;
+        }
+        
+        synchronized boolean hasWork() {
+            return !pending.isEmpty() || heartbeatDue.get();
+        }
+        
+        synchronized Map<Long, E> drain() {
+            if (pending.isEmpty()) {
+                return Map.of();
+            }
+            Map<Long, E> events = pending;
+            pending = new LinkedHashMap<>();
+            return events;
+        }
+    }
+}
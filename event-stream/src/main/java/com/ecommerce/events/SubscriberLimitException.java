@@ -0,0 +1,11 @@
+package com.ecommerce.events;
+
+/**
+ * Thrown when a new stream would exceed the configured number of open streams.
+ */
+public class SubscriberLimitException extends RuntimeException {
+    
+    public SubscriberLimitException(String message) {
+        super(message);
+    }
+}
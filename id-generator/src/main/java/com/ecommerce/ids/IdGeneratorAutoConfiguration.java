@@ -0,0 +1,37 @@
+package com.ecommerce.ids;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+import java.util.logging.Logger;
+
+@AutoConfiguration
+@EnableConfigurationProperties(IdProperties.class)
+public class IdGeneratorAutoConfiguration {
+    
+    private static final Logger logger = Logger.getLogger(IdGeneratorAutoConfiguration.class.getName());
+    
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(IdProperties properties) {
+        Integer nodeId = properties.getNodeId();
+        if (nodeId == null) {
+            if (properties.isRequireNodeId()) {
+                throw new IllegalStateException("ids.node-id (ID_NODE_ID) is not set; every instance "
+                        + "of a service needs its own node id (see docs/ENTITY-IDS.md)");
+            }
+            nodeId = SnowflakeIdGenerator.derivedNodeId();
+            logger.warning("ids.node-id not set, using node id " + nodeId
+                    + " derived from host and process; replicas need distinct ids set");
+        }
+        return SnowflakeIdGenerator.forNode(nodeId);
+    }
+    
+    // Applied while the EntityManagerFactory is built, so entities and JDBC code share one generator
+    @Bean
+    public HibernatePropertiesCustomizer snowflakeNodeIdCustomizer(SnowflakeIdGenerator snowflakeIdGenerator) {
+        return properties -> properties.put(SnowflakeIdentifierGenerator.NODE_ID_SETTING,
+                String.valueOf(snowflakeIdGenerator.getNodeId()));
+    }
+}
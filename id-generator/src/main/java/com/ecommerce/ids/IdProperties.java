@@ -0,0 +1,22 @@
+package com.ecommerce.ids;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("ids")
+public class IdProperties {
+    
+    /**
+     * 0-1023, distinct for every instance of a service. Unset derives one from the host name
+     * and process id, which is fine for a single instance.
+     */
+    private Integer nodeId;
+    
+    /**
+     * Whether startup fails when {@link #nodeId} is unset instead of deriving one. Two replicas
+     * with derived ids collide about once in 1024, and the partitioned orders table cannot catch
+     * a duplicate id, so the prod profiles turn this on.
+     */
+    private boolean requireNodeId;
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.ids;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an {@code @Id} field whose value is taken from {@link SnowflakeIdGenerator} when the
+ * entity is persisted, instead of from the database. Hibernate then knows the id without
+ * executing the INSERT, so inserts wait for the flush and go out as JDBC batches.
+ */
+@IdGeneratorType(SnowflakeIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SnowflakeId {
+}
@@ -0,0 +1,109 @@
+package com.ecommerce.ids;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free generator of 64-bit ids that sort by creation time.
+ *
+ * <pre>
+ * 0 | 41 bits milliseconds since 2024-01-01T00:00Z | 10 bits node id | 12 bits sequence
+ * </pre>
+ * Every process that inserts into the same table needs its own node id. Up to 4096 ids are
+ * issued per millisecond and node; the next one waits for the following millisecond.
+ *
+ * Time comes from {@link System#nanoTime()}, anchored to the wall clock when the generator is
+ * created, so NTP stepping the clock back cannot make a running process repeat an id. A
+ * restart with the same node id needs the wall clock not to have gone back past the last id
+ * issued before it.
+ */
+public final class SnowflakeIdGenerator {
+    
+    public static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    
+    private static final Map<Integer, SnowflakeIdGenerator> BY_NODE = new ConcurrentHashMap<>();
+    
+    private final long nodeBits;
+    private final long startMillis;
+    private final long startNanos;
+    
+    // Last issued (millis << SEQUENCE_BITS | sequence)
+    private final AtomicLong state = new AtomicLong();
+    
+    private SnowflakeIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.startMillis = System.currentTimeMillis() - EPOCH_MILLIS;
+        this.startNanos = System.nanoTime();
+    }
+    
+    /**
+     * The generator for {@code nodeId} in this JVM. Everything generating ids for the same node
+     * has to share it, or two callers could issue the same id in the same millisecond.
+     */
+    public static SnowflakeIdGenerator forNode(int nodeId) {
+        return BY_NODE.computeIfAbsent(nodeId, SnowflakeIdGenerator::new);
+    }
+    
+    public long nextId() {
+        while (true) {
+            long last = state.get();
+            long now = currentMillis();
+            long next;
+            if (now > last >>> SEQUENCE_BITS) {
+                next = now << SEQUENCE_BITS;
+            } else if ((last & SEQUENCE_MASK) != SEQUENCE_MASK) {
+                // Same millisecond, or another thread already moved to a later one
+                next = last + 1;
+            } else {
+                Thread.onSpinWait();
+                continue;
+            }
+            if (state.compareAndSet(last, next)) {
+                return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+    
+    public int getNodeId() {
+        return (int) (nodeBits >>> SEQUENCE_BITS);
+    }
+    
+    /**
+     * When {@code id} was generated, to the millisecond.
+     */
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS);
+    }
+    
+    /**
+     * Node id from the host name and process id, for when none is configured. Two processes
+     * can still end up with the same one; replicas should be given distinct ids.
+     */
+    public static int derivedNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "localhost";
+        }
+        String runtime = ManagementFactory.getRuntimeMXBean().getName();
+        return Math.floorMod((host + "/" + runtime).hashCode(), MAX_NODE_ID + 1);
+    }
+    
+    private long currentMillis() {
+        return startMillis + (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
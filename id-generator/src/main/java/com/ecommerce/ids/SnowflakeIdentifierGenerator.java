@@ -0,0 +1,37 @@
+package com.ecommerce.ids;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+/**
+ * Hibernate side of {@link SnowflakeId}. The node id comes from the {@value #NODE_ID_SETTING}
+ * Hibernate setting, which {@link IdGeneratorAutoConfiguration} fills in from {@code ids.node-id}.
+ * Without the setting, the EntityManagerFactory fails to start.
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+    
+    public static final String NODE_ID_SETTING = "com.ecommerce.ids.node_id";
+    
+    private final SnowflakeIdGenerator generator;
+    
+    public SnowflakeIdentifierGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        Object nodeId = context.getServiceRegistry()
+                .getService(ConfigurationService.class)
+                .getSettings()
+                .get(NODE_ID_SETTING);
+        // Never derived here: that could differ from the node id the bean was given
+        if (nodeId == null) {
+            throw new IllegalStateException(NODE_ID_SETTING + " is not set; is IdGeneratorAutoConfiguration applied?");
+        }
+        this.generator = SnowflakeIdGenerator.forNode(Integer.parseInt(nodeId.toString()));
+    }
+    
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return generator.nextId();
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (microseconds) and error count for one endpoint.
+ */
+public class EndpointStats {
+    
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    
+    private final Histogram latency = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    
+    void record(long elapsedNanos, boolean success) {
+        latency.recordValue(Math.min(MAX_TRACKABLE_MICROS, Math.max(1, elapsedNanos / 1000)));
+        if (!success) {
+            errors.increment();
+        }
+    }
+    
+    public long getCount() {
+        return latency.getTotalCount();
+    }
+    
+    public long getErrors() {
+        return errors.sum();
+    }
+    
+    public double percentileMillis(double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+    
+    public double maxMillis() {
+        return latency.getMaxValue() / 1000.0;
+    }
+    
+    public double meanMillis() {
+        return latency.getMean() / 1000.0;
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.loadtest.scenario.Scenario;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Closed-loop driver: {@code concurrency} workers each run scenario steps back to back.
+ * Requests made during setup and warm-up are not recorded.
+ */
+public class LoadDriver {
+    
+    private final LoadTestOptions options;
+    
+    public LoadDriver(LoadTestOptions options) {
+        this.options = options;
+    }
+    
+    public LoadReport run(Scenario scenario, LocalStack stack) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Session session = new Session(client);
+        
+        System.out.println("[" + scenario.name() + "] setting up");
+        scenario.setup(session, stack, options);
+        
+        AtomicBoolean running = new AtomicBoolean(true);
+        for (int i = 0; i < options.concurrency(); i++) {
+            workers.execute(() -> {
+                while (running.get()) {
+                    try {
+                        scenario.step(session);
+                    } catch (RuntimeException e) {
+                        // scenario bugs must not kill the worker; failed requests are already recorded
+                    }
+                }
+            });
+        }
+        
+        System.out.println("[" + scenario.name() + "] warming up for " + options.warmup().toSeconds() + "s");
+        Thread.sleep(options.warmup().toMillis());
+        
+        System.out.println("[" + scenario.name() + "] measuring for " + options.duration().toSeconds() + "s with "
+                + options.concurrency() + " workers");
+        session.startRecording();
+        long start = System.nanoTime();
+        Thread.sleep(options.duration().toMillis());
+        session.stopRecording();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        
+        running.set(false);
+        workers.shutdown();
+        if (!workers.awaitTermination(60, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+        return new LoadReport(scenario.name(), options.concurrency(), elapsedSeconds, session.getStats());
+    }
+}
@@ -0,0 +1,119 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.chaos.FaultInjector;
+import com.ecommerce.chaos.FaultProfile;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-endpoint throughput, latency percentiles and error rate for one scenario run.
+ */
+public class LoadReport {
+    
+    private final String scenario;
+    private final int concurrency;
+    private final double durationSeconds;
+    private final Map<String, EndpointStats> endpoints;
+    private final List<Map<String, Object>> faults = new ArrayList<>();
+    
+    public LoadReport(String scenario, int concurrency, double durationSeconds, Map<String, EndpointStats> endpoints) {
+        this.scenario = scenario;
+        this.concurrency = concurrency;
+        this.durationSeconds = durationSeconds;
+        this.endpoints = new TreeMap<>(endpoints);
+    }
+    
+    /**
+     * Records what a fault proxy injected into calls to {@code target} during the run (see docs/CHAOS.md).
+     */
+    public void addHttpFaults(String target, FaultInjector injector) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("target", target);
+        row.put("kind", "http");
+        row.put("profile", injector.getProfile().toString());
+        row.putAll(injector.counts());
+        faults.add(row);
+    }
+    
+    /**
+     * Records the JDBC faults {@code target} ran with. Its driver counts them in the service's own
+     * process and prints the counts to its log on exit.
+     */
+    public void addJdbcFaults(String target, FaultProfile profile) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("target", target);
+        row.put("kind", "jdbc");
+        row.put("profile", profile.toString());
+        faults.add(row);
+    }
+    
+    public void print(PrintStream out) {
+        out.println();
+        out.printf("Scenario %s: %d workers, %.1fs measured%n", scenario, concurrency, durationSeconds);
+        out.printf("%-40s %9s %9s %9s %9s %9s %9s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors");
+        for (Map.Entry<String, EndpointStats> entry : endpoints.entrySet()) {
+            EndpointStats stats = entry.getValue();
+            out.printf("%-40s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7.2f%%%n",
+                    entry.getKey(), stats.getCount(), stats.getCount() / durationSeconds,
+                    stats.percentileMillis(50), stats.percentileMillis(99), stats.percentileMillis(99.9),
+                    stats.maxMillis(), errorRate(stats) * 100);
+        }
+        for (Map<String, Object> fault : faults) {
+            out.printf("Injected %s faults into %s (%s): %s%n", fault.get("kind"), fault.get("target"),
+                    fault.get("profile"), fault.containsKey("calls")
+                            ? String.format("%d calls, %d delayed, %d failed, %d dropped", fault.get("calls"),
+                                    fault.get("delayed"), fault.get("errors"), fault.get("resets"))
+                            : "counts in its log");
+        }
+    }
+    
+    public Path write(Path reportDir) throws IOException {
+        Files.createDirectories(reportDir);
+        Path file = reportDir.resolve(scenario + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), toMap());
+        return file;
+    }
+    
+    private Map<String, Object> toMap() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map.Entry<String, EndpointStats> entry : endpoints.entrySet()) {
+            EndpointStats stats = entry.getValue();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", entry.getKey());
+            row.put("requests", stats.getCount());
+            row.put("throughputPerSecond", stats.getCount() / durationSeconds);
+            row.put("meanMs", stats.meanMillis());
+            row.put("p50Ms", stats.percentileMillis(50));
+            row.put("p99Ms", stats.percentileMillis(99));
+            row.put("p999Ms", stats.percentileMillis(99.9));
+            row.put("maxMs", stats.maxMillis());
+            row.put("errors", stats.getErrors());
+            row.put("errorRate", errorRate(stats));
+            rows.add(row);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenario", scenario);
+        report.put("concurrency", concurrency);
+        report.put("durationSeconds", durationSeconds);
+        report.put("endpoints", rows);
+        if (!faults.isEmpty()) {
+            report.put("faults", faults);
+        }
+        return report;
+    }
+    
+    private static double errorRate(EndpointStats stats) {
+        return stats.getCount() == 0 ? 0 : (double) stats.getErrors() / stats.getCount();
+    }
+}
@@ -0,0 +1,165 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.chaos.FaultProfile;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line options, given as {@code --name=value}.
+ */
+public class LoadTestOptions {
+    
+    private final Map<String, String> values = new HashMap<>();
+    
+    public LoadTestOptions(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+    }
+    
+    public List<String> scenarios() {
+        String value = get("scenario", "all");
+        return "all".equals(value)
+                ? List.of("browse", "search", "login-storm", "checkout-flash-sale")
+                : Arrays.asList(value.split(","));
+    }
+    
+    public int concurrency() {
+        return Integer.parseInt(get("concurrency", "32"));
+    }
+    
+    public Duration warmup() {
+        return Duration.ofSeconds(Long.parseLong(get("warmup", "10")));
+    }
+    
+    public Duration duration() {
+        return Duration.ofSeconds(Long.parseLong(get("duration", "30")));
+    }
+    
+    public int products() {
+        return Integer.parseInt(get("products", "10000"));
+    }
+    
+    public int users() {
+        return Integer.parseInt(get("users", "200"));
+    }
+    
+    /** Root of the repository, used to find the service jars under {@code <service>/target}. */
+    public Path projectDir() {
+        return Paths.get(get("project-dir", "..")).toAbsolutePath().normalize();
+    }
+    
+    public Path reportDir() {
+        return Paths.get(get("report-dir", "target/load-reports")).toAbsolutePath();
+    }
+    
+    /** Route traffic through a locally started api-gateway instead of hitting services directly. */
+    public boolean viaGateway() {
+        return Boolean.parseBoolean(get("via-gateway", "false"));
+    }
+    
+    /** Wire order-service to the real product-service instead of the in-process stub. */
+    public boolean realProductService() {
+        return Boolean.parseBoolean(get("real-product-service", "false"));
+    }
+    
+    /**
+     * What the browse and search scenarios accept from product-service: {@code json}, or
+     * {@code ndjson} for its reactive reads (see docs/REACTIVE-READS.md).
+     */
+    public String productReads() {
+        String value = get("product-reads", "json");
+        if (!value.equals("json") && !value.equals("ndjson")) {
+            throw new IllegalArgumentException("--product-reads must be json or ndjson, got " + value);
+        }
+        return value;
+    }
+    
+    /** Caps product-service's request threads ({@code server.tomcat.threads.max}); 0 keeps its default. */
+    public int productThreads() {
+        return Integer.parseInt(get("product-threads", "0"));
+    }
+    
+    /** Runs product-service against the MySQL server on this host instead of H2; empty for H2. */
+    public String productDbHost() {
+        return get("product-db-host", "");
+    }
+    
+    /**
+     * Whether the services warm up before reporting ready (see docs/WARMUP.md). With
+     * {@code --warmup=0}, comparing both settings shows the warm-up's effect on the first requests.
+     */
+    public boolean serviceWarmup() {
+        return Boolean.parseBoolean(get("service-warmup", "true"));
+    }
+    
+    /**
+     * Faults injected into calls to {@link #chaosHttpTargets()} by proxies in front of them, e.g.
+     * {@code latency=200ms@0.2,error=0.05,reset=0.01} (see docs/CHAOS.md). {@code none} starts the
+     * proxies without faults, as a baseline; null when not given, for no proxies.
+     */
+    public FaultProfile chaosHttp() {
+        return profile("chaos-http");
+    }
+    
+    /** The services whose callers (order-service, the gateway) go through a fault proxy. */
+    public Set<LocalStack.Service> chaosHttpTargets() {
+        return services("chaos-http-targets", "product");
+    }
+    
+    /** Faults injected into the JDBC statements of {@link #chaosJdbcTargets()}, as for {@link #chaosHttp()}. */
+    public FaultProfile chaosJdbc() {
+        return profile("chaos-jdbc");
+    }
+    
+    public Set<LocalStack.Service> chaosJdbcTargets() {
+        return services("chaos-jdbc-targets", "order");
+    }
+    
+    /** Trace sampling probability for the services; empty keeps their configured default. */
+    public String traceSampling() {
+        return get("trace-sampling", "");
+    }
+    
+    /** Extra JVM options for the service processes, e.g. {@code --service-jvm-opts=-Xmx512m}. */
+    public List<String> serviceJvmOptions() {
+        String value = get("service-jvm-opts", "-Xmx512m");
+        return value.isBlank() ? List.of() : Arrays.asList(value.trim().split("\\s+"));
+    }
+    
+    public String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+    
+    private FaultProfile profile(String name) {
+        String spec = get(name, "");
+        return spec.isBlank() ? null : FaultProfile.parse(spec);
+    }
+    
+    // Comma-separated service names: user, product, order
+    private Set<LocalStack.Service> services(String name, String defaultValue) {
+        Set<LocalStack.Service> services = EnumSet.noneOf(LocalStack.Service.class);
+        for (String service : get(name, defaultValue).split(",")) {
+            if (!service.isBlank()) {
+                services.add(LocalStack.Service.valueOf(service.trim().toUpperCase()));
+            }
+        }
+        return services;
+    }
+}
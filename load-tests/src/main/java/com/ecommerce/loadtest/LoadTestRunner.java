@@ -0,0 +1,66 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.chaos.FaultInjector;
+import com.ecommerce.loadtest.scenario.BrowseScenario;
+import com.ecommerce.loadtest.scenario.CheckoutFlashSaleScenario;
+import com.ecommerce.loadtest.scenario.LoginStormScenario;
+import com.ecommerce.loadtest.scenario.Scenario;
+import com.ecommerce.loadtest.scenario.SearchScenario;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Entry point: starts the local stack needed by the selected scenarios, runs them one after
+ * another and writes a JSON report per scenario.
+ *
+ * <pre>
+ * mvn -f load-tests compile exec:java -Dexec.args="--scenario=browse,search --duration=60"
+ * </pre>
+ */
+public class LoadTestRunner {
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String name : options.scenarios()) {
+            scenarios.add(scenario(name.trim()));
+        }
+        
+        Set<LocalStack.Service> services = EnumSet.noneOf(LocalStack.Service.class);
+        scenarios.forEach(scenario -> services.addAll(scenario.requiredServices()));
+        
+        try (LocalStack stack = new LocalStack(options)) {
+            stack.start(services);
+            LoadDriver driver = new LoadDriver(options);
+            for (Scenario scenario : scenarios) {
+                stack.httpFaults().values().forEach(FaultInjector::reset);
+                LoadReport report = driver.run(scenario, stack);
+                stack.httpFaults().forEach(report::addHttpFaults);
+                stack.jdbcFaults().forEach(report::addJdbcFaults);
+                report.print(System.out);
+                Path file = report.write(options.reportDir());
+                System.out.println("Report written to " + file);
+            }
+        }
+        System.exit(0);
+    }
+    
+    private static Scenario scenario(String name) {
+        switch (name) {
+            case "browse":
+                return new BrowseScenario();
+            case "search":
+                return new SearchScenario();
+            case "login-storm":
+                return new LoginStormScenario();
+            case "checkout-flash-sale":
+                return new CheckoutFlashSaleScenario();
+            default:
+                throw new IllegalArgumentException("Unknown scenario: " + name);
+        }
+    }
+}
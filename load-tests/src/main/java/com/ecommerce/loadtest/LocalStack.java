@@ -0,0 +1,296 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.chaos.FaultInjectingDriver;
+import com.ecommerce.chaos.FaultInjector;
+import com.ecommerce.chaos.FaultProfile;
+import com.ecommerce.chaos.FaultProxy;
+import io.r2dbc.h2.H2ConnectionFactory;
+import org.h2.Driver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Boots the services a run needs as local processes, each against its own in-memory H2
+ * database in MySQL mode, with no Docker, MySQL or network access required. product-service
+ * can be pointed at a MySQL server instead ({@code --product-db-host}).
+ *
+ * With {@code --chaos-http} or {@code --chaos-jdbc} faults are injected into the calls between the
+ * services or into their databases (see docs/CHAOS.md).
+ */
+public class LocalStack implements AutoCloseable {
+    
+    public enum Service {
+        // Ready only once the service's warm-up has run (see docs/WARMUP.md)
+        USER("user-service", "/actuator/health/readiness"),
+        PRODUCT("product-service", "/actuator/health/readiness"),
+        ORDER("order-service", "/actuator/health/readiness");
+        
+        final String artifact;
+        final String healthPath;
+        
+        Service(String artifact, String healthPath) {
+            this.artifact = artifact;
+            this.healthPath = healthPath;
+        }
+    }
+    
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+    
+    private final LoadTestOptions options;
+    private final Map<Service, String> urls = new EnumMap<>(Service.class);
+    // Where the other services reach a service: its fault proxy when it has one
+    private final Map<Service, String> dependencyUrls = new EnumMap<>(Service.class);
+    private final List<FaultProxy> faultProxies = new ArrayList<>();
+    private final List<ServiceProcess> processes = new ArrayList<>();
+    private StubProductService stubProductService;
+    private String gatewayUrl;
+    
+    public LocalStack(LoadTestOptions options) {
+        this.options = options;
+    }
+    
+    public void start(Set<Service> required) throws Exception {
+        String h2Jar = jarOf(Driver.class);
+        String r2dbcH2Jar = jarOf(H2ConnectionFactory.class);
+        String chaosJar = jarOf(FaultInjectingDriver.class);
+        Path logDir = options.reportDir().resolve("logs");
+        clearRegistry();
+        
+        boolean stubProducts = required.contains(Service.ORDER) && !options.realProductService();
+        if (stubProducts) {
+            stubProductService = new StubProductService(freePort(), 1000);
+            System.out.println("Stub product-service listening on " + stubProductService.baseUrl());
+            dependencyUrls.put(Service.PRODUCT, proxied(Service.PRODUCT, stubProductService.baseUrl()));
+        } else if (required.contains(Service.ORDER)) {
+            required = union(required, Service.PRODUCT);
+        }
+        
+        for (Service service : Service.values()) {
+            if (!required.contains(service)) {
+                continue;
+            }
+            boolean mysql = service == Service.PRODUCT && !options.productDbHost().isBlank();
+            boolean jdbcFaults = options.chaosJdbc() != null && options.chaosJdbcTargets().contains(service);
+            if (mysql && jdbcFaults) {
+                throw new IllegalArgumentException("--chaos-jdbc needs product-service on H2, drop --product-db-host");
+            }
+            List<String> args = new ArrayList<>(mysql
+                    ? mysqlArguments(options.productDbHost())
+                    : databaseArguments(service, jdbcFaults));
+            args.addAll(tracingArguments(service.artifact));
+            args.add(registryArgument());
+            // Unregistered, its callers fall back to the static URL: the fault proxy
+            if (httpFaults(service)) {
+                args.add("--registry.register=false");
+            }
+            if (!options.serviceWarmup()) {
+                args.add("--warmup.enabled=false");
+            }
+            String loaderPath = h2Jar;
+            if (service == Service.PRODUCT) {
+                args.add("--inventory.hot.journal-dir=" + options.reportDir().resolve("stock-journal"));
+                if (options.productThreads() > 0) {
+                    args.add("--server.tomcat.threads.max=" + options.productThreads());
+                }
+                loaderPath = h2Jar + "," + r2dbcH2Jar;
+            }
+            List<String> jvmOptions = new ArrayList<>(options.serviceJvmOptions());
+            if (jdbcFaults) {
+                loaderPath = loaderPath + "," + chaosJar;
+                jvmOptions.add("-D" + FaultInjectingDriver.PROFILE_PROPERTY + "=" + options.chaosJdbc());
+            }
+            // The real product-service registers itself and order-service finds it in the registry
+            if (service == Service.ORDER && stubProducts) {
+                args.add("--services.product-service.url=" + dependencyUrls.get(Service.PRODUCT));
+                args.add("--warmup.product-ids=1,2,3");
+            } else if (service == Service.ORDER && httpFaults(Service.PRODUCT)) {
+                args.add("--registry.static-instances.product-service=" + dependencyUrls.get(Service.PRODUCT));
+            }
+            ServiceProcess process = launch(service.artifact, jvmOptions, loaderPath, args, logDir);
+            process.awaitHealthy(service.healthPath, STARTUP_TIMEOUT);
+            urls.put(service, process.baseUrl());
+            System.out.println(service.artifact + " started on " + process.baseUrl());
+            dependencyUrls.put(service, proxied(service, process.baseUrl()));
+        }
+        
+        if (options.viaGateway()) {
+            List<String> args = new ArrayList<>(List.of(
+                    "--USER_SERVICE_URL=" + dependencyUrls.getOrDefault(Service.USER, "http://localhost:1"),
+                    "--PRODUCT_SERVICE_URL=" + dependencyUrls.getOrDefault(Service.PRODUCT, "http://localhost:1"),
+                    "--ORDER_SERVICE_URL=" + dependencyUrls.getOrDefault(Service.ORDER, "http://localhost:1"),
+                    "--logging.level.root=WARN"));
+            // The fault proxies speak HTTP/1.1 only
+            if (!faultProxies.isEmpty()) {
+                args.add("--gateway.upstream.h2c=false");
+            }
+            args.addAll(tracingArguments("api-gateway"));
+            args.add(registryArgument());
+            ServiceProcess gateway = launch("api-gateway", options.serviceJvmOptions(), null, args, logDir);
+            gateway.awaitHealthy("/health", STARTUP_TIMEOUT);
+            gatewayUrl = gateway.baseUrl();
+            System.out.println("api-gateway started on " + gatewayUrl);
+        }
+    }
+    
+    /**
+     * @return the base URL scenarios should use for {@code service}: the gateway when routing through it
+     */
+    public String urlFor(Service service) {
+        return gatewayUrl != null ? gatewayUrl : urls.get(service);
+    }
+    
+    /**
+     * @return number of products served by the stub, or 0 when the real product-service is used
+     */
+    public int stubProductCount() {
+        return stubProductService != null ? stubProductService.getProductCount() : 0;
+    }
+    
+    /**
+     * @return what the HTTP fault proxies injected since they started or were last reset, keyed by
+     * the service behind each one
+     */
+    public Map<String, FaultInjector> httpFaults() {
+        Map<String, FaultInjector> faults = new LinkedHashMap<>();
+        faultProxies.forEach(proxy -> faults.put(proxy.getName(), proxy.getInjector()));
+        return faults;
+    }
+    
+    /**
+     * @return the JDBC fault profile of each service started with one; the service logs the counts on exit
+     */
+    public Map<String, FaultProfile> jdbcFaults() {
+        Map<String, FaultProfile> faults = new LinkedHashMap<>();
+        if (options.chaosJdbc() != null) {
+            for (Service service : options.chaosJdbcTargets()) {
+                if (urls.containsKey(service)) {
+                    faults.put(service.artifact, options.chaosJdbc());
+                }
+            }
+        }
+        return faults;
+    }
+    
+    private boolean httpFaults(Service service) {
+        return options.chaosHttp() != null && options.chaosHttpTargets().contains(service);
+    }
+    
+    // Starts a fault proxy in front of the service if it is a target, and returns its URL
+    private String proxied(Service service, String url) throws IOException {
+        if (!httpFaults(service)) {
+            return url;
+        }
+        FaultProxy proxy = new FaultProxy(service.artifact, freePort(), url, options.chaosHttp());
+        faultProxies.add(proxy);
+        System.out.println("Injecting " + options.chaosHttp() + " into calls to " + service.artifact
+                + " through " + proxy.baseUrl());
+        return proxy.baseUrl();
+    }
+    
+    private ServiceProcess launch(String artifact, List<String> jvmOptions, String loaderPath, List<String> args,
+                                  Path logDir) throws IOException {
+        Path jar = options.projectDir().resolve(artifact).resolve("target").resolve(artifact + "-1.0.0.jar");
+        ServiceProcess process = ServiceProcess.start(artifact, jar, freePort(), jvmOptions, loaderPath, args,
+                logDir);
+        processes.add(process);
+        return process;
+    }
+    
+    // With faults, JDBC goes through the chaos driver wrapping H2's; R2DBC is left alone
+    private static List<String> databaseArguments(Service service, boolean faults) {
+        String database = service.artifact.replace("-service", "_db");
+        String h2Options = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        return List.of(
+                "--spring.datasource.url=" + (faults ? FaultInjectingDriver.URL_PREFIX : "")
+                        + "jdbc:h2:mem:" + database + h2Options,
+                "--spring.datasource.driver-class-name="
+                        + (faults ? FaultInjectingDriver.class.getName() : Driver.class.getName()),
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                // Same in-memory database, for product-service's reactive reads
+                "--spring.r2dbc.url=r2dbc:h2:mem:///" + database + h2Options,
+                "--spring.r2dbc.username=sa",
+                "--spring.r2dbc.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+    }
+    
+    // The service's own MySQL settings (JDBC and R2DBC), with DB_USER and DB_PASSWORD from the environment
+    private static List<String> mysqlArguments(String host) {
+        return List.of(
+                "--DB_HOST=" + host,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+    }
+    
+    private static String jarOf(Class<?> type) throws Exception {
+        return Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+    
+    private List<String> tracingArguments(String artifact) {
+        List<String> args = new ArrayList<>();
+        args.add("--tracing.file.path=" + options.reportDir().resolve("traces").resolve(artifact + ".jsonl"));
+        if (!options.traceSampling().isBlank()) {
+            args.add("--management.tracing.sampling.probability=" + options.traceSampling());
+        }
+        return args;
+    }
+    
+    private String registryArgument() {
+        return "--registry.directory=" + options.reportDir().resolve("registry");
+    }
+    
+    // Registrations left by an earlier run that was killed
+    private void clearRegistry() throws IOException {
+        Path registry = options.reportDir().resolve("registry");
+        if (!Files.isDirectory(registry)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(registry)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+    
+    private static Set<Service> union(Set<Service> services, Service extra) {
+        Set<Service> result = new java.util.HashSet<>(services);
+        result.add(extra);
+        return result;
+    }
+    
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Override
+    public void close() {
+        for (int i = processes.size() - 1; i >= 0; i--) {
+            processes.get(i).close();
+        }
+        faultProxies.forEach(FaultProxy::close);
+        if (stubProductService != null) {
+            stubProductService.close();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One service running as a child JVM from its Spring Boot jar.
+ *
+ * The jar is started through Boot's {@code PropertiesLauncher} so extra jars (the H2 driver)
+ * can be put on its classpath with {@code loader.path} without rebuilding the service.
+ */
+public class ServiceProcess implements AutoCloseable {
+    
+    private final String name;
+    private final int port;
+    private final Process process;
+    private final Path logFile;
+    
+    private ServiceProcess(String name, int port, Process process, Path logFile) {
+        this.name = name;
+        this.port = port;
+        this.process = process;
+        this.logFile = logFile;
+    }
+    
+    public static ServiceProcess start(String name, Path jar, int port, List<String> jvmOptions,
+                                       String loaderPath, List<String> arguments, Path logDir) throws IOException {
+        if (!Files.exists(jar)) {
+            throw new IllegalStateException(jar + " not found. Build it first: mvn -f "
+                    + jar.getParent().getParent().resolve("pom.xml") + " package -DskipTests");
+        }
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmOptions);
+        if (loaderPath != null) {
+            command.add("-Dloader.path=" + loaderPath);
+        }
+        command.add("-cp");
+        command.add(jar.toString());
+        command.add("org.springframework.boot.loader.PropertiesLauncher");
+        command.add("--server.port=" + port);
+        command.addAll(arguments);
+        
+        Files.createDirectories(logDir);
+        Path logFile = logDir.resolve(name + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        return new ServiceProcess(name, port, process, logFile);
+    }
+    
+    public void awaitHealthy(String healthPath, Duration timeout) throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + healthPath))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited during startup, see " + logFile);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " did not become healthy within " + timeout + ", see " + logFile);
+    }
+    
+    public String baseUrl() {
+        return "http://localhost:" + port;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public void close() {
+        process.destroy();
+        try {
+            if (!process.waitFor(15, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
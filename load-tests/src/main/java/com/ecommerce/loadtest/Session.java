@@ -0,0 +1,89 @@
+package com.ecommerce.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Issues HTTP requests for a scenario and records each one under an endpoint label.
+ * Shared by all workers of a run; labels group requests such as {@code GET /api/products/{id}}.
+ */
+public class Session {
+    
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final HttpClient client;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    
+    public Session(HttpClient client) {
+        this.client = client;
+    }
+    
+    public HttpResponse<String> get(String endpoint, String url) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(url)).GET());
+    }
+    
+    public HttpResponse<String> get(String endpoint, String url, String accept) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(url)).header("Accept", accept).GET());
+    }
+    
+    public HttpResponse<String> post(String endpoint, String url, String contentType, String body) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+    
+    public HttpResponse<String> postJson(String endpoint, String url, String json) {
+        return post(endpoint, url, "application/json", json);
+    }
+    
+    /**
+     * Sends the request and records its latency; returns {@code null} on I/O failure,
+     * which is counted as an error.
+     */
+    public HttpResponse<String> send(String endpoint, HttpRequest.Builder builder) {
+        HttpRequest request = builder.timeout(REQUEST_TIMEOUT).build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            record(endpoint, System.nanoTime() - start, response.statusCode() < 400);
+            return response;
+        } catch (IOException e) {
+            record(endpoint, System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+    
+    public ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+    
+    private void record(String endpoint, long elapsedNanos, boolean success) {
+        if (recording) {
+            stats.computeIfAbsent(endpoint, key -> new EndpointStats()).record(elapsedNanos, success);
+        }
+    }
+    
+    void startRecording() {
+        stats.clear();
+        recording = true;
+    }
+    
+    void stopRecording() {
+        recording = false;
+    }
+    
+    Map<String, EndpointStats> getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,119 @@
+package com.ecommerce.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for product-service covering the three calls order-service makes:
+ * product lookup, stock check and stock update. Products 1..{@code productCount} exist,
+ * each with a large stock, so order-service can be loaded in isolation.
+ */
+public class StubProductService implements AutoCloseable {
+    
+    private static final Pattern PRODUCT_PATH = Pattern.compile("^/api/products/(\\d+)(/check-stock|/stock)?$");
+    private static final Pattern QUANTITY_PARAM = Pattern.compile("(?:^|&)quantity=(-?\\d+)");
+    private static final Pattern QUANTITY_BODY = Pattern.compile("\"quantity\"\\s*:\\s*(-?\\d+)");
+    
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final int productCount;
+    private final Map<Long, AtomicLong> stock = new ConcurrentHashMap<>();
+    
+    public StubProductService(int port, int productCount) throws IOException {
+        this.productCount = productCount;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        this.executor = Executors.newFixedThreadPool(Math.max(8, Runtime.getRuntime().availableProcessors() * 2));
+        server.setExecutor(executor);
+        server.createContext("/api/products", this::handle);
+        server.start();
+    }
+    
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+    
+    public int getProductCount() {
+        return productCount;
+    }
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            URI uri = exchange.getRequestURI();
+            if ("/api/products/health".equals(uri.getPath())) {
+                respond(exchange, 200, "{\"status\":\"Stub Product Service is running\"}");
+                return;
+            }
+            Matcher matcher = PRODUCT_PATH.matcher(uri.getPath());
+            if (!matcher.matches()) {
+                respond(exchange, 404, "{\"error\":\"Not found\"}");
+                return;
+            }
+            long id = Long.parseLong(matcher.group(1));
+            if (id < 1 || id > productCount) {
+                respond(exchange, 404, "{\"error\":\"Product not found with id: " + id + "\"}");
+                return;
+            }
+            AtomicLong available = stock.computeIfAbsent(id, key -> new AtomicLong(1_000_000_000L));
+            String action = matcher.group(2);
+            
+            if (action == null && "GET".equals(exchange.getRequestMethod())) {
+                respond(exchange, 200, productJson(id, available.get()));
+            } else if ("/check-stock".equals(action)) {
+                long quantity = extract(QUANTITY_PARAM, uri.getRawQuery());
+                respond(exchange, 200, "{\"productId\":" + id + ",\"requestedQuantity\":" + quantity
+                        + ",\"available\":" + (available.get() >= quantity) + "}");
+            } else if ("/stock".equals(action) && "PATCH".equals(exchange.getRequestMethod())) {
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                long quantity = extract(QUANTITY_BODY, body);
+                long updated = available.addAndGet(quantity);
+                if (updated < 0) {
+                    available.addAndGet(-quantity);
+                    respond(exchange, 400, "{\"error\":\"Insufficient stock\"}");
+                } else {
+                    respond(exchange, 200, productJson(id, updated));
+                }
+            } else {
+                respond(exchange, 405, "{\"error\":\"Method not allowed\"}");
+            }
+        }
+    }
+    
+    private static long extract(Pattern pattern, String text) {
+        Matcher matcher = pattern.matcher(text != null ? text : "");
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+    
+    private static String productJson(long id, long stock) {
+        return "{\"id\":" + id + ",\"name\":\"Stub Product " + id + "\",\"description\":\"Stub\",\"price\":"
+                + (100 + id % 900) + ".99,\"stock\":" + stock + ",\"category\":\"Stub\",\"imageUrl\":null,"
+                + "\"createdAt\":\"2024-01-01T00:00:00\",\"updatedAt\":\"2024-01-01T00:00:00\"}";
+    }
+    
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
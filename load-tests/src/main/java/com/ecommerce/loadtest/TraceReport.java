@@ -0,0 +1,139 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Merges the span files written by the services and prints per-hop timings: the average
+ * duration of each span name per service, and the slowest traces as indented trees.
+ *
+ * <pre>
+ * mvn -f load-tests compile exec:java -Dexec.mainClass=com.ecommerce.loadtest.TraceReport \
+ *     -Dexec.args="../data/traces --slowest=5"
+ * </pre>
+ */
+public class TraceReport {
+    
+    private record Span(String service, String traceId, String spanId, String parentSpanId, String name,
+                        String kind, long startEpochNanos, long durationMicros, String status) {
+        
+        String label() {
+            return service + " " + kind + " " + name;
+        }
+    }
+    
+    public static void main(String[] args) throws IOException {
+        List<Path> files = new ArrayList<>();
+        int slowest = 5;
+        for (String arg : args) {
+            if (arg.startsWith("--slowest=")) {
+                slowest = Integer.parseInt(arg.substring("--slowest=".length()));
+            } else {
+                files.addAll(spanFiles(Paths.get(arg)));
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("Usage: TraceReport <span file or directory>... [--slowest=N]");
+            System.exit(2);
+        }
+        
+        Map<String, List<Span>> traces = new HashMap<>();
+        for (Path file : files) {
+            for (Span span : read(file)) {
+                traces.computeIfAbsent(span.traceId(), id -> new ArrayList<>()).add(span);
+            }
+        }
+        
+        printHopSummary(traces);
+        traces.values().stream()
+                .filter(spans -> root(spans) != null)
+                .sorted(Comparator.comparingLong((List<Span> spans) -> root(spans).durationMicros()).reversed())
+                .limit(slowest)
+                .forEach(TraceReport::printTree);
+    }
+    
+    private static List<Path> spanFiles(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+        try (Stream<Path> stream = Files.walk(path)) {
+            return stream.filter(file -> file.toString().endsWith(".jsonl")).sorted().toList();
+        }
+    }
+    
+    private static List<Span> read(Path file) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Span> spans = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node = mapper.readTree(line);
+                spans.add(new Span(node.path("service").asText(), node.path("traceId").asText(),
+                        node.path("spanId").asText(), node.path("parentSpanId").asText(null),
+                        node.path("name").asText(), node.path("kind").asText(),
+                        node.path("startEpochNanos").asLong(), node.path("durationMicros").asLong(),
+                        node.path("status").asText()));
+            }
+        }
+        return spans;
+    }
+    
+    private static void printHopSummary(Map<String, List<Span>> traces) {
+        Map<String, long[]> totals = new TreeMap<>();
+        traces.values().forEach(spans -> spans.forEach(span -> {
+            long[] total = totals.computeIfAbsent(span.label(), label -> new long[2]);
+            total[0]++;
+            total[1] += span.durationMicros();
+        }));
+        System.out.printf("%-70s %8s %12s%n", "span", "count", "avg ms");
+        totals.forEach((label, total) ->
+                System.out.printf("%-70s %8d %12.2f%n", label, total[0], total[1] / (double) total[0] / 1000));
+    }
+    
+    /** The span whose parent is not part of the trace: the entry point, normally the gateway. */
+    private static Span root(List<Span> spans) {
+        Map<String, Span> byId = new HashMap<>();
+        spans.forEach(span -> byId.put(span.spanId(), span));
+        return spans.stream()
+                .filter(span -> span.parentSpanId() == null || !byId.containsKey(span.parentSpanId()))
+                .max(Comparator.comparingLong(Span::durationMicros))
+                .orElse(null);
+    }
+    
+    private static void printTree(List<Span> spans) {
+        Map<String, List<Span>> children = new LinkedHashMap<>();
+        spans.stream()
+                .sorted(Comparator.comparingLong(Span::startEpochNanos))
+                .forEach(span -> children.computeIfAbsent(span.parentSpanId(), id -> new ArrayList<>()).add(span));
+        Span root = root(spans);
+        System.out.println();
+        System.out.println("trace " + root.traceId());
+        printSpan(root, root.startEpochNanos(), children, 0);
+    }
+    
+    private static void printSpan(Span span, long traceStart, Map<String, List<Span>> children, int depth) {
+        System.out.printf("  %+9.2f ms %9.2f ms  %s%s%s%n",
+                (span.startEpochNanos() - traceStart) / 1e6, span.durationMicros() / 1000.0,
+                "  ".repeat(depth), span.label(), "ERROR".equals(span.status()) ? " [error]" : "");
+        for (Span child : children.getOrDefault(span.spanId(), List.of())) {
+            printSpan(child, traceStart, children, depth + 1);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.loadtest.scenario;
+
+import com.ecommerce.loadtest.LoadTestOptions;
+import com.ecommerce.loadtest.LocalStack;
+import com.ecommerce.loadtest.Session;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Catalog browsing: mostly product detail pages, category listings, and the occasional
+ * full catalog listing.
+ */
+public class BrowseScenario implements Scenario {
+    
+    private String baseUrl;
+    private String accept;
+    private List<Long> productIds;
+    
+    @Override
+    public String name() {
+        return "browse";
+    }
+    
+    @Override
+    public Set<LocalStack.Service> requiredServices() {
+        return Set.of(LocalStack.Service.PRODUCT);
+    }
+    
+    @Override
+    public void setup(Session session, LocalStack stack, LoadTestOptions options) {
+        baseUrl = stack.urlFor(LocalStack.Service.PRODUCT);
+        accept = "ndjson".equals(options.productReads()) ? "application/x-ndjson" : "application/json";
+        productIds = CatalogSeeder.seed(session, stack.urlFor(LocalStack.Service.PRODUCT), options.products());
+    }
+    
+    @Override
+    public void step(Session session) {
+        int roll = session.random().nextInt(100);
+        if (roll < 60) {
+            long id = productIds.get(session.random().nextInt(productIds.size()));
+            session.get("GET /api/products/{id}", baseUrl + "/api/products/" + id, accept);
+        } else if (roll < 98) {
+            String category = CatalogSeeder.CATEGORIES.get(session.random().nextInt(CatalogSeeder.CATEGORIES.size()));
+            session.get("GET /api/products/category/{category}",
+                    baseUrl + "/api/products/category/" + URLEncoder.encode(category, StandardCharsets.UTF_8),
+                    accept);
+        } else {
+            session.get("GET /api/products", baseUrl + "/api/products", accept);
+        }
+    }
+}
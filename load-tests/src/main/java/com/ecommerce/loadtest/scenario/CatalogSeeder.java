@@ -0,0 +1,82 @@
+package com.ecommerce.loadtest.scenario;
+
+import com.ecommerce.loadtest.Session;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads a generated catalog through the bulk NDJSON import once per product-service and
+ * reads the assigned ids back through the export, so scenarios never assume id ranges.
+ */
+final class CatalogSeeder {
+    
+    static final List<String> CATEGORIES = List.of(
+            "Electronics", "Books", "Clothing", "Home", "Garden", "Toys",
+            "Sports", "Beauty", "Grocery", "Automotive", "Music", "Office");
+    
+    static final List<String> WORDS = List.of(
+            "wireless", "classic", "premium", "compact", "organic", "smart", "vintage", "portable",
+            "deluxe", "eco", "ultra", "mini", "pro", "travel", "kids", "outdoor");
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Map<String, List<Long>> SEEDED = new ConcurrentHashMap<>();
+    
+    private CatalogSeeder() {
+    }
+    
+    static synchronized List<Long> seed(Session session, String productUrl, int count) {
+        return SEEDED.computeIfAbsent(productUrl, url -> {
+            Random random = new Random(42);
+            StringBuilder body = new StringBuilder(count * 200);
+            for (int i = 0; i < count; i++) {
+                ObjectNode product = MAPPER.createObjectNode();
+                String word = WORDS.get(random.nextInt(WORDS.size()));
+                String category = CATEGORIES.get(random.nextInt(CATEGORIES.size()));
+                product.put("name", capitalize(word) + " " + category + " item " + i);
+                product.put("description", "Load test " + word + " product in " + category);
+                product.put("price", (random.nextInt(99_900) + 100) / 100.0);
+                product.put("stock", 1_000_000);
+                product.put("category", category);
+                body.append(product).append('\n');
+            }
+            HttpResponse<String> imported = session.post("seed import", url + "/api/products/import",
+                    "application/x-ndjson", body.toString());
+            if (imported == null || imported.statusCode() != 200) {
+                throw new IllegalStateException("Catalog import failed: "
+                        + (imported != null ? imported.body() : "no response"));
+            }
+            
+            HttpResponse<String> exported = session.get("seed export", url + "/api/products/export?format=ndjson");
+            if (exported == null || exported.statusCode() != 200) {
+                throw new IllegalStateException("Catalog export failed");
+            }
+            List<Long> ids = new ArrayList<>(count);
+            try {
+                for (String line : exported.body().split("\n")) {
+                    if (!line.isBlank()) {
+                        JsonNode node = MAPPER.readTree(line);
+                        ids.add(node.get("id").asLong());
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            System.out.println("Seeded " + ids.size() + " products into " + url);
+            return List.copyOf(ids);
+        });
+    }
+    
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.loadtest.scenario;
+
+import com.ecommerce.loadtest.LoadTestOptions;
+import com.ecommerce.loadtest.LocalStack;
+import com.ecommerce.loadtest.Session;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Flash sale: every worker checks out the same handful of products, so order creation
+ * and stock updates contend on a few rows.
+ */
+public class CheckoutFlashSaleScenario implements Scenario {
+    
+    private static final int SALE_PRODUCTS = 3;
+    
+    private String baseUrl;
+    private List<Long> saleProductIds;
+    
+    @Override
+    public String name() {
+        return "checkout-flash-sale";
+    }
+    
+    @Override
+    public Set<LocalStack.Service> requiredServices() {
+        return Set.of(LocalStack.Service.ORDER);
+    }
+    
+    @Override
+    public void setup(Session session, LocalStack stack, LoadTestOptions options) {
+        baseUrl = stack.urlFor(LocalStack.Service.ORDER);
+        if (stack.stubProductCount() > 0) {
+            saleProductIds = List.of(1L, 2L, 3L);
+        } else {
+            List<Long> ids = CatalogSeeder.seed(session, stack.urlFor(LocalStack.Service.PRODUCT), options.products());
+            saleProductIds = ids.subList(0, Math.min(SALE_PRODUCTS, ids.size()));
+        }
+    }
+    
+    @Override
+    public void step(Session session) {
+        long productId = saleProductIds.get(session.random().nextInt(saleProductIds.size()));
+        long userId = session.random().nextInt(1, 10_000);
+        session.postJson("POST /api/orders", baseUrl + "/api/orders",
+                "{\"userId\":" + userId + ",\"productId\":" + productId + ",\"quantity\":1,"
+                        + "\"paymentMethod\":\"CREDIT_CARD\",\"shippingAddress\":\"1 Load Test Way\"}");
+    }
+}
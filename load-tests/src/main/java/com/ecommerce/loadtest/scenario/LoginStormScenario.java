@@ -0,0 +1,55 @@
+package com.ecommerce.loadtest.scenario;
+
+import com.ecommerce.loadtest.LoadTestOptions;
+import com.ecommerce.loadtest.LocalStack;
+import com.ecommerce.loadtest.Session;
+
+import java.net.http.HttpResponse;
+import java.util.Set;
+
+/**
+ * Many users signing in at once, the BCrypt-bound path of user-service.
+ */
+public class LoginStormScenario implements Scenario {
+    
+    private static final String PASSWORD = "loadtest-password";
+    
+    private String baseUrl;
+    private int users;
+    
+    @Override
+    public String name() {
+        return "login-storm";
+    }
+    
+    @Override
+    public Set<LocalStack.Service> requiredServices() {
+        return Set.of(LocalStack.Service.USER);
+    }
+    
+    @Override
+    public void setup(Session session, LocalStack stack, LoadTestOptions options) {
+        baseUrl = stack.urlFor(LocalStack.Service.USER);
+        users = options.users();
+        for (int i = 0; i < users; i++) {
+            HttpResponse<String> response = session.postJson("seed signup", baseUrl + "/api/auth/signup",
+                    "{\"username\":\"" + username(i) + "\",\"email\":\"" + username(i)
+                            + "@loadtest.local\",\"password\":\"" + PASSWORD + "\"}");
+            if (response == null || (response.statusCode() != 200 && !response.body().contains("already taken"))) {
+                throw new IllegalStateException("Signup failed: " + (response != null ? response.body() : "no response"));
+            }
+        }
+        System.out.println("Signed up " + users + " users");
+    }
+    
+    @Override
+    public void step(Session session) {
+        int user = session.random().nextInt(users);
+        session.postJson("POST /api/auth/login", baseUrl + "/api/auth/login",
+                "{\"username\":\"" + username(user) + "\",\"password\":\"" + PASSWORD + "\"}");
+    }
+    
+    private static String username(int i) {
+        return "loaduser" + i;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.loadtest.scenario;
+
+import com.ecommerce.loadtest.LoadTestOptions;
+import com.ecommerce.loadtest.LocalStack;
+import com.ecommerce.loadtest.Session;
+
+import java.util.Set;
+
+/**
+ * A traffic mix. {@link #setup} seeds whatever data the scenario needs, then every worker
+ * calls {@link #step} in a loop, so implementations must be thread-safe.
+ */
+public interface Scenario {
+    
+    String name();
+    
+    Set<LocalStack.Service> requiredServices();
+    
+    void setup(Session session, LocalStack stack, LoadTestOptions options) throws Exception;
+    
+    void step(Session session);
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.loadtest.scenario;
+
+import com.ecommerce.loadtest.LoadTestOptions;
+import com.ecommerce.loadtest.LocalStack;
+import com.ecommerce.loadtest.Session;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Free-text product search with terms drawn from the seeded product names.
+ */
+public class SearchScenario implements Scenario {
+    
+    private String baseUrl;
+    private String accept;
+    
+    @Override
+    public String name() {
+        return "search";
+    }
+    
+    @Override
+    public Set<LocalStack.Service> requiredServices() {
+        return Set.of(LocalStack.Service.PRODUCT);
+    }
+    
+    @Override
+    public void setup(Session session, LocalStack stack, LoadTestOptions options) {
+        baseUrl = stack.urlFor(LocalStack.Service.PRODUCT);
+        accept = "ndjson".equals(options.productReads()) ? "application/x-ndjson" : "application/json";
+        CatalogSeeder.seed(session, stack.urlFor(LocalStack.Service.PRODUCT), options.products());
+    }
+    
+    @Override
+    public void step(Session session) {
+        String term = session.random().nextBoolean()
+                ? CatalogSeeder.WORDS.get(session.random().nextInt(CatalogSeeder.WORDS.size()))
+                : "item " + session.random().nextInt(1000);
+        session.get("GET /api/products/search",
+                baseUrl + "/api/products/search?query=" + URLEncoder.encode(term, StandardCharsets.UTF_8), accept);
+    }
+}
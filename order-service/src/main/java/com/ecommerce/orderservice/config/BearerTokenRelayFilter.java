@@ -0,0 +1,37 @@
+package com.ecommerce.orderservice.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Passes the caller's bearer token on to product-service, so calls made while placing or
+ * cancelling an order are authorized as that user when product-service enforces tokens (see
+ * docs/AUTH-TOKENS.md). A call that sets its own token, such as a stock change with
+ * order-service's service token, keeps it.
+ *
+ * The token is read from the inbound request bound to the current thread. That works because
+ * the client calls block on the request thread.
+ */
+public class BearerTokenRelayFilter implements ExchangeFilterFunction {
+    
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (request.headers().containsKey(HttpHeaders.AUTHORIZATION)
+                || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return next.exchange(request);
+        }
+        String authorization = attributes.getRequest().getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null) {
+            return next.exchange(request);
+        }
+        return next.exchange(ClientRequest.from(request)
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .build());
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.orderservice.config;
+
+import com.ecommerce.registry.balancer.LoadBalancer;
+import com.ecommerce.registry.balancer.NoAvailableInstanceException;
+import com.ecommerce.registry.balancer.Selection;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Sends requests for {@code lb://<service-id>/...} to one instance of that service, chosen by
+ * the {@link LoadBalancer}, and reports the outcome back to it. Other URLs pass through.
+ */
+public class LoadBalancerExchangeFilter implements ExchangeFilterFunction {
+    
+    private final LoadBalancer loadBalancer;
+    
+    public LoadBalancerExchangeFilter(LoadBalancer loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+    
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        URI url = request.url();
+        if (!"lb".equals(url.getScheme())) {
+            return next.exchange(request);
+        }
+        
+        Selection selection;
+        try {
+            selection = loadBalancer.choose(url.getHost());
+        } catch (NoAvailableInstanceException e) {
+            return Mono.error(e);
+        }
+        
+        URI instance = selection.uri();
+        URI target = UriComponentsBuilder.fromUri(url)
+                .scheme(instance.getScheme())
+                .host(instance.getHost())
+                .port(instance.getPort())
+                .build(true)
+                .toUri();
+        return next.exchange(ClientRequest.from(request).url(target).build())
+                .doOnNext(response -> {
+                    if (response.statusCode().is5xxServerError()) {
+                        selection.recordFailure();
+                    } else {
+                        selection.recordSuccess();
+                    }
+                })
+                .doOnError(e -> selection.recordFailure())
+                .doOnCancel(selection::release);
+    }
+}
@@ -1,5 +1,8 @@
 package com.ecommerce.orderservice.config;
 
+import com.ecommerce.registry.balancer.LoadBalancer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -7,9 +10,14 @@ import org.springframework.web.reactive.function.client.WebClient;
 @Configuration
 public class WebClientConfig {
     
+    // Applies Boot's customizers so outgoing calls are recorded as http.client.requests,
+    // resolves lb:// URLs to a service instance and relays the caller's token
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public WebClient.Builder webClientBuilder(ObjectProvider<WebClientCustomizer> customizers, LoadBalancer loadBalancer) {
+        WebClient.Builder builder = WebClient.builder()
+                .filter(new BearerTokenRelayFilter())
+                .filter(new LoadBalancerExchangeFilter(loadBalancer));
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder;
     }
 }
-
@@ -1,19 +1,35 @@
 package com.ecommerce.orderservice.controller;
 
+import com.ecommerce.auth.TokenClaims;
+import com.ecommerce.events.SubscriberLimitException;
+import com.ecommerce.orderservice.dto.BulkStatusUpdateRequest;
+import com.ecommerce.orderservice.dto.OrderField;
 import com.ecommerce.orderservice.dto.OrderRequest;
+import com.ecommerce.orderservice.dto.OrderResponse;
 import com.ecommerce.orderservice.dto.OrderStatusUpdateRequest;
+import com.ecommerce.orderservice.dto.QuoteRequest;
+import com.ecommerce.orderservice.dto.QuoteResponse;
 import com.ecommerce.orderservice.entity.Order;
 import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.events.OrderStatusStream;
+import com.ecommerce.orderservice.service.InvalidStatusTransitionException;
 import com.ecommerce.orderservice.service.OrderService;
+import com.ecommerce.orderservice.service.OrderStatusBatcher;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -23,6 +39,12 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
     
+    @Autowired
+    private OrderStatusBatcher orderStatusBatcher;
+    
+    @Autowired
+    private OrderStatusStream orderStatusStream;
+    
     @GetMapping("/health")
     public ResponseEntity<?> healthCheck() {
         Map<String, String> response = new HashMap<>();
@@ -32,57 +54,133 @@ public class OrderController {
     }
     
     @PostMapping
-    public ResponseEntity<?> createOrder(@Valid @RequestBody OrderRequest request) {
+    public ResponseEntity<?> createOrder(@Valid @RequestBody OrderRequest request,
+                                         @RequestAttribute(name = TokenClaims.REQUEST_ATTRIBUTE, required = false) TokenClaims caller) {
+        if (caller != null && !caller.canActFor(request.getUserId())) {
+            return forbidden();
+        }
         try {
             Order order = orderService.createOrder(request);
-            return ResponseEntity.status(HttpStatus.CREATED).body(order);
+            return ResponseEntity.status(HttpStatus.CREATED).body(OrderResponse.from(order));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", e.getMessage()));
         }
     }
     
+    /**
+     * Prices a cart of up to {@code pricing.max-lines} lines without placing an order, or
+     * {@code pricing.max-anonymous-lines} for a caller without a token (see docs/PRICING.md).
+     */
+    @PostMapping("/quote")
+    public ResponseEntity<QuoteResponse> quote(@Valid @RequestBody QuoteRequest request,
+                                               @RequestAttribute(name = TokenClaims.REQUEST_ATTRIBUTE, required = false) TokenClaims caller) {
+        return ResponseEntity.ok(QuoteResponse.from(orderService.quote(request, caller != null)));
+    }
+    
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<List<OrderResponse>> getAllOrders(@RequestParam(required = false) String fields) {
+        Set<OrderField> selected = OrderField.parse(fields);
+        return ResponseEntity.ok(OrderResponse.fromAll(orderService.getAllOrders(), selected));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<?> getOrderById(@PathVariable Long id) {
+    public ResponseEntity<?> getOrderById(@PathVariable Long id, @RequestParam(required = false) String fields,
+                                          @RequestAttribute(name = TokenClaims.REQUEST_ATTRIBUTE, required = false) TokenClaims caller) {
+        Set<OrderField> selected = OrderField.parse(fields);
         try {
             Order order = orderService.getOrderById(id);
-            return ResponseEntity.ok(order);
+            if (caller != null && !caller.canActFor(order.getUserId())) {
+                return forbidden();
+            }
+            return ResponseEntity.ok(OrderResponse.from(order, selected));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
         }
     }
     
+    // from/to (ISO dates, to exclusive) restrict the scan to the matching monthly partitions
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Order>> getOrdersByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(orderService.getOrdersByUserId(userId));
+    public ResponseEntity<?> getOrdersByUserId(@PathVariable Long userId,
+                                               @RequestParam(required = false) String fields,
+                                               @RequestParam(required = false) LocalDate from,
+                                               @RequestParam(required = false) LocalDate to,
+                                               @RequestAttribute(name = TokenClaims.REQUEST_ATTRIBUTE, required = false) TokenClaims caller) {
+        if (caller != null && !caller.canActFor(userId)) {
+            return forbidden();
+        }
+        Set<OrderField> selected = OrderField.parse(fields);
+        return ResponseEntity.ok(OrderResponse.fromAll(orderService.getOrdersByUserId(userId, from, to), selected));
+    }
+    
+    /**
+     * Server-sent {@code status} events for the given orders: their current statuses first, then
+     * every change (see docs/EVENT-STREAMS.md). A caller known from their token may only watch
+     * their own orders, unless they are an admin.
+     */
+    @GetMapping("/status/stream")
+    public ResponseEntity<SseEmitter> streamStatuses(@RequestParam List<Long> ids,
+                                                     @RequestAttribute(name = TokenClaims.REQUEST_ATTRIBUTE, required = false) TokenClaims caller) {
+        if (caller != null && !caller.isAdmin() && !orderService.allOwnedBy(ids, caller.userId())) {
+            // No body, as for handleSubscriberLimit
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(orderStatusStream.subscribe(ids));
     }
     
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Order>> getOrdersByStatus(@PathVariable OrderStatus status) {
-        return ResponseEntity.ok(orderService.getOrdersByStatus(status));
+    public ResponseEntity<List<OrderResponse>> getOrdersByStatus(@PathVariable OrderStatus status,
+                                                                 @RequestParam(required = false) String fields,
+                                                                 @RequestParam(required = false) LocalDate from,
+                                                                 @RequestParam(required = false) LocalDate to) {
+        Set<OrderField> selected = OrderField.parse(fields);
+        return ResponseEntity.ok(OrderResponse.fromAll(orderService.getOrdersByStatus(status, from, to), selected));
     }
     
+    // Queued and written together with other status changes; CANCELLED goes through cancelOrder
     @PatchMapping("/{id}/status")
-    public ResponseEntity<?> updateOrderStatus(@PathVariable Long id, 
-                                               @Valid @RequestBody OrderStatusUpdateRequest request) {
-        try {
-            Order order = orderService.updateOrderStatus(id, request.getStatus());
-            return ResponseEntity.ok(order);
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("error", e.getMessage()));
+    public CompletableFuture<ResponseEntity<?>> updateOrderStatus(@PathVariable Long id, 
+                                                                  @Valid @RequestBody OrderStatusUpdateRequest request) {
+        if (request.getStatus() == OrderStatus.CANCELLED) {
+            try {
+                // The order as written; a read-only re-read could come from a lagging replica
+                Order cancelled = orderService.cancelOrder(id);
+                return CompletableFuture.completedFuture(ResponseEntity.ok(OrderResponse.from(cancelled)));
+            } catch (RuntimeException e) {
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", e.getMessage())));
+            }
+        }
+        return orderStatusBatcher.submit(id, request.getStatus())
+                .<ResponseEntity<?>>thenApply(order -> ResponseEntity.ok(OrderResponse.from(order)))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    HttpStatus status = cause instanceof InvalidStatusTransitionException
+                            ? HttpStatus.CONFLICT : HttpStatus.NOT_FOUND;
+                    return ResponseEntity.status(status).body(Map.of("error", String.valueOf(cause.getMessage())));
+                });
+    }
+    
+    /**
+     * Moves many orders to one status with a few set-based UPDATEs. Orders whose current status
+     * cannot move there are reported, not changed (see docs/ORDER-STATUS.md).
+     */
+    @PatchMapping("/status")
+    public ResponseEntity<?> updateOrderStatuses(@Valid @RequestBody BulkStatusUpdateRequest request) {
+        if (request.getStatus() == OrderStatus.CANCELLED) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Orders are cancelled one at a time, with DELETE /api/orders/{id}"));
         }
+        return ResponseEntity.ok(orderStatusBatcher.transitionAll(request.getIds(), request.getStatus()));
     }
     
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> cancelOrder(@PathVariable Long id) {
+    public ResponseEntity<?> cancelOrder(@PathVariable Long id, @RequestAttribute(name = TokenClaims.REQUEST_ATTRIBUTE, required = false) TokenClaims caller) {
         try {
+            if (caller != null && !caller.isAdmin() && !caller.canActFor(orderService.getOrderById(id).getUserId())) {
+                return forbidden();
+            }
             orderService.cancelOrder(id);
             return ResponseEntity.ok(Map.of("message", "Order cancelled successfully"));
         } catch (RuntimeException e) {
@@ -90,5 +188,25 @@ public class OrderController {
                     .body(Map.of("error", e.getMessage()));
         }
     }
+    
+    // Callers known from their token reach their own orders only, unless they are admins (see docs/AUTH-TOKENS.md)
+    private static ResponseEntity<?> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("error", "Not allowed for this user"));
+    }
+    
+    // No body: stream clients accept only text/event-stream, which a JSON error cannot be written as
+    @ExceptionHandler(SubscriberLimitException.class)
+    public ResponseEntity<Void> handleSubscriberLimit(SubscriberLimitException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .build();
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleUnknownField(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+    }
 }
 
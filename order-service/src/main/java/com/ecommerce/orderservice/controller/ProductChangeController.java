@@ -0,0 +1,28 @@
+package com.ecommerce.orderservice.controller;
+
+import com.ecommerce.orderservice.dto.ProductChangeEvent;
+import com.ecommerce.orderservice.service.ProductSnapshotCache;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Product change notifications pushed by product-service. Not routed by the gateway.
+ */
+@RestController
+@RequestMapping("/internal/product-changes")
+public class ProductChangeController {
+    
+    @Autowired
+    private ProductSnapshotCache productSnapshotCache;
+    
+    @PostMapping
+    public ResponseEntity<?> productChanged(@Valid @RequestBody ProductChangeEvent event) {
+        productSnapshotCache.invalidate(event.getProductId(), event.getUpdatedAt());
+        return ResponseEntity.noContent().build();
+    }
+}
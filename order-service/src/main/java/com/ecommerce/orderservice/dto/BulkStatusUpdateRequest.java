@@ -0,0 +1,19 @@
+package com.ecommerce.orderservice.dto;
+
+import com.ecommerce.orderservice.entity.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkStatusUpdateRequest {
+    @NotEmpty
+    @Size(max = 100000)
+    private List<@NotNull Long> ids;
+    
+    @NotNull
+    private OrderStatus status;
+}
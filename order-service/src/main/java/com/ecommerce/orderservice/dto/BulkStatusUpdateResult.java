@@ -0,0 +1,21 @@
+package com.ecommerce.orderservice.dto;
+
+import com.ecommerce.orderservice.entity.OrderStatus;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class BulkStatusUpdateResult {
+    private long requested;
+    private long updated;
+    // Already in the requested status
+    private long unchanged;
+    private long rejectedCount;
+    private long notFoundCount;
+    // First 100 of each: order id -> current status, and ids with no order
+    private Map<Long, OrderStatus> rejected;
+    private List<Long> notFound;
+    private long elapsedMs;
+}
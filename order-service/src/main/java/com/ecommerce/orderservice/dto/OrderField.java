@@ -0,0 +1,62 @@
+package com.ecommerce.orderservice.dto;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The fields of an {@link OrderResponse} a client can select with {@code ?fields=}.
+ */
+public enum OrderField {
+    ID("id"),
+    USER_ID("userId"),
+    PRODUCT_ID("productId"),
+    QUANTITY("quantity"),
+    TOTAL_PRICE("totalPrice"),
+    STATUS("status"),
+    PAYMENT_METHOD("paymentMethod"),
+    SHIPPING_ADDRESS("shippingAddress"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+    
+    public static final Set<OrderField> ALL = Collections.unmodifiableSet(EnumSet.allOf(OrderField.class));
+    
+    // Quoted and UTF-8 encoded once instead of on every write
+    private final SerializedString jsonName;
+    
+    OrderField(String name) {
+        this.jsonName = new SerializedString(name);
+    }
+    
+    public SerializedString jsonName() {
+        return jsonName;
+    }
+    
+    /**
+     * Parses a comma-separated list such as {@code id,userId,productId}; null or blank selects every field.
+     */
+    public static Set<OrderField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        EnumSet<OrderField> selected = EnumSet.noneOf(OrderField.class);
+        for (String name : fields.split(",")) {
+            selected.add(fromName(name.trim()));
+        }
+        return selected;
+    }
+    
+    private static OrderField fromName(String name) {
+        for (OrderField field : values()) {
+            if (field.jsonName.getValue().equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + name + ". Available: "
+                + Arrays.stream(values()).map(f -> f.jsonName.getValue()).collect(Collectors.joining(",")));
+    }
+}
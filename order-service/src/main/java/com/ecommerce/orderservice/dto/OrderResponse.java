@@ -0,0 +1,41 @@
+package com.ecommerce.orderservice.dto;
+
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * What the order endpoints return. Only the selected {@code fields} are written.
+ */
+@JsonSerialize(using = OrderResponseSerializer.class)
+public record OrderResponse(Long id,
+                            Long userId,
+                            Long productId,
+                            Integer quantity,
+                            BigDecimal totalPrice,
+                            OrderStatus status,
+                            String paymentMethod,
+                            String shippingAddress,
+                            LocalDateTime createdAt,
+                            LocalDateTime updatedAt,
+                            Set<OrderField> fields) {
+    
+    public static OrderResponse from(Order order) {
+        return from(order, OrderField.ALL);
+    }
+    
+    public static OrderResponse from(Order order, Set<OrderField> fields) {
+        return new OrderResponse(order.getId(), order.getUserId(), order.getProductId(), order.getQuantity(),
+                order.getTotalPrice(), order.getStatus(), order.getPaymentMethod(), order.getShippingAddress(),
+                order.getCreatedAt(), order.getUpdatedAt(), fields);
+    }
+    
+    public static List<OrderResponse> fromAll(List<Order> orders, Set<OrderField> fields) {
+        return orders.stream().map(order -> from(order, fields)).toList();
+    }
+}
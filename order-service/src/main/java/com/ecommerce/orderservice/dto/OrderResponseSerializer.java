@@ -0,0 +1,147 @@
+package com.ecommerce.orderservice.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+
+import static com.ecommerce.orderservice.dto.OrderField.*;
+
+/**
+ * Writes {@link OrderResponse} field by field with precomputed names, skipping the
+ * reflective bean serializer. Output matches what Jackson produced for the entity.
+ */
+public class OrderResponseSerializer extends StdSerializer<OrderResponse> {
+    
+    public OrderResponseSerializer() {
+        super(OrderResponse.class);
+    }
+    
+    @Override
+    public void serialize(OrderResponse order, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        Set<OrderField> fields = order.fields();
+        gen.writeStartObject(order);
+        if (fields.contains(ID)) {
+            writeNumber(gen, ID.jsonName(), order.id());
+        }
+        if (fields.contains(USER_ID)) {
+            writeNumber(gen, USER_ID.jsonName(), order.userId());
+        }
+        if (fields.contains(PRODUCT_ID)) {
+            writeNumber(gen, PRODUCT_ID.jsonName(), order.productId());
+        }
+        if (fields.contains(QUANTITY)) {
+            writeNumber(gen, QUANTITY.jsonName(), order.quantity());
+        }
+        if (fields.contains(TOTAL_PRICE)) {
+            writeNumber(gen, TOTAL_PRICE.jsonName(), order.totalPrice());
+        }
+        if (fields.contains(STATUS)) {
+            writeString(gen, STATUS.jsonName(), order.status() == null ? null : order.status().name());
+        }
+        if (fields.contains(PAYMENT_METHOD)) {
+            writeString(gen, PAYMENT_METHOD.jsonName(), order.paymentMethod());
+        }
+        if (fields.contains(SHIPPING_ADDRESS)) {
+            writeString(gen, SHIPPING_ADDRESS.jsonName(), order.shippingAddress());
+        }
+        if (fields.contains(CREATED_AT)) {
+            writeDateTime(gen, CREATED_AT.jsonName(), order.createdAt());
+        }
+        if (fields.contains(UPDATED_AT)) {
+            writeDateTime(gen, UPDATED_AT.jsonName(), order.updatedAt());
+        }
+        gen.writeEndObject();
+    }
+    
+    private static void writeString(JsonGenerator gen, SerializedString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+    
+    private static void writeNumber(JsonGenerator gen, SerializedString name, Long value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+    
+    private static void writeNumber(JsonGenerator gen, SerializedString name, Integer value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+    
+    private static void writeNumber(JsonGenerator gen, SerializedString name, BigDecimal value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+    
+    // Same ISO-8601 form as Jackson's LocalDateTimeSerializer with WRITE_DATES_AS_TIMESTAMPS off,
+    // written by hand: DateTimeFormatter is the most expensive part of a response otherwise
+    private static void writeDateTime(JsonGenerator gen, SerializedString name, LocalDateTime value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else if (value.getYear() < 0 || value.getYear() > 9999) {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        } else {
+            char[] buf = new char[29];
+            int length = formatIsoDateTime(value, buf);
+            gen.writeString(buf, 0, length);
+        }
+    }
+    
+    // yyyy-MM-ddTHH:mm:ss, then the fraction without trailing zeros, omitted when zero
+    static int formatIsoDateTime(LocalDateTime value, char[] buf) {
+        int pos = writeDigits(buf, 0, value.getYear(), 4);
+        buf[pos++] = '-';
+        pos = writeDigits(buf, pos, value.getMonthValue(), 2);
+        buf[pos++] = '-';
+        pos = writeDigits(buf, pos, value.getDayOfMonth(), 2);
+        buf[pos++] = 'T';
+        pos = writeDigits(buf, pos, value.getHour(), 2);
+        buf[pos++] = ':';
+        pos = writeDigits(buf, pos, value.getMinute(), 2);
+        buf[pos++] = ':';
+        pos = writeDigits(buf, pos, value.getSecond(), 2);
+        int nano = value.getNano();
+        if (nano != 0) {
+            int width = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                width--;
+            }
+            buf[pos++] = '.';
+            pos = writeDigits(buf, pos, nano, width);
+        }
+        return pos;
+    }
+    
+    private static int writeDigits(char[] buf, int pos, int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
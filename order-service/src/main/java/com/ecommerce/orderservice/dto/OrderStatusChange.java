@@ -0,0 +1,9 @@
+package com.ecommerce.orderservice.dto;
+
+import com.ecommerce.orderservice.entity.OrderStatus;
+
+/**
+ * Data of a {@code status} event on {@code GET /api/orders/status/stream}.
+ */
+public record OrderStatusChange(Long orderId, OrderStatus status) {
+}
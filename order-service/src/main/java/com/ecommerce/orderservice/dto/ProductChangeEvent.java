@@ -0,0 +1,17 @@
+package com.ecommerce.orderservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sent by product-service when a product's name or price changed or the product was deleted.
+ */
+@Data
+public class ProductChangeEvent {
+    @NotNull
+    private Long productId;
+    
+    private LocalDateTime updatedAt;
+}
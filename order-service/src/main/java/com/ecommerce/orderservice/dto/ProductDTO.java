@@ -3,6 +3,7 @@ package com.ecommerce.orderservice.dto;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 public class ProductDTO {
@@ -13,5 +14,6 @@ public class ProductDTO {
     private Integer stock;
     private String category;
     private String imageUrl;
+    private LocalDateTime updatedAt;
 }
 
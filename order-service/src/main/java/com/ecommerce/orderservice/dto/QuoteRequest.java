@@ -0,0 +1,23 @@
+package com.ecommerce.orderservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class QuoteRequest {
+    @NotEmpty(message = "A cart needs at least one line")
+    private List<@Valid @NotNull Line> lines;
+    
+    @Data
+    public static class Line {
+        @NotNull(message = "Product ID is required")
+        private Long productId;
+        
+        @NotNull(message = "Quantity is required")
+        private Integer quantity;
+    }
+}
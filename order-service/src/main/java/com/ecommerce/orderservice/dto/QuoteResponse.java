@@ -0,0 +1,44 @@
+package com.ecommerce.orderservice.dto;
+
+import com.ecommerce.orderservice.pricing.Money;
+import com.ecommerce.orderservice.pricing.PriceQuote;
+import com.ecommerce.orderservice.pricing.PricedLine;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * What {@code POST /api/orders/quote} returns: the priced cart, amounts in currency units.
+ * {@code error} is the first problem found, the cart's own or a line's.
+ */
+public record QuoteResponse(boolean valid,
+                            BigDecimal subtotal,
+                            BigDecimal discount,
+                            BigDecimal tax,
+                            BigDecimal total,
+                            String error,
+                            List<Line> lines) {
+    
+    public record Line(Long productId,
+                       Integer quantity,
+                       BigDecimal unitPrice,
+                       BigDecimal subtotal,
+                       BigDecimal discount,
+                       BigDecimal tax,
+                       BigDecimal total,
+                       String promotion,
+                       String error) {
+        
+        static Line from(PricedLine line) {
+            return new Line(line.productId(), line.quantity(), Money.toDecimal(line.unitPrice()),
+                    Money.toDecimal(line.subtotal()), Money.toDecimal(line.discount()), Money.toDecimal(line.tax()),
+                    Money.toDecimal(line.total()), line.promotion(), line.problem());
+        }
+    }
+    
+    public static QuoteResponse from(PriceQuote quote) {
+        return new QuoteResponse(quote.isValid(), Money.toDecimal(quote.subtotal()), Money.toDecimal(quote.discount()),
+                Money.toDecimal(quote.tax()), Money.toDecimal(quote.total()), quote.firstProblem(),
+                quote.lines().stream().map(Line::from).toList());
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.orderservice.entity;
 
+import com.ecommerce.ids.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -15,7 +16,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
     
     @Column(name = "user_id", nullable = false)
@@ -40,7 +41,8 @@ public class Order {
     @Column(name = "shipping_address", columnDefinition = "TEXT")
     private String shippingAddress;
     
-    @Column(name = "created_at")
+    // Partitioning column (see docs/ORDER-PARTITIONING.md): never changes once the order exists
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
     
     @Column(name = "updated_at")
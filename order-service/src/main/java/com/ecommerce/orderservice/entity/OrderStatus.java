@@ -1,11 +1,33 @@
 package com.ecommerce.orderservice.entity;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Declared in lifecycle order: every predecessor of a status is declared before it, so an order's
+ * status only ever moves down this list. Status events rely on that to tell a stale status from a
+ * newer one.
+ */
 public enum OrderStatus {
     PENDING,
     CONFIRMED,
     PROCESSING,
     SHIPPED,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+    
+    /**
+     * Statuses an order may move to this one from. Status updates check this in the UPDATE's
+     * WHERE clause rather than on a loaded entity. Nothing leaves DELIVERED or CANCELLED.
+     */
+    public Set<OrderStatus> predecessors() {
+        return switch (this) {
+            case PENDING -> EnumSet.noneOf(OrderStatus.class);
+            case CONFIRMED -> EnumSet.of(PENDING);
+            case PROCESSING -> EnumSet.of(CONFIRMED);
+            case SHIPPED -> EnumSet.of(CONFIRMED, PROCESSING);
+            case DELIVERED -> EnumSet.of(SHIPPED);
+            case CANCELLED -> EnumSet.of(PENDING, CONFIRMED, PROCESSING);
+        };
+    }
 }
-
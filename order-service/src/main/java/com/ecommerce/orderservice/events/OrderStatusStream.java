@@ -0,0 +1,123 @@
+package com.ecommerce.orderservice.events;
+
+import com.ecommerce.events.SseBroadcaster;
+import com.ecommerce.orderservice.dto.OrderStatusChange;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.orderservice.repository.OrderStatusView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Order statuses pushed to clients over server-sent events (see docs/EVENT-STREAMS.md), instead
+ * of clients polling {@code GET /api/orders/{id}}.
+ *
+ * Status changes made through this instance are published once committed. Every
+ * {@code reconcile-interval-ms} the statuses of the watched orders are read again, two columns
+ * per order, which brings in changes made through other instances; the broadcaster drops the ones
+ * that did not change. Statuses only move forward ({@link OrderStatus}), so a status read before a
+ * change committed is older than the change and dropped as well, instead of undoing it.
+ */
+@Component
+public class OrderStatusStream {
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${events.order-status.max-subscribers:10000}")
+    private int maxSubscribers;
+    
+    @Value("${events.order-status.max-ids:100}")
+    private int maxIds;
+    
+    @Value("${events.order-status.senders:2}")
+    private int senders;
+    
+    @Value("${events.order-status.timeout-ms:1800000}")
+    private long timeoutMs;
+    
+    @Value("${events.order-status.heartbeat-ms:15000}")
+    private long heartbeatMs;
+    
+    @Value("${events.order-status.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+    
+    @Value("${orders.status-batch.max-batch:1000}")
+    private int lookupChunk;
+    
+    private SseBroadcaster<OrderStatusChange> broadcaster;
+    
+    @PostConstruct
+    public void init() {
+        broadcaster = new SseBroadcaster<>("status", maxSubscribers, maxIds, senders,
+                Duration.ofMillis(timeoutMs), Duration.ofMillis(heartbeatMs), Duration.ofMillis(sendTimeoutMs),
+                Comparator.comparing(OrderStatusChange::status));
+        Gauge.builder("events.subscribers", broadcaster, SseBroadcaster::subscriberCount)
+                .description("Open server-sent event streams")
+                .tag("stream", "order-status")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        broadcaster.shutdown();
+    }
+    
+    /**
+     * Opens a stream of the statuses of {@code orderIds}, starting with the current ones.
+     */
+    public SseEmitter subscribe(Collection<Long> orderIds) {
+        SseEmitter emitter = broadcaster.subscribe(orderIds);
+        publishCurrent(orderIds);
+        return emitter;
+    }
+    
+    /**
+     * Publishes a status change, after the commit when called inside a transaction. Costs one
+     * map lookup when nobody watches the order.
+     */
+    public void statusChanged(Long orderId, OrderStatus status) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            broadcaster.publish(orderId, new OrderStatusChange(orderId, status));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                broadcaster.publish(orderId, new OrderStatusChange(orderId, status));
+            }
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${events.order-status.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        publishCurrent(broadcaster.watchedKeys());
+    }
+    
+    private void publishCurrent(Collection<Long> orderIds) {
+        List<Long> ids = new ArrayList<>(orderIds);
+        for (int i = 0; i < ids.size(); i += lookupChunk) {
+            for (OrderStatusView view : orderRepository.findStatusByIdIn(ids.subList(i, Math.min(i + lookupChunk, ids.size())))) {
+                broadcaster.publish(view.getId(), new OrderStatusChange(view.getId(), view.getStatus()));
+            }
+        }
+    }
+}
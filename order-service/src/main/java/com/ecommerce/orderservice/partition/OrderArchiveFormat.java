@@ -0,0 +1,94 @@
+package com.ecommerce.orderservice.partition;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Layout shared by {@link OrderArchiveWriter} and {@link OrderArchiveReader}.
+ *
+ * <pre>
+ * file      = magic "ORDA", version (int), row group*, end marker (int 0), total rows (long), crc32 (long)
+ * row group = row count (int), one chunk per column in {@link Column} order
+ * chunk     = compressed length (int), raw length (int), deflated column values
+ * </pre>
+ *
+ * Each column is stored on its own, so values of the same kind sit next to each other and
+ * compress well: ids and timestamps as deltas from the previous row, prices as cents,
+ * status and payment method as small dictionary indexes, all as variable-length integers.
+ * The CRC covers every byte before it.
+ */
+final class OrderArchiveFormat {
+    
+    static final int MAGIC = 0x4F52_4441; // "ORDA"
+    static final int VERSION = 1;
+    static final String FILE_SUFFIX = ".orda";
+    
+    enum Column {
+        ID, USER_ID, PRODUCT_ID, QUANTITY, TOTAL_PRICE, STATUS, PAYMENT_METHOD, SHIPPING_ADDRESS, CREATED_AT, UPDATED_AT
+    }
+    
+    private OrderArchiveFormat() {
+    }
+    
+    static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+    
+    static void writeZigZag(ByteArrayOutputStream out, long value) {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+    
+    static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+    
+    static long readZigZag(ByteBuffer in) {
+        long raw = readVarLong(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+    
+    static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeZigZag(out, -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeZigZag(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+    
+    static String readString(ByteBuffer in) {
+        int length = (int) readZigZag(in);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    static void checkHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an order archive");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported order archive version " + version);
+        }
+    }
+}
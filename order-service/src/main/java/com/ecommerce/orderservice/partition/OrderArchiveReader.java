@@ -0,0 +1,144 @@
+package com.ecommerce.orderservice.partition;
+
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.partition.OrderArchiveFormat.Column;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static com.ecommerce.orderservice.partition.OrderArchiveFormat.readString;
+import static com.ecommerce.orderservice.partition.OrderArchiveFormat.readVarLong;
+import static com.ecommerce.orderservice.partition.OrderArchiveFormat.readZigZag;
+
+/**
+ * Reads an archive written by {@link OrderArchiveWriter}, one row group at a time.
+ */
+public final class OrderArchiveReader {
+    
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    private OrderArchiveReader() {
+    }
+    
+    /**
+     * Passes every archived order to {@code consumer} in file order and checks the footer.
+     *
+     * @return the number of orders read
+     * @throws IOException if the file is truncated, corrupt or not an order archive
+     */
+    public static long read(Path file, Consumer<Order> consumer) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return read(input, consumer);
+        }
+    }
+    
+    public static long read(InputStream input, Consumer<Order> consumer) throws IOException {
+        CRC32 crc = new CRC32();
+        DataInputStream in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(input, 1 << 16), crc));
+        OrderArchiveFormat.checkHeader(in);
+        Inflater inflater = new Inflater();
+        try {
+            long rows = 0;
+            int groupRows;
+            while ((groupRows = in.readInt()) > 0) {
+                Map<Column, ByteBuffer> columns = new EnumMap<>(Column.class);
+                for (Column column : Column.values()) {
+                    columns.put(column, readChunk(in, inflater));
+                }
+                readGroup(groupRows, columns, consumer);
+                rows += groupRows;
+            }
+            long declaredRows = in.readLong();
+            long expectedCrc = crc.getValue();
+            long storedCrc = in.readLong();
+            if (declaredRows != rows || storedCrc != expectedCrc) {
+                throw new IOException("Order archive is corrupt: " + rows + " rows read, " + declaredRows + " declared");
+            }
+            return rows;
+        } finally {
+            inflater.end();
+        }
+    }
+    
+    private static void readGroup(int rows, Map<Column, ByteBuffer> columns, Consumer<Order> consumer) {
+        List<String> paymentMethods = new ArrayList<>();
+        long id = 0;
+        long created = 0;
+        long updated = 0;
+        for (int i = 0; i < rows; i++) {
+            Order order = new Order();
+            id += readZigZag(columns.get(Column.ID));
+            order.setId(id);
+            order.setUserId(readZigZag(columns.get(Column.USER_ID)));
+            order.setProductId(readZigZag(columns.get(Column.PRODUCT_ID)));
+            order.setQuantity((int) readZigZag(columns.get(Column.QUANTITY)));
+            order.setTotalPrice(BigDecimal.valueOf(readZigZag(columns.get(Column.TOTAL_PRICE)), 2));
+            order.setStatus(STATUSES[(int) readVarLong(columns.get(Column.STATUS))]);
+            order.setPaymentMethod(readPaymentMethod(columns.get(Column.PAYMENT_METHOD), paymentMethods));
+            order.setShippingAddress(readString(columns.get(Column.SHIPPING_ADDRESS)));
+            created += readZigZag(columns.get(Column.CREATED_AT));
+            order.setCreatedAt(toTime(created));
+            updated += readZigZag(columns.get(Column.UPDATED_AT));
+            order.setUpdatedAt(toTime(updated));
+            consumer.accept(order);
+        }
+    }
+    
+    private static String readPaymentMethod(ByteBuffer column, List<String> dictionary) {
+        int index = (int) readVarLong(column);
+        if (index == 0) {
+            return null;
+        }
+        if (index == dictionary.size() + 1) {
+            dictionary.add(readString(column));
+        }
+        return dictionary.get(index - 1);
+    }
+    
+    private static ByteBuffer readChunk(DataInputStream in, Inflater inflater) throws IOException {
+        byte[] compressed = new byte[in.readInt()];
+        byte[] raw = new byte[in.readInt()];
+        in.readFully(compressed);
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            int n = 0;
+            while (n < raw.length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, n, raw.length - n);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += inflated;
+            }
+            if (n != raw.length) {
+                throw new IOException("Order archive chunk is truncated");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Order archive chunk is corrupt", e);
+        }
+        return ByteBuffer.wrap(raw);
+    }
+    
+    private static LocalDateTime toTime(long micros) {
+        return micros == Long.MIN_VALUE ? null : EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,142 @@
+package com.ecommerce.orderservice.partition;
+
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.partition.OrderArchiveFormat.Column;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+
+import static com.ecommerce.orderservice.partition.OrderArchiveFormat.writeString;
+import static com.ecommerce.orderservice.partition.OrderArchiveFormat.writeVarLong;
+import static com.ecommerce.orderservice.partition.OrderArchiveFormat.writeZigZag;
+
+/**
+ * Writes orders to a columnar archive file, one row group per {@link #write} call.
+ * See {@link OrderArchiveFormat} for the layout.
+ */
+public class OrderArchiveWriter implements Closeable {
+    
+    private final CRC32 crc = new CRC32();
+    private final DataOutputStream out;
+    private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    private long totalRows;
+    
+    public OrderArchiveWriter(OutputStream target) throws IOException {
+        this.out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(target, 1 << 16), crc));
+        out.writeInt(OrderArchiveFormat.MAGIC);
+        out.writeInt(OrderArchiveFormat.VERSION);
+    }
+    
+    public void write(List<Order> orders) throws IOException {
+        if (orders.isEmpty()) {
+            return;
+        }
+        Map<Column, ByteArrayOutputStream> columns = new EnumMap<>(Column.class);
+        for (Column column : Column.values()) {
+            columns.put(column, new ByteArrayOutputStream(orders.size() * 4));
+        }
+        Map<String, Integer> paymentMethods = new HashMap<>();
+        long previousId = 0;
+        long previousCreated = 0;
+        long previousUpdated = 0;
+        for (Order order : orders) {
+            writeZigZag(columns.get(Column.ID), order.getId() - previousId);
+            previousId = order.getId();
+            writeZigZag(columns.get(Column.USER_ID), order.getUserId());
+            writeZigZag(columns.get(Column.PRODUCT_ID), order.getProductId());
+            writeZigZag(columns.get(Column.QUANTITY), order.getQuantity());
+            writeZigZag(columns.get(Column.TOTAL_PRICE), cents(order.getTotalPrice()));
+            writeVarLong(columns.get(Column.STATUS), order.getStatus().ordinal());
+            writePaymentMethod(columns.get(Column.PAYMENT_METHOD), paymentMethods, order.getPaymentMethod());
+            writeString(columns.get(Column.SHIPPING_ADDRESS), order.getShippingAddress());
+            long created = micros(order.getCreatedAt());
+            writeZigZag(columns.get(Column.CREATED_AT), created - previousCreated);
+            previousCreated = created;
+            long updated = micros(order.getUpdatedAt());
+            writeZigZag(columns.get(Column.UPDATED_AT), updated - previousUpdated);
+            previousUpdated = updated;
+        }
+        
+        out.writeInt(orders.size());
+        for (Column column : Column.values()) {
+            writeChunk(columns.get(column).toByteArray());
+        }
+        totalRows += orders.size();
+    }
+    
+    public long getTotalRows() {
+        return totalRows;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            out.writeInt(0);
+            out.writeLong(totalRows);
+            out.flush();
+            long checksum = crc.getValue();
+            out.writeLong(checksum);
+            out.close();
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    // New payment methods are appended to the group's dictionary inline: index 0 is null,
+    // a new value is written as (size + 1) followed by the string
+    private static void writePaymentMethod(ByteArrayOutputStream column, Map<String, Integer> dictionary, String value) {
+        if (value == null) {
+            writeVarLong(column, 0);
+            return;
+        }
+        Integer index = dictionary.get(value);
+        if (index != null) {
+            writeVarLong(column, index);
+            return;
+        }
+        int next = dictionary.size() + 1;
+        dictionary.put(value, next);
+        writeVarLong(column, next);
+        writeString(column, value);
+    }
+    
+    private void writeChunk(byte[] raw) throws IOException {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buffer);
+            compressed.write(buffer, 0, n);
+        }
+        out.writeInt(compressed.size());
+        out.writeInt(raw.length);
+        compressed.writeTo(out);
+    }
+    
+    private static long cents(BigDecimal price) {
+        return price.movePointRight(2).longValueExact();
+    }
+    
+    private static long micros(LocalDateTime time) {
+        if (time == null) {
+            return Long.MIN_VALUE;
+        }
+        return ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), time.truncatedTo(ChronoUnit.MICROS));
+    }
+}
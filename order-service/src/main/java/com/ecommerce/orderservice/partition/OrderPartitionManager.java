@@ -0,0 +1,245 @@
+package com.ecommerce.orderservice.partition;
+
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Maintains the monthly RANGE partitions of the {@code orders} table (see
+ * shared/database-schemas/order-db-init.sql and docs/ORDER-PARTITIONING.md).
+ *
+ * Partition {@code pYYYYMM} holds the orders created in that month, {@code pmax} everything
+ * later. At startup and once a day this
+ * <ul>
+ *   <li>splits {@code pmax} so that partitions exist for the current month and
+ *       {@code months-ahead} months after it, before any order lands in them, and</li>
+ *   <li>copies each partition older than {@code retention-months} to a columnar archive file,
+ *       reads the file back to check it, and only then drops the partition.</li>
+ * </ul>
+ * Nothing happens when the table is not partitioned (H2, or a schema created by Hibernate).
+ * A MySQL named lock keeps several order-service instances from running it at the same time.
+ */
+@Component
+public class OrderPartitionManager {
+    
+    private static final Logger logger = Logger.getLogger(OrderPartitionManager.class.getName());
+    
+    private static final String LOCK_NAME = "order_db.orders.partition_maintenance";
+    private static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    
+    private static final String LIST_PARTITIONS_SQL = "SELECT PARTITION_NAME, PARTITION_DESCRIPTION "
+            + "FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'orders' AND PARTITION_NAME IS NOT NULL "
+            + "ORDER BY PARTITION_ORDINAL_POSITION";
+    
+    private static final String SELECT_BATCH_SQL = "SELECT id, user_id, product_id, quantity, total_price, status, "
+            + "payment_method, shipping_address, created_at, updated_at FROM orders PARTITION (%s) "
+            + "WHERE id > ? ORDER BY id LIMIT ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${orders.partitioning.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${orders.partitioning.months-ahead:3}")
+    private int monthsAhead;
+    
+    @Value("${orders.partitioning.retention-months:12}")
+    private int retentionMonths;
+    
+    @Value("${orders.partitioning.archive-dir:./data/order-archive}")
+    private String archiveDir;
+    
+    @Value("${orders.partitioning.archive-batch-size:10000}")
+    private int batchSize;
+    
+    private volatile boolean partitioned = true;
+    
+    record Partition(String name, LocalDate upperBound) {
+        boolean isMax() {
+            return upperBound == null;
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+    
+    @Scheduled(cron = "${orders.partitioning.cron:0 15 3 * * *}")
+    public synchronized void maintain() {
+        if (!enabled || !partitioned) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                maintain(new JdbcTemplate(new SingleConnectionDataSource(connection, true)));
+                return null;
+            });
+        } catch (DataAccessException | UncheckedIOException e) {
+            logger.log(Level.WARNING, "Order partition maintenance failed", e);
+        }
+    }
+    
+    private void maintain(JdbcTemplate connection) {
+        List<Partition> partitions = listPartitions(connection);
+        if (partitions.isEmpty()) {
+            partitioned = false;
+            logger.info("orders table is not partitioned, partition maintenance disabled");
+            return;
+        }
+        Integer locked = connection.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class, LOCK_NAME);
+        if (locked == null || locked != 1) {
+            return;
+        }
+        try {
+            // Listed again: another instance may have changed them before we got the lock
+            partitions = listPartitions(connection);
+            YearMonth current = YearMonth.now();
+            if (createAhead(connection, partitions, current.plusMonths(monthsAhead))) {
+                partitions = listPartitions(connection);
+            }
+            archiveExpired(connection, partitions, current.minusMonths(retentionMonths).atDay(1));
+        } finally {
+            connection.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, LOCK_NAME);
+        }
+    }
+    
+    private List<Partition> listPartitions(JdbcTemplate connection) {
+        try {
+            return connection.query(LIST_PARTITIONS_SQL, (rs, rowNum) -> {
+                String description = rs.getString("PARTITION_DESCRIPTION");
+                LocalDate upperBound = "MAXVALUE".equals(description) ? null
+                        : LocalDate.parse(description.replace("'", "").substring(0, 10));
+                return new Partition(rs.getString("PARTITION_NAME"), upperBound);
+            });
+        } catch (DataAccessException e) {
+            // No information_schema.PARTITIONS: not MySQL
+            return List.of();
+        }
+    }
+    
+    // Splits pmax; it only holds rows from months not yet split off, so this moves few if any
+    private boolean createAhead(JdbcTemplate connection, List<Partition> partitions, YearMonth last) {
+        if (partitions.stream().noneMatch(Partition::isMax)) {
+            logger.warning("orders has no " + MAX_PARTITION + " partition, cannot add new months");
+            return false;
+        }
+        LocalDate highest = partitions.stream()
+                .filter(partition -> !partition.isMax())
+                .map(Partition::upperBound)
+                .max(LocalDate::compareTo)
+                .orElse(null);
+        // Freshly created or migrated table: start at the oldest order so history gets months too
+        YearMonth month = highest != null ? YearMonth.from(highest) : oldestOrderMonth(connection);
+        List<String> definitions = new ArrayList<>();
+        while (!month.isAfter(last)) {
+            definitions.add("PARTITION " + month.format(PARTITION_NAME)
+                    + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "')");
+            month = month.plusMonths(1);
+        }
+        if (definitions.isEmpty()) {
+            return false;
+        }
+        definitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+        connection.execute("ALTER TABLE orders REORGANIZE PARTITION " + MAX_PARTITION
+                + " INTO (" + String.join(", ", definitions) + ")");
+        logger.info("Added " + (definitions.size() - 1) + " order partitions up to " + last);
+        return true;
+    }
+    
+    private YearMonth oldestOrderMonth(JdbcTemplate connection) {
+        LocalDateTime oldest = connection.queryForObject("SELECT MIN(created_at) FROM orders", LocalDateTime.class);
+        YearMonth current = YearMonth.now();
+        return oldest == null || YearMonth.from(oldest).isAfter(current) ? current : YearMonth.from(oldest);
+    }
+    
+    private void archiveExpired(JdbcTemplate connection, List<Partition> partitions, LocalDate cutoff) {
+        for (Partition partition : partitions) {
+            if (partition.isMax() || partition.upperBound().isAfter(cutoff)) {
+                continue;
+            }
+            long rows = archive(connection, partition.name());
+            connection.execute("ALTER TABLE orders DROP PARTITION " + partition.name());
+            logger.info("Archived " + rows + " orders from partition " + partition.name() + " and dropped it");
+        }
+    }
+    
+    private long archive(JdbcTemplate connection, String partition) {
+        Path directory = Paths.get(archiveDir);
+        Path file = directory.resolve("orders-" + partition + OrderArchiveFormat.FILE_SUFFIX);
+        Path temp = directory.resolve(file.getFileName() + ".tmp");
+        String select = String.format(SELECT_BATCH_SQL, partition);
+        try {
+            Files.createDirectories(directory);
+            long written;
+            try (OutputStream out = Files.newOutputStream(temp);
+                 OrderArchiveWriter writer = new OrderArchiveWriter(out)) {
+                long lastId = 0;
+                List<Order> batch;
+                do {
+                    batch = connection.query(select, (rs, rowNum) -> {
+                        Order order = new Order();
+                        order.setId(rs.getLong("id"));
+                        order.setUserId(rs.getLong("user_id"));
+                        order.setProductId(rs.getLong("product_id"));
+                        order.setQuantity(rs.getInt("quantity"));
+                        order.setTotalPrice(rs.getBigDecimal("total_price"));
+                        order.setStatus(OrderStatus.valueOf(rs.getString("status")));
+                        order.setPaymentMethod(rs.getString("payment_method"));
+                        order.setShippingAddress(rs.getString("shipping_address"));
+                        order.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+                        order.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+                        return order;
+                    }, lastId, batchSize);
+                    writer.write(batch);
+                    if (!batch.isEmpty()) {
+                        lastId = batch.get(batch.size() - 1).getId();
+                    }
+                } while (batch.size() == batchSize);
+                written = writer.getTotalRows();
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            long verified = OrderArchiveReader.read(temp, order -> { });
+            if (verified != written) {
+                throw new IOException("Archive of " + partition + " has " + verified + " rows, expected " + written);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive partition " + partition, e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.orderservice.pricing;
+
+/**
+ * One line of a cart to price: a product and how many of it.
+ */
+public record CartLine(Long productId, Integer quantity) {
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.orderservice.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money: whole cents in a {@code long}, the scale of the {@code DECIMAL(10,2)}
+ * columns prices and totals are stored in. Pricing adds and multiplies these instead of
+ * {@code BigDecimal}s and converts once at the edges.
+ */
+public final class Money {
+    
+    /** Largest value a {@code DECIMAL(10,2)} column holds, 99,999,999.99. */
+    public static final long MAX_CENTS = 9_999_999_999L;
+    
+    private Money() {
+    }
+    
+    /**
+     * Rounds half up to the cent, as MySQL does when it stores a value into {@code DECIMAL(10,2)}.
+     *
+     * @throws ArithmeticException when the amount does not fit in a {@code long} of cents
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+    
+    /**
+     * {@code basisPoints} / 10000 of a non-negative amount, rounded half up to the cent.
+     *
+     * @throws ArithmeticException on overflow
+     */
+    public static long fraction(long cents, int basisPoints) {
+        return Math.addExact(Math.multiplyExact(cents, basisPoints), 5_000) / 10_000;
+    }
+    
+    /**
+     * A percentage such as {@code 12.5} as basis points ({@code 1250}).
+     *
+     * @throws ArithmeticException when it has more than two decimals
+     */
+    public static int toBasisPoints(BigDecimal percent) {
+        return percent.movePointRight(2).intValueExact();
+    }
+}
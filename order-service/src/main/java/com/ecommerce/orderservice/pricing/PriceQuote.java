@@ -0,0 +1,30 @@
+package com.ecommerce.orderservice.pricing;
+
+import java.util.List;
+
+/**
+ * A priced cart, in cents. The sums cover the lines without a problem.
+ *
+ * @param problem why the cart as a whole cannot be ordered, or null
+ */
+public record PriceQuote(List<PricedLine> lines,
+                         long subtotal,
+                         long discount,
+                         long tax,
+                         long total,
+                         String problem) {
+    
+    public boolean isValid() {
+        return problem == null && lines.stream().allMatch(line -> line.problem() == null);
+    }
+    
+    /**
+     * The cart's problem, else the first line's, else null.
+     */
+    public String firstProblem() {
+        if (problem != null) {
+            return problem;
+        }
+        return lines.stream().map(PricedLine::problem).filter(p -> p != null).findFirst().orElse(null);
+    }
+}
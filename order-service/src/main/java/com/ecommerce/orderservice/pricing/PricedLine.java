@@ -0,0 +1,22 @@
+package com.ecommerce.orderservice.pricing;
+
+/**
+ * A priced cart line, in cents. {@code total} is {@code subtotal - discount + tax}.
+ *
+ * @param promotion name of the promotion applied, or null
+ * @param problem why the line cannot be ordered, or null; the amounts are then zero
+ */
+public record PricedLine(Long productId,
+                         Integer quantity,
+                         long unitPrice,
+                         long subtotal,
+                         long discount,
+                         long tax,
+                         long total,
+                         String promotion,
+                         String problem) {
+    
+    static PricedLine invalid(CartLine line, String problem) {
+        return new PricedLine(line.productId(), line.quantity(), 0, 0, 0, 0, 0, null, problem);
+    }
+}
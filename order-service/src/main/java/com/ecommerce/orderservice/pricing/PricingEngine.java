@@ -0,0 +1,216 @@
+package com.ecommerce.orderservice.pricing;
+
+import com.ecommerce.orderservice.dto.ProductDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Prices a cart: each line's subtotal, best promotion, tax and total, plus the line checks an
+ * order needs (product known, quantity in range, amounts within {@code DECIMAL(10,2)}).
+ *
+ * Amounts are whole cents in {@code long}s (see {@link Money}) and every rounding is half up to
+ * the cent, line by line, so the totals match what the database stores. Large carts are split
+ * into ranges of lines priced on a dedicated fork/join pool; the work is CPU only, so the products
+ * are fetched beforehand. See docs/PRICING.md.
+ */
+@Component
+public class PricingEngine {
+    
+    @Autowired
+    private PricingProperties properties;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Rule[] rules;
+    private int taxBasisPoints;
+    private ForkJoinPool pool;
+    
+    private record Rule(String name, String category, int minQuantity, int basisPoints) {
+    }
+    
+    private record Totals(long subtotal, long discount, long tax, long total) {
+        
+        Totals plus(Totals other) {
+            return new Totals(subtotal + other.subtotal, discount + other.discount, tax + other.tax,
+                    total + other.total);
+        }
+    }
+    
+    @PostConstruct
+    public void init() {
+        rules = properties.getPromotions().stream().map(PricingEngine::compile).toArray(Rule[]::new);
+        taxBasisPoints = basisPoints("pricing.tax-rate", properties.getTaxRate());
+        int parallelism = properties.getParallelism() > 0
+                ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, false);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+    
+    /**
+     * @param products the cart's products by id; a missing one makes its line invalid
+     * @throws IllegalArgumentException when the cart is empty or has more than {@code max-lines} lines
+     */
+    public PriceQuote price(List<CartLine> lines, Map<Long, ProductDTO> products) {
+        checkLineCount(lines.size());
+        PricedLine[] priced = new PricedLine[lines.size()];
+        // With a single pool thread, splitting only adds hand-offs
+        boolean parallel = lines.size() >= properties.getParallelThreshold() && pool.getParallelism() > 1;
+        Totals totals = meterRegistry.timer("orders.pricing", "mode", parallel ? "parallel" : "sequential")
+                .record(() -> parallel
+                        ? pool.invoke(new PriceRange(lines, products, priced, 0, lines.size()))
+                        : priceRange(lines, products, priced, 0, lines.size()));
+        String problem = totals.total() > Money.MAX_CENTS
+                ? "Order total exceeds " + Money.toDecimal(Money.MAX_CENTS)
+                : null;
+        return new PriceQuote(Arrays.asList(priced), totals.subtotal(), totals.discount(), totals.tax(),
+                totals.total(), problem);
+    }
+    
+    /**
+     * @throws IllegalArgumentException when {@code lines} is 0 or more than {@code max-lines}
+     */
+    public void checkLineCount(int lines) {
+        checkLineCount(lines, properties.getMaxLines());
+    }
+    
+    /**
+     * @param authenticated whether the caller sent a token; {@code max-anonymous-lines} applies if not
+     * @throws IllegalArgumentException when {@code lines} is 0 or more than the caller's limit
+     */
+    public void checkLineCount(int lines, boolean authenticated) {
+        checkLineCount(lines, authenticated ? properties.getMaxLines() : properties.getMaxAnonymousLines());
+    }
+    
+    private static void checkLineCount(int lines, int maxLines) {
+        if (lines < 1 || lines > maxLines) {
+            throw new IllegalArgumentException("A cart has between 1 and " + maxLines + " lines");
+        }
+    }
+    
+    private Totals priceRange(List<CartLine> lines, Map<Long, ProductDTO> products, PricedLine[] priced,
+                              int from, int to) {
+        long subtotal = 0;
+        long discount = 0;
+        long tax = 0;
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            PricedLine line = priceLine(lines.get(i), products.get(lines.get(i).productId()));
+            priced[i] = line;
+            // At most max-lines lines of at most MAX_CENTS each, so the sums cannot overflow
+            subtotal += line.subtotal();
+            discount += line.discount();
+            tax += line.tax();
+            total += line.total();
+        }
+        return new Totals(subtotal, discount, tax, total);
+    }
+    
+    private PricedLine priceLine(CartLine line, ProductDTO product) {
+        if (line.productId() == null || product == null) {
+            return PricedLine.invalid(line, "Product not found with id: " + line.productId());
+        }
+        if (line.quantity() == null || line.quantity() < 1 || line.quantity() > properties.getMaxQuantity()) {
+            return PricedLine.invalid(line, "Quantity must be between 1 and " + properties.getMaxQuantity());
+        }
+        if (product.getPrice() == null || product.getPrice().signum() < 0) {
+            return PricedLine.invalid(line, "Product " + line.productId() + " has no valid price");
+        }
+        try {
+            long unitPrice = Money.toCents(product.getPrice());
+            long subtotal = Math.multiplyExact(unitPrice, line.quantity());
+            Rule rule = bestRule(product.getCategory(), line.quantity());
+            long discount = rule != null ? Money.fraction(subtotal, rule.basisPoints()) : 0;
+            long tax = Money.fraction(subtotal - discount, taxBasisPoints);
+            long total = subtotal - discount + tax;
+            if (subtotal > Money.MAX_CENTS || total > Money.MAX_CENTS) {
+                return PricedLine.invalid(line, "Line total exceeds " + Money.toDecimal(Money.MAX_CENTS));
+            }
+            return new PricedLine(line.productId(), line.quantity(), unitPrice, subtotal, discount, tax, total,
+                    rule != null ? rule.name() : null, null);
+        } catch (ArithmeticException e) {
+            return PricedLine.invalid(line, "Line total exceeds " + Money.toDecimal(Money.MAX_CENTS));
+        }
+    }
+    
+    // Largest discount wins; the first configured among equals
+    private Rule bestRule(String category, int quantity) {
+        Rule best = null;
+        for (Rule rule : rules) {
+            if (quantity >= rule.minQuantity()
+                    && (rule.category() == null || rule.category().equalsIgnoreCase(category))
+                    && (best == null || rule.basisPoints() > best.basisPoints())) {
+                best = rule;
+            }
+        }
+        return best;
+    }
+    
+    private static Rule compile(PricingProperties.Promotion promotion) {
+        String name = promotion.getName() != null ? promotion.getName() : "promotion";
+        int basisPoints = basisPoints("pricing.promotions " + name, promotion.getPercentOff());
+        if (basisPoints == 0) {
+            throw new IllegalStateException("pricing.promotions " + name + ": percent-off is required");
+        }
+        return new Rule(name, promotion.getCategory(), Math.max(1, promotion.getMinQuantity()), basisPoints);
+    }
+    
+    private static int basisPoints(String property, BigDecimal percent) {
+        if (percent == null) {
+            return 0;
+        }
+        try {
+            int basisPoints = Money.toBasisPoints(percent);
+            if (basisPoints >= 0 && basisPoints <= 10_000) {
+                return basisPoints;
+            }
+        } catch (ArithmeticException e) {
+            // Reported below
+        }
+        throw new IllegalStateException(property + ": " + percent + " is not a percentage with at most two decimals");
+    }
+    
+    private final class PriceRange extends RecursiveTask<Totals> {
+        
+        private final List<CartLine> lines;
+        private final Map<Long, ProductDTO> products;
+        private final PricedLine[] priced;
+        private final int from;
+        private final int to;
+        
+        PriceRange(List<CartLine> lines, Map<Long, ProductDTO> products, PricedLine[] priced, int from, int to) {
+            this.lines = lines;
+            this.products = products;
+            this.priced = priced;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected Totals compute() {
+            if (to - from <= properties.getLeafSize()) {
+                return priceRange(lines, products, priced, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            PriceRange left = new PriceRange(lines, products, priced, from, middle);
+            left.fork();
+            Totals right = new PriceRange(lines, products, priced, middle, to).compute();
+            return left.join().plus(right);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.orderservice.pricing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties("pricing")
+public class PricingProperties {
+    
+    /**
+     * Carts with at least this many lines are priced in parallel; smaller ones on the calling
+     * thread, where splitting would cost more than it saves.
+     */
+    private int parallelThreshold = 256;
+    
+    /**
+     * Lines one task prices before it stops splitting.
+     */
+    private int leafSize = 64;
+    
+    /**
+     * Threads of the pricing pool; 0 for one per available processor.
+     */
+    private int parallelism;
+    
+    private int maxLines = 1000;
+    
+    /**
+     * Line limit for callers without a token. The quote is public, and every distinct product in
+     * a cart may cost a call to product-service.
+     */
+    private int maxAnonymousLines = 50;
+    
+    private int maxQuantity = 10000;
+    
+    /**
+     * Percent added to every line after its discount, e.g. {@code 8.25}. At most two decimals.
+     */
+    private BigDecimal taxRate = BigDecimal.ZERO;
+    
+    /**
+     * A line gets the largest discount among the promotions it qualifies for.
+     */
+    private List<Promotion> promotions = new ArrayList<>();
+    
+    @Data
+    public static class Promotion {
+        
+        private String name;
+        
+        /**
+         * Product category the promotion applies to; unset for every product.
+         */
+        private String category;
+        
+        /**
+         * Smallest line quantity that qualifies.
+         */
+        private int minQuantity = 1;
+        
+        /**
+         * Percent off the line, e.g. {@code 10}. At most two decimals.
+         */
+        private BigDecimal percentOff;
+    }
+}
@@ -3,8 +3,13 @@ package com.ecommerce.orderservice.repository;
 import com.ecommerce.orderservice.entity.Order;
 import com.ecommerce.orderservice.entity.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,5 +17,45 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUserId(Long userId);
     List<Order> findByStatus(OrderStatus status);
     List<Order> findByUserIdAndStatus(Long userId, OrderStatus status);
+    
+    // Bounded on created_at, the partitioning column, so MySQL only reads the matching months
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId AND o.createdAt >= :from AND o.createdAt < :to")
+    List<Order> findByUserIdCreatedBetween(@Param("userId") Long userId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+    
+    @Query("SELECT o FROM Order o WHERE o.status = :status AND o.createdAt >= :from AND o.createdAt < :to")
+    List<Order> findByStatusCreatedBetween(@Param("status") OrderStatus status,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+    
+    /**
+     * Moves every order in {@code ids} whose current status is in {@code from} to {@code status},
+     * in one statement. Orders in any other status are left alone.
+     *
+     * @return the number of orders changed
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = :now WHERE o.id IN :ids AND o.status IN :from")
+    int transitionStatus(@Param("ids") Collection<Long> ids,
+                         @Param("from") Collection<OrderStatus> from,
+                         @Param("status") OrderStatus status,
+                         @Param("now") LocalDateTime now);
+    
+    /**
+     * Moves order {@code id} to {@code status} if it is still in {@code expected}. Clears the
+     * persistence context, so the order is read again afterwards.
+     *
+     * @return 1 if the order was changed, 0 if its status had moved on
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = :now WHERE o.id = :id AND o.status = :expected")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("expected") OrderStatus expected,
+                         @Param("status") OrderStatus status,
+                         @Param("now") LocalDateTime now);
+    
+    List<OrderStatusView> findStatusByIdIn(Collection<Long> ids);
+    
+    long countByIdInAndUserId(Collection<Long> ids, Long userId);
 }
-
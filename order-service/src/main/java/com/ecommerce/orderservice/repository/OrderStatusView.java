@@ -0,0 +1,12 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.entity.OrderStatus;
+
+/**
+ * Id and status only, for checking the outcome of a bulk status update without loading orders.
+ */
+public interface OrderStatusView {
+    Long getId();
+    
+    OrderStatus getStatus();
+}
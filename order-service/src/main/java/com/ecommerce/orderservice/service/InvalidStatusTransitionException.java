@@ -0,0 +1,13 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.entity.OrderStatus;
+
+/**
+ * The order exists but its current status cannot move to the requested one.
+ */
+public class InvalidStatusTransitionException extends RuntimeException {
+    
+    public InvalidStatusTransitionException(Long orderId, OrderStatus current, OrderStatus requested) {
+        super("Order " + orderId + " cannot move from " + current + " to " + requested);
+    }
+}
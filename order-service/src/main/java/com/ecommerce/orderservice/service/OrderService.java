@@ -2,16 +2,31 @@ package com.ecommerce.orderservice.service;
 
 import com.ecommerce.orderservice.dto.OrderRequest;
 import com.ecommerce.orderservice.dto.ProductDTO;
+import com.ecommerce.orderservice.dto.QuoteRequest;
 import com.ecommerce.orderservice.entity.Order;
 import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.events.OrderStatusStream;
+import com.ecommerce.orderservice.pricing.CartLine;
+import com.ecommerce.orderservice.pricing.Money;
+import com.ecommerce.orderservice.pricing.PriceQuote;
+import com.ecommerce.orderservice.pricing.PricingEngine;
 import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.orderservice.repository.OrderStatusView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 @Service
 public class OrderService {
@@ -22,84 +37,243 @@ public class OrderService {
     @Autowired
     private ProductServiceClient productServiceClient;
     
+    @Autowired
+    private ProductSnapshotCache productSnapshotCache;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ObservationRegistry observationRegistry;
+    
+    @Autowired
+    private OrderStatusStream orderStatusStream;
+    
+    @Autowired
+    private PricingEngine pricingEngine;
+    
+    // Observed rather than just timed so the phases' client and JDBC spans nest under one parent span
     @Transactional
     public Order createOrder(OrderRequest request) {
+        Observation observation = Observation.start("orders.create", observationRegistry);
+        String outcome = "error";
+        try (Observation.Scope scope = observation.openScope()) {
+            Order order = placeOrder(request);
+            outcome = "success";
+            return order;
+        } catch (RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.lowCardinalityKeyValue("outcome", outcome).stop();
+        }
+    }
+    
+    private Order placeOrder(OrderRequest request) {
         // Check if product exists and get details
-        ProductDTO product = productServiceClient.getProduct(request.getProductId());
+        ProductDTO product = timePhase("product_fetch", () -> productSnapshotCache.get(request.getProductId()));
         if (product == null) {
             throw new RuntimeException("Product not found with id: " + request.getProductId());
         }
         
         // Check stock availability
-        boolean stockAvailable = productServiceClient.checkStock(request.getProductId(), request.getQuantity());
+        boolean stockAvailable = timePhase("stock_check",
+                () -> productServiceClient.checkStock(request.getProductId(), request.getQuantity()));
         if (!stockAvailable) {
             throw new RuntimeException("Insufficient stock for product: " + product.getName());
         }
         
-        // Calculate total price
-        BigDecimal totalPrice = product.getPrice().multiply(BigDecimal.valueOf(request.getQuantity()));
-        
         // Create order
         Order order = new Order();
         order.setUserId(request.getUserId());
         order.setProductId(request.getProductId());
         order.setQuantity(request.getQuantity());
-        order.setTotalPrice(totalPrice);
+        order.setTotalPrice(priceOrder(request, product));
         order.setStatus(OrderStatus.PENDING);
         order.setPaymentMethod(request.getPaymentMethod());
         order.setShippingAddress(request.getShippingAddress());
         order.setCreatedAt(LocalDateTime.now());
         order.setUpdatedAt(LocalDateTime.now());
         
-        Order savedOrder = orderRepository.save(order);
-        
-        // Update product stock
+        // Update product stock; product-service refuses it if the price we charged is stale
         try {
-            productServiceClient.updateStock(request.getProductId(), -request.getQuantity());
-            savedOrder.setStatus(OrderStatus.CONFIRMED);
-            savedOrder.setUpdatedAt(LocalDateTime.now());
-            orderRepository.save(savedOrder);
+            timePhase("stock_update", () -> {
+                reserveStock(request, order, product);
+                return null;
+            });
         } catch (Exception e) {
             throw new RuntimeException("Failed to update stock: " + e.getMessage());
         }
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setUpdatedAt(LocalDateTime.now());
         
-        return savedOrder;
+        // The id comes from the application, so the row is written once, already confirmed
+        return timePhase("insert", () -> orderRepository.saveAndFlush(order));
+    }
+    
+    private void reserveStock(OrderRequest request, Order order, ProductDTO product) {
+        try {
+            productServiceClient.updateStock(request.getProductId(), -request.getQuantity(), product.getPrice());
+        } catch (PriceChangedException e) {
+            // The cached snapshot missed a price change: reprice from a fresh copy and try once more
+            productSnapshotCache.invalidate(request.getProductId());
+            ProductDTO current = productSnapshotCache.get(request.getProductId());
+            order.setTotalPrice(priceOrder(request, current));
+            productServiceClient.updateStock(request.getProductId(), -request.getQuantity(), current.getPrice());
+        }
+    }
+    
+    // Same pricing as a one-line quote, so promotions and tax apply to orders too
+    private BigDecimal priceOrder(OrderRequest request, ProductDTO product) {
+        PriceQuote quote = pricingEngine.price(List.of(new CartLine(request.getProductId(), request.getQuantity())),
+                Map.of(request.getProductId(), product));
+        if (!quote.isValid()) {
+            throw new RuntimeException(quote.firstProblem());
+        }
+        return Money.toDecimal(quote.total());
+    }
+    
+    /**
+     * Prices a cart without placing anything. Products come from the snapshot cache, the missing
+     * ones fetched in parallel; the lines are then priced in parallel when the cart is large (see
+     * docs/PRICING.md).
+     *
+     * @param authenticated whether the caller sent a token; carts without one are kept smaller
+     * @throws IllegalArgumentException when the cart has no lines or too many
+     */
+    public PriceQuote quote(QuoteRequest request, boolean authenticated) {
+        pricingEngine.checkLineCount(request.getLines().size(), authenticated);
+        List<CartLine> lines = request.getLines().stream()
+                .map(line -> new CartLine(line.getProductId(), line.getQuantity()))
+                .toList();
+        Map<Long, ProductDTO> products = productSnapshotCache.findAll(lines.stream().map(CartLine::productId).toList());
+        return pricingEngine.price(lines, products);
+    }
+    
+    private <T> T timePhase(String phase, Supplier<T> step) {
+        return meterRegistry.timer("orders.create.phase", "phase", phase).record(step);
     }
     
+    @Transactional(readOnly = true)
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
     public Order getOrderById(Long id) {
         return orderRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
     }
     
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByUserId(Long userId) {
         return orderRepository.findByUserId(userId);
     }
     
+    /**
+     * Orders created on or after {@code from} and before {@code to}; either bound may be null.
+     */
+    @Transactional(readOnly = true)
+    public List<Order> getOrdersByUserId(Long userId, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return getOrdersByUserId(userId);
+        }
+        return orderRepository.findByUserIdCreatedBetween(userId, lowerBound(from), upperBound(to));
+    }
+    
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByStatus(OrderStatus status) {
         return orderRepository.findByStatus(status);
     }
     
-    public Order updateOrderStatus(Long id, OrderStatus status) {
-        Order order = getOrderById(id);
-        order.setStatus(status);
-        order.setUpdatedAt(LocalDateTime.now());
-        return orderRepository.save(order);
+    @Transactional(readOnly = true)
+    public List<Order> getOrdersByStatus(OrderStatus status, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return getOrdersByStatus(status);
+        }
+        return orderRepository.findByStatusCreatedBetween(status, lowerBound(from), upperBound(to));
+    }
+    
+    private static LocalDateTime lowerBound(LocalDate from) {
+        return from != null ? from.atStartOfDay() : LocalDate.of(1970, 1, 1).atStartOfDay();
+    }
+    
+    // Exclusive, so "to" is the first day not included
+    private static LocalDateTime upperBound(LocalDate to) {
+        return to != null ? to.atStartOfDay() : LocalDate.of(9999, 12, 31).atStartOfDay();
     }
     
+    /**
+     * Moves the given orders to {@code status} in one UPDATE, for those whose current status is
+     * one of {@link OrderStatus#predecessors()}. Cancelling restores stock order by order and
+     * goes through {@link #cancelOrder} instead.
+     *
+     * @return the number of orders changed; ids that were missing, already in {@code status}, or
+     *         in a status that cannot move there are not counted
+     */
     @Transactional
-    public void cancelOrder(Long id) {
+    public int transitionStatus(Collection<Long> ids, OrderStatus status) {
+        if (status == OrderStatus.CANCELLED) {
+            throw new IllegalArgumentException("Orders are cancelled one at a time, with DELETE /api/orders/{id}");
+        }
+        return orderRepository.transitionStatus(ids, status.predecessors(), status, LocalDateTime.now());
+    }
+    
+    /**
+     * @param updated  orders changed by the UPDATE
+     * @param statuses the statuses of all the given orders that exist, after the UPDATE
+     */
+    public record StatusTransition(int updated, List<OrderStatusView> statuses) {
+    }
+    
+    // Same transaction as the update, so on the primary rather than a lagging replica
+    @Transactional
+    public StatusTransition transitionStatusAndGetStatuses(Collection<Long> ids, OrderStatus status) {
+        int updated = transitionStatus(ids, status);
+        return new StatusTransition(updated, orderRepository.findStatusByIdIn(ids));
+    }
+    
+    // Same transaction as the update, so on the primary rather than a lagging replica
+    @Transactional
+    public List<Order> transitionStatusAndGet(Collection<Long> ids, OrderStatus status) {
+        transitionStatus(ids, status);
+        return orderRepository.findAllById(ids);
+    }
+    
+    /**
+     * Whether every one of {@code ids} is an existing order of {@code userId}.
+     */
+    // On the primary: clients open a status stream right after placing the order
+    @Transactional
+    public boolean allOwnedBy(Collection<Long> ids, Long userId) {
+        long distinct = ids.stream().filter(Objects::nonNull).distinct().count();
+        return orderRepository.countByIdInAndUserId(ids, userId) == distinct;
+    }
+    
+    /**
+     * Cancels the order with an UPDATE conditional on the status it was read in, like the other
+     * transitions, and gives its stock back only when that UPDATE changed it. A shipment that
+     * commits in between makes the UPDATE change nothing, and the cancel fails. Cancelling a
+     * cancelled order changes nothing.
+     *
+     * @return the cancelled order as written, for callers that answer with it
+     */
+    @Transactional
+    public Order cancelOrder(Long id) {
         Order order = getOrderById(id);
+        OrderStatus from = order.getStatus();
+        if (from == OrderStatus.CANCELLED) {
+            return order;
+        }
         
-        if (order.getStatus() == OrderStatus.SHIPPED || order.getStatus() == OrderStatus.DELIVERED) {
+        boolean cancelled = OrderStatus.CANCELLED.predecessors().contains(from)
+                && orderRepository.transitionStatus(id, from, OrderStatus.CANCELLED, LocalDateTime.now()) == 1;
+        if (!cancelled) {
             throw new RuntimeException("Cannot cancel order that is already shipped or delivered");
         }
         
         // Restore stock
-        if (order.getStatus() == OrderStatus.CONFIRMED || order.getStatus() == OrderStatus.PROCESSING) {
+        if (from == OrderStatus.CONFIRMED || from == OrderStatus.PROCESSING) {
             try {
                 productServiceClient.updateStock(order.getProductId(), order.getQuantity());
             } catch (Exception e) {
@@ -107,9 +281,8 @@ public class OrderService {
             }
         }
         
-        order.setStatus(OrderStatus.CANCELLED);
-        order.setUpdatedAt(LocalDateTime.now());
-        orderRepository.save(order);
+        orderStatusStream.statusChanged(id, OrderStatus.CANCELLED);
+        return getOrderById(id);
     }
 }
 
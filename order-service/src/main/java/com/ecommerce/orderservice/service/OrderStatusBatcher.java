@@ -0,0 +1,222 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.BulkStatusUpdateResult;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.events.OrderStatusStream;
+import com.ecommerce.orderservice.repository.OrderStatusView;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Writes order status changes as set-based UPDATEs (see docs/ORDER-STATUS.md).
+ *
+ * Single changes from {@code PATCH /api/orders/{id}/status} are queued. One writer thread takes
+ * everything that arrived while the previous batch was being written, up to {@code max-batch}.
+ * It waits at most {@code linger} for more, then issues one UPDATE per target status and
+ * completes each caller's future from a single re-read of the batch.
+ *
+ * Bulk changes are split into statements of {@code max-batch} ids and written by the calling
+ * thread, since they are already grouped.
+ */
+@Service
+public class OrderStatusBatcher {
+    
+    private static final Logger logger = Logger.getLogger(OrderStatusBatcher.class.getName());
+    
+    private static final int MAX_REPORTED_IDS = 100;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private OrderStatusStream orderStatusStream;
+    
+    @Value("${orders.status-batch.max-batch:1000}")
+    private int maxBatch;
+    
+    @Value("${orders.status-batch.linger:5ms}")
+    private Duration linger;
+    
+    private final BlockingQueue<Change> queue = new LinkedBlockingQueue<>();
+    
+    private Thread writer;
+    private DistributionSummary statementSize;
+    private volatile boolean running = true;
+    
+    private record Change(Long orderId, OrderStatus status, CompletableFuture<Order> result) {
+    }
+    
+    @PostConstruct
+    public void start() {
+        statementSize = DistributionSummary.builder("orders.status.batch")
+                .description("Orders per status UPDATE statement")
+                .register(meterRegistry);
+        writer = new Thread(this::run, "order-status-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+    
+    /**
+     * Completes with the updated order, or exceptionally with a RuntimeException when the order
+     * does not exist or {@link InvalidStatusTransitionException} when its status cannot move to
+     * {@code status}. An order already in {@code status} completes normally.
+     */
+    public CompletableFuture<Order> submit(Long orderId, OrderStatus status) {
+        CompletableFuture<Order> result = new CompletableFuture<>();
+        if (status == OrderStatus.CANCELLED) {
+            result.completeExceptionally(new IllegalArgumentException("Use DELETE /api/orders/{id} to cancel an order"));
+            return result;
+        }
+        if (!running) {
+            result.completeExceptionally(new IllegalStateException("Order status writer is stopped"));
+            return result;
+        }
+        queue.add(new Change(orderId, status, result));
+        return result;
+    }
+    
+    public BulkStatusUpdateResult transitionAll(List<Long> orderIds, OrderStatus status) {
+        List<Long> ids = orderIds.stream().distinct().toList();
+        BulkStatusUpdateResult result = new BulkStatusUpdateResult();
+        result.setRequested(ids.size());
+        result.setRejected(new LinkedHashMap<>());
+        result.setNotFound(new ArrayList<>());
+        long start = System.nanoTime();
+        
+        for (int from = 0; from < ids.size(); from += maxBatch) {
+            List<Long> chunk = ids.subList(from, Math.min(from + maxBatch, ids.size()));
+            OrderService.StatusTransition transition = orderService.transitionStatusAndGetStatuses(chunk, status);
+            statementSize.record(chunk.size());
+            result.setUpdated(result.getUpdated() + transition.updated());
+            
+            Map<Long, OrderStatus> current = transition.statuses().stream()
+                    .collect(Collectors.toMap(OrderStatusView::getId, OrderStatusView::getStatus));
+            current.forEach(orderStatusStream::statusChanged);
+            for (Long id : chunk) {
+                OrderStatus now = current.get(id);
+                if (now == null) {
+                    result.setNotFoundCount(result.getNotFoundCount() + 1);
+                    if (result.getNotFound().size() < MAX_REPORTED_IDS) {
+                        result.getNotFound().add(id);
+                    }
+                } else if (now != status) {
+                    result.setRejectedCount(result.getRejectedCount() + 1);
+                    if (result.getRejected().size() < MAX_REPORTED_IDS) {
+                        result.getRejected().put(id, now);
+                    }
+                }
+            }
+        }
+        result.setUnchanged(result.getRequested() - result.getUpdated()
+                - result.getRejectedCount() - result.getNotFoundCount());
+        result.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+    
+    private void run() {
+        Change carried = null;
+        while (running || carried != null || !queue.isEmpty()) {
+            Change first = carried != null ? carried : take();
+            carried = null;
+            if (first == null) {
+                continue;
+            }
+            List<Change> batch = new ArrayList<>();
+            Set<Long> ids = new HashSet<>();
+            batch.add(first);
+            ids.add(first.orderId());
+            long deadline = System.nanoTime() + linger.toNanos();
+            while (batch.size() < maxBatch) {
+                Change next = poll(deadline - System.nanoTime());
+                if (next == null) {
+                    break;
+                }
+                // A second change to the same order waits for the next batch, keeping them in order
+                if (!ids.add(next.orderId())) {
+                    carried = next;
+                    break;
+                }
+                batch.add(next);
+            }
+            write(batch);
+        }
+    }
+    
+    private Change take() {
+        try {
+            return queue.poll(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            // stop(): the loop drains what is queued, then exits
+            return null;
+        }
+    }
+    
+    private Change poll(long timeoutNanos) {
+        try {
+            return timeoutNanos > 0 ? queue.poll(timeoutNanos, TimeUnit.NANOSECONDS) : queue.poll();
+        } catch (InterruptedException e) {
+            return queue.poll();
+        }
+    }
+    
+    private void write(List<Change> batch) {
+        Map<OrderStatus, List<Change>> byStatus = batch.stream()
+                .collect(Collectors.groupingBy(Change::status, LinkedHashMap::new, Collectors.toList()));
+        byStatus.forEach((status, changes) -> {
+            try {
+                List<Long> ids = changes.stream().map(Change::orderId).toList();
+                Map<Long, Order> orders = orderService.transitionStatusAndGet(ids, status).stream()
+                        .collect(Collectors.toMap(Order::getId, Function.identity()));
+                statementSize.record(ids.size());
+                orders.values().forEach(order -> orderStatusStream.statusChanged(order.getId(), order.getStatus()));
+                for (Change change : changes) {
+                    Order order = orders.get(change.orderId());
+                    if (order == null) {
+                        change.result().completeExceptionally(
+                                new RuntimeException("Order not found with id: " + change.orderId()));
+                    } else if (order.getStatus() != status) {
+                        change.result().completeExceptionally(
+                                new InvalidStatusTransitionException(order.getId(), order.getStatus(), status));
+                    } else {
+                        change.result().complete(order);
+                    }
+                }
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Order status batch of " + changes.size() + " failed", e);
+                changes.forEach(change -> change.result().completeExceptionally(e));
+            }
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.orderservice.service;
+
+/**
+ * product-service refused a stock update because the product's price is no longer the one the
+ * order was priced at.
+ */
+public class PriceChangedException extends RuntimeException {
+    
+    public PriceChangedException(Long productId) {
+        super("Price of product " + productId + " changed");
+    }
+}
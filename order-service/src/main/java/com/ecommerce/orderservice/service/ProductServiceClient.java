@@ -1,39 +1,59 @@
 package com.ecommerce.orderservice.service;
 
+import com.ecommerce.auth.JwtTokenService;
+import com.ecommerce.auth.ServiceToken;
 import com.ecommerce.orderservice.dto.ProductDTO;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.math.BigDecimal;
+import java.util.function.Supplier;
 
 @Service
 public class ProductServiceClient {
     
     private final WebClient webClient;
     
+    // Stock changes are a service path in product-service, so they carry order-service's own token
+    // rather than the customer's
+    private final ServiceToken serviceToken;
+    
     @Value("${services.product-service.url}")
     private String productServiceUrl;
     
     @Autowired
-    public ProductServiceClient(WebClient.Builder webClientBuilder) {
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    public ProductServiceClient(WebClient.Builder webClientBuilder, JwtTokenService jwtTokenService,
+                                @Value("${spring.application.name}") String applicationName) {
         this.webClient = webClientBuilder.build();
+        this.serviceToken = new ServiceToken(jwtTokenService, applicationName);
     }
     
     public ProductDTO getProduct(Long productId) {
-        return webClient.get()
-                .uri(productServiceUrl + "/api/products/" + productId)
+        return timed("get_product", () -> webClient.get()
+                // Only what pricing an order reads; updatedAt versions the cached snapshot
+                .uri(productServiceUrl + "/api/products/{id}?fields=id,name,price,category,updatedAt", productId)
                 .retrieve()
                 .bodyToMono(ProductDTO.class)
-                .block();
+                .block());
     }
     
     public boolean checkStock(Long productId, Integer quantity) {
         try {
-            String response = webClient.get()
-                    .uri(productServiceUrl + "/api/products/" + productId + "/check-stock?quantity=" + quantity)
+            String response = timed("check_stock", () -> webClient.get()
+                    .uri(productServiceUrl + "/api/products/{id}/check-stock?quantity={quantity}", productId, quantity)
                     .retrieve()
                     .bodyToMono(String.class)
-                    .block();
+                    .block());
             return response != null && response.contains("\"available\":true");
         } catch (Exception e) {
             return false;
@@ -41,20 +61,51 @@ public class ProductServiceClient {
     }
     
     public void updateStock(Long productId, Integer quantity) {
-        webClient.patch()
-                .uri(productServiceUrl + "/api/products/" + productId + "/stock")
-                .bodyValue(new StockUpdate(quantity))
-                .retrieve()
-                .bodyToMono(Void.class)
-                .block();
+        updateStock(productId, quantity, null);
+    }
+    
+    /**
+     * @param expectedPrice price the order was priced at; product-service refuses the update if it changed
+     * @throws PriceChangedException when product-service answers 409 Conflict
+     */
+    public void updateStock(Long productId, Integer quantity, BigDecimal expectedPrice) {
+        try {
+            timed("update_stock", () -> webClient.patch()
+                    .uri(productServiceUrl + "/api/products/{id}/stock", productId)
+                    .header(HttpHeaders.AUTHORIZATION, serviceToken.authorization())
+                    .bodyValue(new StockUpdate(quantity, expectedPrice))
+                    .retrieve()
+                    .bodyToMono(Void.class)
+                    .block());
+        } catch (WebClientResponseException.Conflict e) {
+            throw new PriceChangedException(productId);
+        }
+    }
+    
+    private <T> T timed(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "ERROR";
+        try {
+            T result = call.get();
+            outcome = "SUCCESS";
+            return result;
+        } catch (WebClientResponseException e) {
+            outcome = e.getStatusCode().is4xxClientError() ? "CLIENT_ERROR" : "SERVER_ERROR";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("product.client.requests", "operation", operation, "outcome", outcome));
+        }
     }
     
     // Inner class for stock update request
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private static class StockUpdate {
         private Integer quantity;
+        private BigDecimal expectedPrice;
         
-        public StockUpdate(Integer quantity) {
+        public StockUpdate(Integer quantity, BigDecimal expectedPrice) {
             this.quantity = quantity;
+            this.expectedPrice = expectedPrice;
         }
         
         public Integer getQuantity() {
@@ -64,6 +115,14 @@ public class ProductServiceClient {
         public void setQuantity(Integer quantity) {
             this.quantity = quantity;
         }
+        
+        public BigDecimal getExpectedPrice() {
+            return expectedPrice;
+        }
+        
+        public void setExpectedPrice(BigDecimal expectedPrice) {
+            this.expectedPrice = expectedPrice;
+        }
     }
 }
 
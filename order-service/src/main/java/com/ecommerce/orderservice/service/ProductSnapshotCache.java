@@ -0,0 +1,241 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.ProductDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache-aside copy of the product fields an order is priced from (id, name, price).
+ *
+ * Entries live for a short TTL and are dropped early when product-service reports a change
+ * ({@link #invalidate}). The cache only saves the product fetch: the price is checked again
+ * when the stock is reserved, so a stale entry makes an order retry, never charge the wrong
+ * price. Products product-service does not know are remembered too, for {@code negative-ttl}, so
+ * quotes naming made-up ids do not reach it every time. See docs/PRODUCT-CACHE.md.
+ */
+@Component
+public class ProductSnapshotCache {
+    
+    @Autowired
+    private ProductServiceClient productServiceClient;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${product-cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${product-cache.ttl:30s}")
+    private Duration ttl;
+    
+    @Value("${product-cache.max-entries:10000}")
+    private int maxEntries;
+    
+    @Value("${product-cache.negative-ttl:5s}")
+    private Duration negativeTtl;
+    
+    @Value("${product-cache.fetch-concurrency:8}")
+    private int fetchConcurrency;
+    
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    
+    // One fetch per product at a time: during a sale the first order after an invalidation
+    // fetches and the others wait for its result
+    private final Map<Long, CompletableFuture<ProductDTO>> loading = new ConcurrentHashMap<>();
+    
+    // Bumped by every invalidation; a fetch that overlapped one is returned but not cached,
+    // since it may have read the product before the change
+    private final AtomicLong generation = new AtomicLong();
+    
+    private Counter hits;
+    private Counter misses;
+    private Counter invalidations;
+    
+    // Fetches for findAll, shared by all callers so a large cart cannot flood product-service
+    private ExecutorService fetchPool;
+    
+    // product is null when product-service answered 404
+    private record Entry(ProductDTO product, long expiresAtNanos) {
+    }
+    
+    @PostConstruct
+    public void init() {
+        hits = meterRegistry.counter("product.cache.requests", "result", "hit");
+        misses = meterRegistry.counter("product.cache.requests", "result", "miss");
+        invalidations = meterRegistry.counter("product.cache.invalidations");
+        meterRegistry.gaugeMapSize("product.cache.size", List.of(), entries);
+        AtomicInteger threads = new AtomicInteger();
+        fetchPool = Executors.newFixedThreadPool(fetchConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "product-fetch-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        fetchPool.shutdownNow();
+    }
+    
+    /**
+     * @return the product, from the cache when a live entry exists
+     * @throws WebClientResponseException.NotFound when product-service does not know the product
+     */
+    public ProductDTO get(Long productId) {
+        if (!enabled) {
+            return productServiceClient.getProduct(productId);
+        }
+        Entry entry = live(productId);
+        if (entry != null && entry.product() != null) {
+            hits.increment();
+            return entry.product();
+        }
+        misses.increment();
+        return load(productId);
+    }
+    
+    /**
+     * The products among {@code productIds} that exist, by id. Cached ones are taken at once; the
+     * others are fetched in parallel, at most {@code fetch-concurrency} at a time across all
+     * callers.
+     */
+    public Map<Long, ProductDTO> findAll(Collection<Long> productIds) {
+        Map<Long, ProductDTO> found = new HashMap<>();
+        Map<Long, CompletableFuture<ProductDTO>> fetches = new HashMap<>();
+        for (Long productId : productIds) {
+            if (productId == null || found.containsKey(productId) || fetches.containsKey(productId)) {
+                continue;
+            }
+            Entry entry = enabled ? live(productId) : null;
+            if (entry != null) {
+                hits.increment();
+                if (entry.product() != null) {
+                    found.put(productId, entry.product());
+                }
+            } else {
+                misses.increment();
+                fetches.put(productId, CompletableFuture.supplyAsync(() -> fetchOrNull(productId), fetchPool));
+            }
+        }
+        try {
+            fetches.forEach((productId, fetch) -> {
+                ProductDTO product = fetch.join();
+                if (product != null) {
+                    found.put(productId, product);
+                }
+            });
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return found;
+    }
+    
+    /**
+     * Drops the cached product unless the cached copy is already at least as new as the change,
+     * which happens when a notification arrives after the order-service fetched the new version.
+     */
+    public void invalidate(Long productId, LocalDateTime changedAt) {
+        generation.incrementAndGet();
+        Entry entry = entries.get(productId);
+        if (entry == null) {
+            return;
+        }
+        LocalDateTime cachedAt = entry.product() != null ? entry.product().getUpdatedAt() : null;
+        if (changedAt != null && cachedAt != null && !cachedAt.isBefore(changedAt)) {
+            return;
+        }
+        if (entries.remove(productId, entry)) {
+            invalidations.increment();
+        }
+    }
+    
+    public void invalidate(Long productId) {
+        invalidate(productId, null);
+    }
+    
+    private Entry live(Long productId) {
+        Entry entry = entries.get(productId);
+        return entry != null && entry.expiresAtNanos() - System.nanoTime() > 0 ? entry : null;
+    }
+    
+    private ProductDTO fetchOrNull(Long productId) {
+        try {
+            return enabled ? load(productId) : productServiceClient.getProduct(productId);
+        } catch (WebClientResponseException.NotFound e) {
+            return null;
+        }
+    }
+    
+    private ProductDTO load(Long productId) {
+        CompletableFuture<ProductDTO> pending = new CompletableFuture<>();
+        CompletableFuture<ProductDTO> existing = loading.putIfAbsent(productId, pending);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        long startGeneration = generation.get();
+        try {
+            ProductDTO product = productServiceClient.getProduct(productId);
+            if (product != null && generation.get() == startGeneration) {
+                put(productId, product);
+            }
+            pending.complete(product);
+            return product;
+        } catch (WebClientResponseException.NotFound e) {
+            if (generation.get() == startGeneration) {
+                put(productId, null);
+            }
+            pending.completeExceptionally(e);
+            throw e;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(productId, pending);
+        }
+    }
+    
+    private void put(Long productId, ProductDTO product) {
+        if (entries.size() >= maxEntries && !entries.containsKey(productId)) {
+            evict();
+        }
+        Duration entryTtl = product != null ? ttl : negativeTtl;
+        entries.put(productId, new Entry(product, System.nanoTime() + entryTtl.toNanos()));
+    }
+    
+    // Expired entries first; if none, an arbitrary one. The working set during a sale is a
+    // handful of products, so the bound is a safety net rather than a tuned eviction policy
+    private void evict() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.expiresAtNanos() - now <= 0);
+        Iterator<Long> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
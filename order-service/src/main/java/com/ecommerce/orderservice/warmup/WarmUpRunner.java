@@ -0,0 +1,182 @@
+package com.ecommerce.orderservice.warmup;
+
+import com.ecommerce.auth.JwtTokenService;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.support.jdbc.ConnectionPools;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Warms the service up before it reports ready (see docs/WARMUP.md). Spring Boot runs
+ * {@link ApplicationRunner}s before it marks the application ready, so until this returns,
+ * {@code /actuator/health/readiness} answers 503 and the instance is not registered.
+ *
+ * It opens the database pools' connections, then sends the main calls through the service's own
+ * HTTP stack with bearer tokens. Order creation is exercised without placing an order: a quote
+ * prices a cart of the most recently ordered products, which also loads them into the product
+ * snapshot cache, and an order with quantity 0 goes through deserialization and validation and is
+ * refused. The latest orders are read back by id and by user. Failures are logged and do not hold
+ * up readiness.
+ */
+@Component
+public class WarmUpRunner implements ApplicationRunner {
+    
+    private static final Logger logger = Logger.getLogger(WarmUpRunner.class.getName());
+    
+    private static final Long WARMUP_USER_ID = 0L;
+    
+    // Logs a WARN for every request that validation refuses
+    private static final String RESOLVER_LOGGER =
+            "org.springframework.web.servlet.mvc.support.DefaultHandlerExceptionResolver";
+    
+    @Autowired
+    private Environment environment;
+    
+    @Autowired
+    private ConnectionPools connectionPools;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private JwtTokenService jwtTokenService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private LoggingSystem loggingSystem;
+    
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${warmup.iterations:100}")
+    private int iterations;
+    
+    @Value("${warmup.max-duration:30s}")
+    private Duration maxDuration;
+    
+    // Quoted when there are no orders yet to take product ids from
+    @Value("${warmup.product-ids:}")
+    private List<Long> fallbackProductIds;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        int connections = connectionPools.openIdleConnections();
+        List<HttpRequest> requests = requests("http://localhost:" + environment.getProperty("local.server.port"));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        int sent = 0;
+        int failed = 0;
+        // The refused orders are expected, so they stay out of the log
+        LoggerConfiguration resolver = loggingSystem.getLoggerConfiguration(RESOLVER_LOGGER);
+        loggingSystem.setLogLevel(RESOLVER_LOGGER, LogLevel.ERROR);
+        try {
+            for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+                for (HttpRequest request : requests) {
+                    sent++;
+                    if (!send(client, request)) {
+                        failed++;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            loggingSystem.setLogLevel(RESOLVER_LOGGER, resolver == null ? null : resolver.getConfiguredLevel());
+        }
+        long elapsed = System.nanoTime() - start;
+        meterRegistry.timer("startup.warmup").record(elapsed, TimeUnit.NANOSECONDS);
+        logger.info(String.format("Warm-up took %d ms: %d connections opened, %d requests, %d failed",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), connections, sent, failed));
+    }
+    
+    private List<HttpRequest> requests(String baseUrl) {
+        List<Order> recent = orderRepository.findAll(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")))
+                .getContent();
+        Set<Long> productIds = recent.stream().map(Order::getProductId).collect(Collectors.toCollection(LinkedHashSet::new));
+        if (productIds.isEmpty()) {
+            productIds.addAll(fallbackProductIds);
+        }
+        Long userId = recent.isEmpty() ? WARMUP_USER_ID : recent.get(0).getUserId();
+        String token = jwtTokenService.issue(userId, "warmup", "USER");
+        
+        List<HttpRequest> requests = new ArrayList<>();
+        if (!productIds.isEmpty()) {
+            String lines = productIds.stream()
+                    .map(productId -> "{\"productId\":" + productId + ",\"quantity\":1}")
+                    .collect(Collectors.joining(","));
+            requests.add(post(baseUrl + "/api/orders/quote", token, "{\"lines\":[" + lines + "]}"));
+        }
+        requests.add(post(baseUrl + "/api/orders", token, "{\"userId\":" + userId + ",\"productId\":"
+                + productIds.stream().findFirst().orElse(1L) + ",\"quantity\":0,\"paymentMethod\":\"CREDIT_CARD\"}"));
+        for (Order order : recent) {
+            // Each order read as its owner, as a signed-in user would
+            requests.add(get(baseUrl + "/api/orders/" + order.getId(),
+                    order.getUserId().equals(userId) ? token : jwtTokenService.issue(order.getUserId(), "warmup", "USER")));
+        }
+        requests.add(get(baseUrl + "/api/orders/user/" + userId, token));
+        return requests;
+    }
+    
+    // Client errors are expected (the refused order, unknown products); only server errors and
+    // I/O failures count
+    private static boolean send(HttpClient client, HttpRequest request) throws InterruptedException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 500;
+        } catch (IOException e) {
+            logger.fine("Warm-up request " + request.uri() + " failed: " + e);
+            return false;
+        }
+    }
+    
+    private static HttpRequest get(String uri, String token) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .timeout(Duration.ofSeconds(5))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json")
+                .build();
+    }
+    
+    private static HttpRequest post(String uri, String token, String json) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .timeout(Duration.ofSeconds(5))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
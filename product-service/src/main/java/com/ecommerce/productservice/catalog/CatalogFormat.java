@@ -0,0 +1,43 @@
+package com.ecommerce.productservice.catalog;
+
+public enum CatalogFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+    
+    private final String contentType;
+    private final String extension;
+    
+    CatalogFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+    
+    public static CatalogFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            for (CatalogFormat format : values()) {
+                if (contentType.toLowerCase().startsWith(format.contentType)) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported content type: " + contentType
+                + ". Use text/csv or application/x-ndjson");
+    }
+    
+    public static CatalogFormat fromName(String name) {
+        for (CatalogFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format: " + name + ". Use csv or ndjson");
+    }
+}
@@ -0,0 +1,137 @@
+package com.ecommerce.productservice.catalog;
+
+import com.ecommerce.productservice.dto.ProductRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 style CSV with a header row. Columns are matched by name
+ * (name, description, price, stock, category, imageUrl) so their order does not matter.
+ */
+public class CsvProductRowReader implements ProductRowReader {
+    
+    private static final String[] COLUMNS = {"name", "description", "price", "stock", "category", "imageUrl"};
+    
+    private final BufferedReader reader;
+    private int[] columnIndex;
+    private long lineNumber;
+    
+    public CsvProductRowReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+    
+    @Override
+    public ProductRow next() throws IOException {
+        if (columnIndex == null) {
+            readHeader();
+        }
+        
+        List<String> fields;
+        do {
+            fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+        
+        long recordLine = lineNumber;
+        try {
+            ProductRequest request = new ProductRequest();
+            request.setName(field(fields, 0));
+            request.setDescription(field(fields, 1));
+            String price = field(fields, 2);
+            request.setPrice(price != null ? new BigDecimal(price.trim()) : null);
+            String stock = field(fields, 3);
+            request.setStock(stock != null ? Integer.valueOf(stock.trim()) : null);
+            request.setCategory(field(fields, 4));
+            request.setImageUrl(field(fields, 5));
+            return new ProductRow(recordLine, request);
+        } catch (NumberFormatException e) {
+            return ProductRow.rejected(recordLine, "Invalid number: " + e.getMessage());
+        }
+    }
+    
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IOException("CSV input is empty, expected a header row");
+        }
+        columnIndex = new int[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            columnIndex[i] = -1;
+            for (int j = 0; j < header.size(); j++) {
+                if (COLUMNS[i].equalsIgnoreCase(header.get(j).trim())) {
+                    columnIndex[i] = j;
+                }
+            }
+        }
+    }
+    
+    private String field(List<String> fields, int column) {
+        int index = columnIndex[column];
+        if (index < 0 || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+    
+    private List<String> readRecord() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber++;
+        
+        List<String> fields = new ArrayList<>(COLUMNS.length);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                // Quoted field spans multiple lines
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IOException("Unterminated quoted field at line " + lineNumber);
+                }
+                lineNumber++;
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"') {
+                    if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.productservice.catalog;
+
+import com.ecommerce.productservice.dto.ProductRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads newline-delimited JSON, one {@link ProductRequest} object per line.
+ */
+public class NdjsonProductRowReader implements ProductRowReader {
+    
+    private final BufferedReader reader;
+    private final ObjectReader objectReader;
+    private long lineNumber;
+    
+    public NdjsonProductRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectReader = objectMapper.readerFor(ProductRequest.class);
+    }
+    
+    @Override
+    public ProductRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+        
+        try {
+            return new ProductRow(lineNumber, objectReader.readValue(line));
+        } catch (JsonProcessingException e) {
+            return ProductRow.rejected(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.productservice.catalog;
+
+import com.ecommerce.productservice.dto.ProductRequest;
+import lombok.Data;
+
+@Data
+public class ProductRow {
+    private final long lineNumber;
+    private final ProductRequest request;
+    private String error;
+    
+    public static ProductRow rejected(long lineNumber, String error) {
+        ProductRow row = new ProductRow(lineNumber, null);
+        row.setError(error);
+        return row;
+    }
+    
+    public boolean isValid() {
+        return error == null;
+    }
+}
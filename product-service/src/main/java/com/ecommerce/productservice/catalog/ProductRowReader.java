@@ -0,0 +1,16 @@
+package com.ecommerce.productservice.catalog;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pull-based reader over an import stream. Rows are parsed one at a time so the
+ * importer never holds more than a single batch in memory.
+ */
+public interface ProductRowReader extends Closeable {
+    
+    /**
+     * @return the next parsed row, or {@code null} once the input is exhausted
+     */
+    ProductRow next() throws IOException;
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.productservice.config;
+
+import com.ecommerce.productservice.snapshot.CatalogSnapshotManager;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Refuses writes to the product API on an instance that serves the catalog snapshot. Its reads
+ * lag the database by up to a refresh interval, so a write through it would not show up in its
+ * own listings (see docs/CATALOG-SNAPSHOT.md).
+ *
+ * Always registered and checked per request, because AOT fixes the bean set at build time.
+ */
+@Component
+public class ReadOnlyReplicaFilter extends OncePerRequestFilter {
+    
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    
+    @Autowired
+    private CatalogSnapshotManager catalogSnapshots;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !catalogSnapshots.isEnabled() || READ_METHODS.contains(request.getMethod());
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!request.getRequestURI().startsWith("/api/")) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+        response.setHeader(HttpHeaders.ALLOW, "GET, HEAD, OPTIONS");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"This instance serves a read-only catalog snapshot\"}");
+    }
+}
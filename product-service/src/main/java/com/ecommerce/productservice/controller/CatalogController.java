@@ -0,0 +1,57 @@
+package com.ecommerce.productservice.controller;
+
+import com.ecommerce.productservice.catalog.CatalogFormat;
+import com.ecommerce.productservice.dto.ImportResult;
+import com.ecommerce.productservice.service.ProductExportService;
+import com.ecommerce.productservice.service.ProductImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/products")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class CatalogController {
+    
+    @Autowired
+    private ProductImportService productImportService;
+    
+    @Autowired
+    private ProductExportService productExportService;
+    
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importProducts(HttpServletRequest request) {
+        try {
+            CatalogFormat format = CatalogFormat.fromContentType(request.getContentType());
+            ImportResult result = productImportService.importProducts(request.getInputStream(), format);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "ndjson") String format) {
+        CatalogFormat catalogFormat = CatalogFormat.fromName(format);
+        StreamingResponseBody body = output -> productExportService.exportProducts(output, catalogFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(catalogFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=products." + catalogFormat.getExtension())
+                .body(body);
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleUnsupportedFormat(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+    }
+}
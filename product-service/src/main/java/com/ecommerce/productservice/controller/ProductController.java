@@ -1,27 +1,48 @@
 package com.ecommerce.productservice.controller;
 
+import com.ecommerce.events.SubscriberLimitException;
+import com.ecommerce.productservice.dto.ProductField;
+import com.ecommerce.productservice.dto.ProductListing;
 import com.ecommerce.productservice.dto.ProductRequest;
+import com.ecommerce.productservice.dto.ProductResponse;
 import com.ecommerce.productservice.dto.StockUpdateRequest;
 import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.events.StockStream;
+import com.ecommerce.productservice.index.ProductIndex;
+import com.ecommerce.productservice.index.ProductQuery;
+import com.ecommerce.productservice.inventory.HotStockService;
+import com.ecommerce.productservice.service.PriceChangedException;
 import com.ecommerce.productservice.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/products")
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class ProductController {
     
+    private static final int MAX_PAGE_SIZE = 200;
+    
     @Autowired
     private ProductService productService;
     
+    @Autowired
+    private HotStockService hotStockService;
+    
+    @Autowired
+    private StockStream stockStream;
+    
     @GetMapping("/health")
     public ResponseEntity<?> healthCheck() {
         Map<String, String> response = new HashMap<>();
@@ -31,15 +52,22 @@ public class ProductController {
     }
     
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<List<ProductResponse>> getAllProducts(@RequestParam(required = false) String fields) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        return ResponseEntity.ok(ProductResponse.fromAll(productService.getAllProducts(), selected));
+    }
+    
+    @GetMapping("/hot-skus")
+    public ResponseEntity<?> getHotSkus() {
+        return ResponseEntity.ok(hotStockService.getStats());
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProductById(@PathVariable Long id) {
+    public ResponseEntity<?> getProductById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        Set<ProductField> selected = ProductField.parse(fields);
         try {
             Product product = productService.getProductById(id);
-            return ResponseEntity.ok(product);
+            return ResponseEntity.ok(ProductResponse.from(product, selected));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
@@ -47,20 +75,51 @@ public class ProductController {
     }
     
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category) {
-        return ResponseEntity.ok(productService.getProductsByCategory(category));
+    public ResponseEntity<List<ProductResponse>> getProductsByCategory(@PathVariable String category,
+                                                                       @RequestParam(defaultValue = "false") boolean inStock,
+                                                                       @RequestParam(required = false) String fields) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        return ResponseEntity.ok(ProductResponse.fromAll(productService.getProductsByCategory(category, inStock),
+                selected));
+    }
+    
+    @GetMapping("/browse")
+    public ResponseEntity<?> browse(@RequestParam(required = false) String category,
+                                    @RequestParam(required = false) BigDecimal minPrice,
+                                    @RequestParam(required = false) BigDecimal maxPrice,
+                                    @RequestParam(defaultValue = "false") boolean inStock,
+                                    @RequestParam(required = false) String sort,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size,
+                                    @RequestParam(required = false) String fields) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        ProductQuery query = new ProductQuery(category, minPrice, maxPrice, inStock, ProductQuery.Sort.parse(sort),
+                page, size);
+        try {
+            ProductIndex.Result result = productService.browse(query);
+            return ResponseEntity.ok(new ProductListing(result.total(), page, size,
+                    ProductResponse.fromAll(result.products(), selected), result.facets()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", e.getMessage()));
+        }
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String query) {
-        return ResponseEntity.ok(productService.searchProducts(query));
+    public ResponseEntity<List<ProductResponse>> searchProducts(@RequestParam String query,
+                                                                @RequestParam(required = false) String fields) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        return ResponseEntity.ok(ProductResponse.fromAll(productService.searchProducts(query), selected));
     }
     
     @PostMapping
     public ResponseEntity<?> createProduct(@Valid @RequestBody ProductRequest request) {
         try {
             Product product = productService.createProduct(request);
-            return ResponseEntity.status(HttpStatus.CREATED).body(product);
+            return ResponseEntity.status(HttpStatus.CREATED).body(ProductResponse.from(product));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", e.getMessage()));
@@ -71,7 +130,7 @@ public class ProductController {
     public ResponseEntity<?> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductRequest request) {
         try {
             Product product = productService.updateProduct(id, request);
-            return ResponseEntity.ok(product);
+            return ResponseEntity.ok(ProductResponse.from(product));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
@@ -81,8 +140,11 @@ public class ProductController {
     @PatchMapping("/{id}/stock")
     public ResponseEntity<?> updateStock(@PathVariable Long id, @Valid @RequestBody StockUpdateRequest request) {
         try {
-            Product product = productService.updateStock(id, request.getQuantity());
-            return ResponseEntity.ok(product);
+            Product product = productService.updateStock(id, request.getQuantity(), request.getExpectedPrice());
+            return ResponseEntity.ok(ProductResponse.from(product));
+        } catch (PriceChangedException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage(), "currentPrice", e.getCurrentPrice()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", e.getMessage()));
@@ -104,6 +166,15 @@ public class ProductController {
         }
     }
     
+    /**
+     * Server-sent {@code stock} events for the given products: their current levels first, then
+     * every change (see docs/EVENT-STREAMS.md).
+     */
+    @GetMapping("/stock/stream")
+    public SseEmitter streamStock(@RequestParam List<Long> ids) {
+        return stockStream.subscribe(ids);
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteProduct(@PathVariable Long id) {
         try {
@@ -114,5 +185,19 @@ public class ProductController {
                     .body(Map.of("error", e.getMessage()));
         }
     }
+    
+    // No body: stream clients accept only text/event-stream, which a JSON error cannot be written as
+    @ExceptionHandler(SubscriberLimitException.class)
+    public ResponseEntity<Void> handleSubscriberLimit(SubscriberLimitException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .build();
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleUnknownField(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+    }
 }
 
@@ -0,0 +1,74 @@
+package com.ecommerce.productservice.controller;
+
+import com.ecommerce.productservice.dto.ProductField;
+import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.service.ReactiveProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The product reads for clients sending {@code Accept: application/x-ndjson}: one product per
+ * line, written as the rows arrive over R2DBC (see docs/REACTIVE-READS.md). No request thread
+ * waits on the database, and the next row is only requested once the previous line has been
+ * written, so a slow client holds back the query instead of filling the heap.
+ *
+ * Other clients get the same paths as JSON arrays from {@link ProductController}.
+ */
+@RestController
+@RequestMapping(value = "/api/products", produces = ProductStreamController.NDJSON)
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ProductStreamController {
+    
+    static final String NDJSON = "application/x-ndjson";
+    
+    @Autowired
+    private ReactiveProductService reactiveProductService;
+    
+    @GetMapping
+    public Flux<ProductResponse> getAllProducts(@RequestParam(required = false) String fields) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        return reactiveProductService.getAllProducts().map(product -> ProductResponse.from(product, selected));
+    }
+    
+    // The status has to be settled before the stream starts, hence the Mono around it
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Flux<ProductResponse>>> getProductById(@PathVariable Long id,
+                                                                      @RequestParam(required = false) String fields) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        return reactiveProductService.getProductById(id)
+                .map(product -> ResponseEntity.ok(Flux.just(ProductResponse.from(product, selected))))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).body(Flux.empty()));
+    }
+    
+    @GetMapping("/category/{category}")
+    public Flux<ProductResponse> getProductsByCategory(@PathVariable String category,
+                                                       @RequestParam(defaultValue = "false") boolean inStock,
+                                                       @RequestParam(required = false) String fields) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        return reactiveProductService.getProductsByCategory(category, inStock)
+                .map(product -> ProductResponse.from(product, selected));
+    }
+    
+    @GetMapping("/search")
+    public Flux<ProductResponse> searchProducts(@RequestParam String query,
+                                                @RequestParam(required = false) String fields) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        return reactiveProductService.searchProducts(query).map(product -> ProductResponse.from(product, selected));
+    }
+    
+    // NDJSON has no error line, so errors go out as a JSON object under an explicit content type
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleUnknownField(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", e.getMessage()));
+    }
+}
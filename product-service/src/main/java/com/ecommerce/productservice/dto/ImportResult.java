@@ -0,0 +1,15 @@
+package com.ecommerce.productservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ImportResult {
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    private long elapsedMs;
+    private double rowsPerSecond;
+    private List<String> errors;
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.productservice.dto;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The fields of a {@link ProductResponse} a client can select with {@code ?fields=}.
+ */
+public enum ProductField {
+    ID("id"),
+    NAME("name"),
+    DESCRIPTION("description"),
+    PRICE("price"),
+    STOCK("stock"),
+    CATEGORY("category"),
+    IMAGE_URL("imageUrl"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+    
+    public static final Set<ProductField> ALL = Collections.unmodifiableSet(EnumSet.allOf(ProductField.class));
+    
+    // Quoted and UTF-8 encoded once instead of on every write
+    private final SerializedString jsonName;
+    
+    ProductField(String name) {
+        this.jsonName = new SerializedString(name);
+    }
+    
+    public SerializedString jsonName() {
+        return jsonName;
+    }
+    
+    /**
+     * Parses a comma-separated list such as {@code id,name,price}; null or blank selects every field.
+     */
+    public static Set<ProductField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        EnumSet<ProductField> selected = EnumSet.noneOf(ProductField.class);
+        for (String name : fields.split(",")) {
+            selected.add(fromName(name.trim()));
+        }
+        return selected;
+    }
+    
+    private static ProductField fromName(String name) {
+        for (ProductField field : values()) {
+            if (field.jsonName.getValue().equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + name + ". Available: "
+                + Arrays.stream(values()).map(f -> f.jsonName.getValue()).collect(Collectors.joining(",")));
+    }
+}
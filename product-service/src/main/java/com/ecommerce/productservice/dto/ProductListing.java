@@ -0,0 +1,35 @@
+package com.ecommerce.productservice.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a filtered catalog listing plus the facet counts for the same filters.
+ *
+ * @param total products matching every filter
+ */
+public record ProductListing(long total,
+                             int page,
+                             int size,
+                             List<ProductResponse> items,
+                             Facets facets) {
+    
+    /**
+     * Each facet is counted with every filter except its own, so the counts show what choosing
+     * another value of that facet would return.
+     *
+     * @param categories products per category
+     * @param priceBands products per price band, in price order
+     * @param inStock products with stock left
+     */
+    public record Facets(Map<String, Long> categories, List<PriceBand> priceBands, long inStock) {
+    }
+    
+    /**
+     * @param from inclusive
+     * @param to exclusive, null for the top band
+     */
+    public record PriceBand(BigDecimal from, BigDecimal to, long count) {
+    }
+}
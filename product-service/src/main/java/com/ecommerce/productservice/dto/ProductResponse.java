@@ -0,0 +1,39 @@
+package com.ecommerce.productservice.dto;
+
+import com.ecommerce.productservice.entity.Product;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * What the product endpoints return. Only the selected {@code fields} are written.
+ */
+@JsonSerialize(using = ProductResponseSerializer.class)
+public record ProductResponse(Long id,
+                              String name,
+                              String description,
+                              BigDecimal price,
+                              Integer stock,
+                              String category,
+                              String imageUrl,
+                              LocalDateTime createdAt,
+                              LocalDateTime updatedAt,
+                              Set<ProductField> fields) {
+
+    public static ProductResponse from(Product product) {
+        return from(product, ProductField.ALL);
+    }
+
+    public static ProductResponse from(Product product, Set<ProductField> fields) {
+        return new ProductResponse(product.getId(), product.getName(), product.getDescription(),
+                product.getPrice(), product.getStock(), product.getCategory(), product.getImageUrl(),
+                product.getCreatedAt(), product.getUpdatedAt(), fields);
+    }
+
+    public static List<ProductResponse> fromAll(List<Product> products, Set<ProductField> fields) {
+        return products.stream().map(product -> from(product, fields)).toList();
+    }
+}
@@ -0,0 +1,144 @@
+package com.ecommerce.productservice.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+
+import static com.ecommerce.productservice.dto.ProductField.*;
+
+/**
+ * Writes {@link ProductResponse} field by field with precomputed names, skipping the
+ * reflective bean serializer. Output matches what Jackson produced for the entity.
+ */
+public class ProductResponseSerializer extends StdSerializer<ProductResponse> {
+    
+    public ProductResponseSerializer() {
+        super(ProductResponse.class);
+    }
+    
+    @Override
+    public void serialize(ProductResponse product, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        Set<ProductField> fields = product.fields();
+        gen.writeStartObject(product);
+        if (fields.contains(ID)) {
+            writeNumber(gen, ID.jsonName(), product.id());
+        }
+        if (fields.contains(NAME)) {
+            writeString(gen, NAME.jsonName(), product.name());
+        }
+        if (fields.contains(DESCRIPTION)) {
+            writeString(gen, DESCRIPTION.jsonName(), product.description());
+        }
+        if (fields.contains(PRICE)) {
+            writeNumber(gen, PRICE.jsonName(), product.price());
+        }
+        if (fields.contains(STOCK)) {
+            writeNumber(gen, STOCK.jsonName(), product.stock());
+        }
+        if (fields.contains(CATEGORY)) {
+            writeString(gen, CATEGORY.jsonName(), product.category());
+        }
+        if (fields.contains(IMAGE_URL)) {
+            writeString(gen, IMAGE_URL.jsonName(), product.imageUrl());
+        }
+        if (fields.contains(CREATED_AT)) {
+            writeDateTime(gen, CREATED_AT.jsonName(), product.createdAt());
+        }
+        if (fields.contains(UPDATED_AT)) {
+            writeDateTime(gen, UPDATED_AT.jsonName(), product.updatedAt());
+        }
+        gen.writeEndObject();
+    }
+    
+    private static void writeString(JsonGenerator gen, SerializedString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+    
+    private static void writeNumber(JsonGenerator gen, SerializedString name, Long value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+    
+    private static void writeNumber(JsonGenerator gen, SerializedString name, Integer value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+    
+    private static void writeNumber(JsonGenerator gen, SerializedString name, BigDecimal value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+    
+    // Same ISO-8601 form as Jackson's LocalDateTimeSerializer with WRITE_DATES_AS_TIMESTAMPS off,
+    // written by hand: DateTimeFormatter is the most expensive part of a response otherwise
+    private static void writeDateTime(JsonGenerator gen, SerializedString name, LocalDateTime value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else if (value.getYear() < 0 || value.getYear() > 9999) {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        } else {
+            char[] buf = new char[29];
+            int length = formatIsoDateTime(value, buf);
+            gen.writeString(buf, 0, length);
+        }
+    }
+    
+    // yyyy-MM-ddTHH:mm:ss, then the fraction without trailing zeros, omitted when zero
+    static int formatIsoDateTime(LocalDateTime value, char[] buf) {
+        int pos = writeDigits(buf, 0, value.getYear(), 4);
+        buf[pos++] = '-';
+        pos = writeDigits(buf, pos, value.getMonthValue(), 2);
+        buf[pos++] = '-';
+        pos = writeDigits(buf, pos, value.getDayOfMonth(), 2);
+        buf[pos++] = 'T';
+        pos = writeDigits(buf, pos, value.getHour(), 2);
+        buf[pos++] = ':';
+        pos = writeDigits(buf, pos, value.getMinute(), 2);
+        buf[pos++] = ':';
+        pos = writeDigits(buf, pos, value.getSecond(), 2);
+        int nano = value.getNano();
+        if (nano != 0) {
+            int width = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                width--;
+            }
+            buf[pos++] = '.';
+            pos = writeDigits(buf, pos, nano, width);
+        }
+        return pos;
+    }
+    
+    private static int writeDigits(char[] buf, int pos, int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
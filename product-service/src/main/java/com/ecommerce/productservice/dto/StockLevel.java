@@ -0,0 +1,7 @@
+package com.ecommerce.productservice.dto;
+
+/**
+ * Data of a {@code stock} event on {@code GET /api/products/stock/stream}.
+ */
+public record StockLevel(Long productId, int stock) {
+}
@@ -3,9 +3,14 @@ package com.ecommerce.productservice.dto;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class StockUpdateRequest {
     @NotNull
     private Integer quantity;
+    
+    // Price the caller charged; when set, the update is refused if the product's price differs
+    private BigDecimal expectedPrice;
 }
 
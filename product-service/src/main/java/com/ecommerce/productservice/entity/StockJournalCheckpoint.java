@@ -0,0 +1,25 @@
+package com.ecommerce.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single-row marker of the last stock journal sequence number applied to the products table.
+ * It is updated in the same transaction as the stock deltas it covers.
+ */
+@Entity
+@Table(name = "stock_journal_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockJournalCheckpoint {
+    public static final Integer SINGLETON_ID = 1;
+    
+    @Id
+    private Integer id;
+    
+    @Column(name = "applied_seq", nullable = false)
+    private Long appliedSeq;
+}
@@ -0,0 +1,122 @@
+package com.ecommerce.productservice.events;
+
+import com.ecommerce.events.SseBroadcaster;
+import com.ecommerce.productservice.dto.StockLevel;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.index.ProductIndex;
+import com.ecommerce.productservice.inventory.HotStockService;
+import com.ecommerce.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Stock levels pushed to clients over server-sent events (see docs/EVENT-STREAMS.md), instead of
+ * clients polling {@code /api/products/{id}/check-stock}.
+ *
+ * Stock changes made through this instance are published as they happen. Every
+ * {@code reconcile-interval-ms} the watched products are published again from the index (or the
+ * database while it is not built), which brings in changes made through other replicas; the
+ * broadcaster drops the ones that did not change.
+ */
+@Component
+public class StockStream {
+    
+    private static final int LOOKUP_CHUNK = 1000;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductIndex productIndex;
+    
+    @Autowired
+    private HotStockService hotStockService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${events.stock.max-subscribers:10000}")
+    private int maxSubscribers;
+    
+    @Value("${events.stock.max-ids:100}")
+    private int maxIds;
+    
+    @Value("${events.stock.senders:4}")
+    private int senders;
+    
+    @Value("${events.stock.timeout-ms:1800000}")
+    private long timeoutMs;
+    
+    @Value("${events.stock.heartbeat-ms:15000}")
+    private long heartbeatMs;
+    
+    @Value("${events.stock.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+    
+    private SseBroadcaster<StockLevel> broadcaster;
+    
+    @PostConstruct
+    public void init() {
+        broadcaster = new SseBroadcaster<>("stock", maxSubscribers, maxIds, senders,
+                Duration.ofMillis(timeoutMs), Duration.ofMillis(heartbeatMs), Duration.ofMillis(sendTimeoutMs));
+        Gauge.builder("events.subscribers", broadcaster, SseBroadcaster::subscriberCount)
+                .description("Open server-sent event streams")
+                .tag("stream", "stock")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        broadcaster.shutdown();
+    }
+    
+    /**
+     * Opens a stream of the stock levels of {@code productIds}, starting with the current ones.
+     */
+    public SseEmitter subscribe(Collection<Long> productIds) {
+        SseEmitter emitter = broadcaster.subscribe(productIds);
+        publishCurrent(productIds);
+        return emitter;
+    }
+    
+    /**
+     * Called after a committed stock change. Costs one map lookup when nobody watches the product.
+     */
+    public void stockChanged(Product product) {
+        broadcaster.publish(product.getId(), new StockLevel(product.getId(), product.getStock()));
+    }
+    
+    @Scheduled(fixedDelayString = "${events.stock.reconcile-interval-ms:2000}")
+    public void reconcile() {
+        publishCurrent(broadcaster.watchedKeys());
+    }
+    
+    private void publishCurrent(Collection<Long> productIds) {
+        List<Long> unindexed = new ArrayList<>();
+        for (Long id : productIds) {
+            Product product = hotStockService.isHot(id) ? hotStockService.view(id) : productIndex.get(id);
+            if (product != null) {
+                stockChanged(product);
+            } else {
+                unindexed.add(id);
+            }
+        }
+        // Index not built yet, or a product created through another replica since its last refresh
+        for (int i = 0; i < unindexed.size(); i += LOOKUP_CHUNK) {
+            productRepository.findAllById(unindexed.subList(i, Math.min(i + LOOKUP_CHUNK, unindexed.size())))
+                    .forEach(this::stockChanged);
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package com.ecommerce.productservice.index;
+
+import com.ecommerce.productservice.dto.ProductListing;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory index of the catalog for category listings and faceted browsing (see
+ * docs/CATALOG-INDEX.md).
+ *
+ * Every product occupies a slot. There is one BitSet over the slots per category and per
+ * price band, plus one of the products in stock. A filter is a few ANDs of those sets, and a
+ * facet count is the cardinality of one more. Slots also keep a copy of the product, so
+ * listings are answered without the database.
+ *
+ * Writes made through this instance are applied as they happen. Writes made by other replicas
+ * are picked up by polling {@code updated_at} every {@code refresh-interval-ms}, and deletions
+ * by a full rebuild every {@code rebuild-interval-ms}.
+ */
+@Component
+public class ProductIndex {
+    
+    private static final Logger logger = Logger.getLogger(ProductIndex.class.getName());
+    
+    // Re-read window behind the newest updated_at seen: replica clocks and commit order differ
+    private static final Duration REFRESH_OVERLAP = Duration.ofSeconds(30);
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${catalog.index.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${catalog.index.price-bands:500,1000,5000,10000,50000,100000}")
+    private BigDecimal[] priceBands;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // One rebuild at a time: a rebuild asked for while another runs is skipped
+    private final ReentrantLock rebuilding = new ReentrantLock();
+    
+    // Guarded by lock
+    private State state;
+    private List<Consumer<State>> writesDuringRebuild;
+    private LocalDateTime lastSeenUpdate;
+    
+    private volatile boolean ready;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (enabled) {
+            Gauge.builder("catalog.index.size", this, ProductIndex::size)
+                    .description("Products in the in-memory catalog index")
+                    .register(meterRegistry);
+            rebuild();
+        }
+    }
+    
+    /**
+     * Whether the index has been built. Until then callers read from the database.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+    
+    @Scheduled(fixedDelayString = "${catalog.index.rebuild-interval-ms:600000}",
+            initialDelayString = "${catalog.index.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        if (!enabled || !rebuilding.tryLock()) {
+            return;
+        }
+        try {
+            doRebuild();
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+    
+    private void doRebuild() {
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            long start = System.nanoTime();
+            List<Product> products = productRepository.findAll();
+            State fresh = new State(priceBands);
+            products.forEach(fresh::put);
+            
+            lock.writeLock().lock();
+            try {
+                // Local writes that raced with findAll: they may be missing from what it read
+                writesDuringRebuild.forEach(write -> write.accept(fresh));
+                state = fresh;
+                lastSeenUpdate = products.stream()
+                        .map(Product::getUpdatedAt)
+                        .filter(updatedAt -> updatedAt != null)
+                        .max(Comparator.naturalOrder())
+                        .orElse(LocalDateTime.now());
+            } finally {
+                writesDuringRebuild = null;
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            logger.info("Indexed " + products.size() + " products in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (DataAccessException e) {
+            lock.writeLock().lock();
+            try {
+                writesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.log(Level.WARNING, "Catalog index rebuild failed", e);
+        }
+    }
+    
+    // Changes committed by other replicas since the last look
+    @Scheduled(fixedDelayString = "${catalog.index.refresh-interval-ms:5000}")
+    public void refresh() {
+        if (!ready) {
+            // The startup build failed: retry it rather than wait for the next full rebuild
+            rebuild();
+            return;
+        }
+        LocalDateTime since;
+        lock.readLock().lock();
+        try {
+            since = lastSeenUpdate.minus(REFRESH_OVERLAP);
+        } finally {
+            lock.readLock().unlock();
+        }
+        try {
+            List<Product> changed = productRepository.findByUpdatedAtGreaterThanEqual(since);
+            if (changed.isEmpty()) {
+                return;
+            }
+            apply(index -> changed.forEach(index::put));
+            LocalDateTime newest = changed.stream()
+                    .map(Product::getUpdatedAt)
+                    .max(Comparator.naturalOrder())
+                    .orElse(since);
+            lock.writeLock().lock();
+            try {
+                if (newest.isAfter(lastSeenUpdate)) {
+                    lastSeenUpdate = newest;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (DataAccessException e) {
+            logger.log(Level.WARNING, "Catalog index refresh failed", e);
+        }
+    }
+    
+    /**
+     * Adds or replaces a product after a write through this instance.
+     */
+    public void put(Product product) {
+        Product copy = copy(product);
+        apply(index -> index.put(copy));
+    }
+    
+    public void putAll(Collection<Product> products) {
+        List<Product> copies = products.stream().map(ProductIndex::copy).toList();
+        apply(index -> copies.forEach(index::put));
+    }
+    
+    public void remove(Long productId) {
+        apply(index -> index.remove(productId));
+    }
+    
+    /**
+     * All products in {@code category}, oldest first. The returned products are the index's
+     * own copies and must not be modified.
+     */
+    public List<Product> category(String category, boolean inStockOnly) {
+        ProductQuery query = new ProductQuery(category, null, null, inStockOnly, ProductQuery.Sort.ID,
+                0, Integer.MAX_VALUE);
+        lock.readLock().lock();
+        try {
+            return state.page(state.matches(query), query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * The indexed copy of a product, or null when it is not indexed or the index is not built.
+     * The returned product must not be modified.
+     */
+    public Product get(Long productId) {
+        lock.readLock().lock();
+        try {
+            if (state == null) {
+                return null;
+            }
+            Integer slot = state.slots.get(productId);
+            return slot == null ? null : state.products[slot];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public List<Product> all() {
+        return category(null, false);
+    }
+    
+    /**
+     * One page of the products matching {@code query}, with facet counts. The returned products
+     * are the index's own copies and must not be modified.
+     */
+    public Result query(ProductQuery query) {
+        lock.readLock().lock();
+        try {
+            if (state == null) {
+                throw new IllegalStateException("Catalog index is not built yet");
+            }
+            return state.query(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return state == null ? 0 : state.slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public record Result(long total, List<Product> products, ProductListing.Facets facets) {
+    }
+    
+    private static Product copy(Product product) {
+        return new Product(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getStock(), product.getCategory(), product.getImageUrl(),
+                product.getCreatedAt(), product.getUpdatedAt());
+    }
+    
+    private void apply(Consumer<State> write) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (state != null) {
+                write.accept(state);
+            }
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(write);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * The index proper. Not thread-safe: ProductIndex guards it with its lock.
+     */
+    static final class State {
+        
+        private final BigDecimal[] bandBounds;
+        private final BitSet[] bands;
+        private final Map<String, BitSet> categories = new TreeMap<>();
+        private final BitSet live = new BitSet();
+        private final BitSet inStock = new BitSet();
+        private final Map<Long, Integer> slots = new HashMap<>();
+        private Product[] products = new Product[1024];
+        
+        State(BigDecimal[] bandBounds) {
+            this.bandBounds = bandBounds.clone();
+            Arrays.sort(this.bandBounds);
+            this.bands = new BitSet[this.bandBounds.length + 1];
+            for (int i = 0; i < bands.length; i++) {
+                bands[i] = new BitSet();
+            }
+        }
+        
+        // Keeps the product itself; callers pass a copy nobody else modifies
+        void put(Product product) {
+            remove(product.getId());
+            int slot = live.nextClearBit(0);
+            if (slot >= products.length) {
+                products = Arrays.copyOf(products, products.length * 2);
+            }
+            products[slot] = product;
+            slots.put(product.getId(), slot);
+            live.set(slot);
+            if (product.getStock() != null && product.getStock() > 0) {
+                inStock.set(slot);
+            }
+            if (product.getCategory() != null) {
+                categories.computeIfAbsent(product.getCategory(), category -> new BitSet()).set(slot);
+            }
+            bands[band(product.getPrice())].set(slot);
+        }
+        
+        void remove(Long productId) {
+            Integer slot = slots.remove(productId);
+            if (slot == null) {
+                return;
+            }
+            Product product = products[slot];
+            products[slot] = null;
+            live.clear(slot);
+            inStock.clear(slot);
+            if (product.getCategory() != null) {
+                BitSet members = categories.get(product.getCategory());
+                members.clear(slot);
+                if (members.isEmpty()) {
+                    categories.remove(product.getCategory());
+                }
+            }
+            bands[band(product.getPrice())].clear(slot);
+        }
+        
+        BitSet matches(ProductQuery query) {
+            return and(byCategory(query), priceRange(query.minPrice(), query.maxPrice()), byStock(query));
+        }
+        
+        Result query(ProductQuery query) {
+            BitSet byCategory = byCategory(query);
+            BitSet byPrice = priceRange(query.minPrice(), query.maxPrice());
+            BitSet byStock = byStock(query);
+            
+            BitSet matches = and(byCategory, byPrice, byStock);
+            
+            BitSet withoutCategory = and(live, byPrice, byStock);
+            Map<String, Long> categoryCounts = new LinkedHashMap<>();
+            categories.forEach((category, members) -> {
+                long count = intersectionSize(withoutCategory, members);
+                if (count > 0) {
+                    categoryCounts.put(category, count);
+                }
+            });
+            
+            BitSet withoutPrice = and(live, byCategory, byStock);
+            List<ProductListing.PriceBand> bandCounts = new ArrayList<>(bands.length);
+            for (int i = 0; i < bands.length; i++) {
+                bandCounts.add(new ProductListing.PriceBand(i == 0 ? BigDecimal.ZERO : bandBounds[i - 1],
+                        i < bandBounds.length ? bandBounds[i] : null,
+                        intersectionSize(withoutPrice, bands[i])));
+            }
+            
+            long inStockCount = intersectionSize(and(live, byCategory, byPrice), inStock);
+            
+            return new Result(matches.cardinality(), page(matches, query),
+                    new ProductListing.Facets(categoryCounts, bandCounts, inStockCount));
+        }
+        
+        private BitSet byCategory(ProductQuery query) {
+            return query.category() == null ? live : categories.getOrDefault(query.category(), new BitSet());
+        }
+        
+        private BitSet byStock(ProductQuery query) {
+            return query.inStockOnly() ? inStock : live;
+        }
+        
+        List<Product> page(BitSet matches, ProductQuery query) {
+            List<Product> matching = new ArrayList<>(matches.cardinality());
+            matches.stream().forEach(slot -> matching.add(products[slot]));
+            Comparator<Product> order = switch (query.sort()) {
+                case ID -> Comparator.comparing(Product::getId);
+                case NEWEST -> Comparator.comparing(Product::getId).reversed();
+                case PRICE_ASC -> Comparator.comparing(Product::getPrice).thenComparing(Product::getId);
+                case PRICE_DESC -> Comparator.comparing(Product::getPrice).reversed().thenComparing(Product::getId);
+            };
+            matching.sort(order);
+            long from = (long) query.page() * query.size();
+            if (from >= matching.size()) {
+                return List.of();
+            }
+            return matching.subList((int) from, (int) Math.min(from + query.size(), matching.size()));
+        }
+        
+        // Whole bands inside the range are taken as they are; only the edge bands are checked per product
+        private BitSet priceRange(BigDecimal min, BigDecimal max) {
+            if (min == null && max == null) {
+                return live;
+            }
+            BitSet result = new BitSet();
+            for (int i = 0; i < bands.length; i++) {
+                BigDecimal from = i == 0 ? null : bandBounds[i - 1];
+                BigDecimal to = i < bandBounds.length ? bandBounds[i] : null;
+                boolean belowMin = min != null && to != null && to.compareTo(min) <= 0;
+                boolean aboveMax = max != null && from != null && from.compareTo(max) > 0;
+                if (belowMin || aboveMax) {
+                    continue;
+                }
+                boolean startsInside = min == null || (from != null && from.compareTo(min) >= 0);
+                boolean endsInside = max == null || (to != null && to.compareTo(max) <= 0);
+                if (startsInside && endsInside) {
+                    result.or(bands[i]);
+                } else {
+                    bands[i].stream()
+                            .filter(slot -> inRange(products[slot].getPrice(), min, max))
+                            .forEach(result::set);
+                }
+            }
+            return result;
+        }
+        
+        private int band(BigDecimal price) {
+            int band = 0;
+            while (band < bandBounds.length && price.compareTo(bandBounds[band]) >= 0) {
+                band++;
+            }
+            return band;
+        }
+        
+        private static boolean inRange(BigDecimal price, BigDecimal min, BigDecimal max) {
+            return (min == null || price.compareTo(min) >= 0) && (max == null || price.compareTo(max) <= 0);
+        }
+        
+        private static BitSet and(BitSet first, BitSet... others) {
+            BitSet result = (BitSet) first.clone();
+            for (BitSet other : others) {
+                if (other != first) {
+                    result.and(other);
+                }
+            }
+            return result;
+        }
+        
+        private static long intersectionSize(BitSet a, BitSet b) {
+            BitSet result = (BitSet) a.clone();
+            result.and(b);
+            return result.cardinality();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.productservice.index;
+
+import java.math.BigDecimal;
+
+/**
+ * A filtered, sorted page of the catalog. Null filters match everything.
+ *
+ * @param minPrice inclusive
+ * @param maxPrice inclusive
+ */
+public record ProductQuery(String category,
+                           BigDecimal minPrice,
+                           BigDecimal maxPrice,
+                           boolean inStockOnly,
+                           Sort sort,
+                           int page,
+                           int size) {
+    
+    public enum Sort {
+        // Ids are time-ordered (docs/ENTITY-IDS.md), so this is oldest first
+        ID,
+        NEWEST,
+        PRICE_ASC,
+        PRICE_DESC;
+        
+        public static Sort parse(String value) {
+            if (value == null || value.isBlank()) {
+                return ID;
+            }
+            return switch (value) {
+                case "id" -> ID;
+                case "newest" -> NEWEST;
+                case "price" -> PRICE_ASC;
+                case "-price" -> PRICE_DESC;
+                default -> throw new IllegalArgumentException("Unknown sort: " + value
+                        + " (expected id, newest, price or -price)");
+            };
+        }
+    }
+}
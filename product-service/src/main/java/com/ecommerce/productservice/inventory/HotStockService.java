@@ -0,0 +1,289 @@
+package com.ecommerce.productservice.inventory;
+
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.entity.StockJournalCheckpoint;
+import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.repository.StockJournalCheckpointRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * High-contention stock mode for designated hot SKUs.
+ *
+ * Stock for each hot SKU lives in a {@link StripedStockCounter}, which is authoritative while
+ * the service runs. Every granted change is appended to the {@link StockJournal} before it is
+ * acknowledged, and a scheduled write-behind task applies the accumulated deltas to MySQL
+ * together with the journal checkpoint in one transaction. On startup any journal records
+ * past the checkpoint are replayed before the counters are seeded from the database.
+ * See docs/HOT-SKU-INVENTORY.md for the full consistency contract.
+ */
+@Service
+public class HotStockService {
+    
+    private static final Logger logger = Logger.getLogger(HotStockService.class.getName());
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private StockJournalCheckpointRepository checkpointRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${inventory.hot.skus:}")
+    private List<Long> hotSkuIds;
+    
+    @Value("${inventory.hot.stripes:16}")
+    private int stripes;
+    
+    @Value("${inventory.hot.journal-dir:./data/stock-journal}")
+    private String journalDir;
+    
+    @Value("${inventory.hot.journal-sync:true}")
+    private boolean journalSync;
+    
+    @Value("${inventory.hot.segment-bytes:67108864}")
+    private long segmentBytes;
+    
+    @Value("${inventory.hot.ack-timeout-ms:5000}")
+    private long ackTimeoutMs;
+    
+    private final Map<Long, HotSku> hotSkus = new ConcurrentHashMap<>();
+    
+    // Journaled but not yet applied to MySQL; guarded by itself
+    private final Map<Long, Long> unflushed = new HashMap<>();
+    private long journaledSeq;
+    
+    private StockJournal journal;
+    
+    // Held across a whole write-behind, so a later checkpoint can never be overwritten by an earlier one
+    private final Object flushLock = new Object();
+    private boolean closed;
+    
+    private static class HotSku {
+        final StripedStockCounter counter;
+        volatile Product snapshot;
+        
+        HotSku(Product snapshot, StripedStockCounter counter) {
+            this.snapshot = snapshot;
+            this.counter = counter;
+        }
+    }
+    
+    @PostConstruct
+    public void init() throws IOException {
+        if (hotSkuIds == null || hotSkuIds.isEmpty()) {
+            return;
+        }
+        Path directory = Paths.get(journalDir);
+        long appliedSeq = recover(directory);
+        
+        for (Long id : hotSkuIds) {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Hot SKU not found with id: " + id));
+            hotSkus.put(id, new HotSku(product, new StripedStockCounter(product.getStock(), stripes)));
+        }
+        
+        journaledSeq = appliedSeq;
+        journal = new StockJournal(directory, segmentBytes, journalSync, appliedSeq + 1, this::onDurable);
+        journal.releaseUpTo(appliedSeq);
+        logger.info("High-contention stock mode enabled for products " + hotSkus.keySet()
+                + " (journal: " + directory.toAbsolutePath() + ", sync: " + journalSync + ")");
+    }
+    
+    public boolean isHot(Long productId) {
+        return !hotSkus.isEmpty() && hotSkus.containsKey(productId);
+    }
+    
+    public boolean hasHotSkus() {
+        return !hotSkus.isEmpty();
+    }
+    
+    public long available(Long productId) {
+        return hotSkus.get(productId).counter.available();
+    }
+    
+    /**
+     * @return a detached copy of the product carrying the in-memory stock level
+     */
+    public Product view(Long productId) {
+        HotSku sku = hotSkus.get(productId);
+        Product snapshot = sku.snapshot;
+        return new Product(snapshot.getId(), snapshot.getName(), snapshot.getDescription(), snapshot.getPrice(),
+                (int) sku.counter.available(), snapshot.getCategory(), snapshot.getImageUrl(),
+                snapshot.getCreatedAt(), snapshot.getUpdatedAt());
+    }
+    
+    /**
+     * Replaces the cached non-stock fields after the product row itself was updated.
+     */
+    public void refreshSnapshot(Product product) {
+        HotSku sku = hotSkus.get(product.getId());
+        if (sku != null) {
+            sku.snapshot = product;
+        }
+    }
+    
+    public Product adjustStock(Long productId, int quantity) {
+        HotSku sku = hotSkus.get(productId);
+        if (quantity < 0 && !sku.counter.tryDecrement(-quantity)) {
+            throw new RuntimeException("Insufficient stock. Available: " + sku.counter.available());
+        }
+        
+        try {
+            CompletableFuture<Long> durable = journal.append(productId, quantity);
+            if (journalSync) {
+                durable.get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof StockJournal.UnknownOutcomeException) {
+                // Like a timeout: the record may be replayed, so keep the reservation
+                throw new RuntimeException("Stock update could not be journaled: " + e.getCause().getMessage());
+            }
+            // Definitely not journaled (the journal rolled the write back): release the reservation
+            if (quantity < 0) {
+                sku.counter.increment(-quantity);
+            }
+            throw new RuntimeException("Stock update could not be journaled: " + e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            // The record may still be written, so keep the reservation (may undersell, never oversells)
+            throw new RuntimeException("Stock update timed out waiting for the journal");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the stock journal");
+        }
+        
+        // Increments become visible only once journaled so they can never be consumed and then lost
+        if (quantity > 0) {
+            sku.counter.increment(quantity);
+        }
+        return view(productId);
+    }
+    
+    public List<Map<String, Object>> getStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        synchronized (unflushed) {
+            hotSkus.forEach((id, sku) -> {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("productId", id);
+                entry.put("available", sku.counter.available());
+                entry.put("unflushedDelta", unflushed.getOrDefault(id, 0L));
+                stats.add(entry);
+            });
+        }
+        return stats;
+    }
+    
+    @Scheduled(fixedDelayString = "${inventory.hot.flush-interval-ms:200}")
+    public void flush() {
+        synchronized (flushLock) {
+            if (journal != null && !closed) {
+                writeBehind();
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        // Completes the queued appends, so every durable record is in unflushed
+        journal.close();
+        synchronized (flushLock) {
+            // Waits for a running scheduled flush; later ones do nothing
+            closed = true;
+            writeBehind();
+        }
+    }
+    
+    // Caller holds flushLock
+    private void writeBehind() {
+        Map<Long, Long> batch;
+        long seq;
+        synchronized (unflushed) {
+            if (unflushed.isEmpty()) {
+                return;
+            }
+            batch = new HashMap<>(unflushed);
+            unflushed.clear();
+            seq = journaledSeq;
+        }
+        
+        try {
+            applyToDatabase(batch, seq);
+            journal.releaseUpTo(seq);
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Write-behind of hot SKU stock failed, will retry", e);
+            synchronized (unflushed) {
+                batch.forEach((id, delta) -> unflushed.merge(id, delta, Long::sum));
+            }
+        }
+    }
+    
+    private void onDurable(List<StockJournal.Entry> entries) {
+        synchronized (unflushed) {
+            for (StockJournal.Entry entry : entries) {
+                unflushed.merge(entry.productId(), (long) entry.delta(), Long::sum);
+                journaledSeq = entry.seq();
+            }
+        }
+    }
+    
+    private long recover(Path directory) throws IOException {
+        long appliedSeq = checkpointRepository.findById(StockJournalCheckpoint.SINGLETON_ID)
+                .map(StockJournalCheckpoint::getAppliedSeq)
+                .orElse(0L);
+        
+        Map<Long, Long> deltas = new HashMap<>();
+        long lastSeq = appliedSeq;
+        for (StockJournal.Entry entry : StockJournal.readAll(directory)) {
+            if (entry.seq() > appliedSeq) {
+                deltas.merge(entry.productId(), (long) entry.delta(), Long::sum);
+                lastSeq = Math.max(lastSeq, entry.seq());
+            }
+        }
+        
+        if (lastSeq > appliedSeq) {
+            applyToDatabase(deltas, lastSeq);
+            logger.info("Replayed stock journal records " + (appliedSeq + 1) + ".." + lastSeq
+                    + " for products " + deltas.keySet());
+        }
+        return lastSeq;
+    }
+    
+    private void applyToDatabase(Map<Long, Long> deltas, long seq) {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            deltas.forEach((id, delta) -> {
+                if (delta != 0) {
+                    productRepository.adjustStock(id, Math.toIntExact(delta), now);
+                }
+            });
+            checkpointRepository.save(new StockJournalCheckpoint(StockJournalCheckpoint.SINGLETON_ID, seq));
+        });
+    }
+}
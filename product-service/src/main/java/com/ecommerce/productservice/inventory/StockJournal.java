@@ -0,0 +1,312 @@
+package com.ecommerce.productservice.inventory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, group-committed journal of hot-SKU stock deltas.
+ *
+ * Callers enqueue deltas and receive a future that completes once the record is on disk.
+ * A single writer thread drains whatever has queued up, assigns sequence numbers in file
+ * order, writes the batch and issues one fsync for all of it, so the fsync cost is shared by
+ * every concurrent request. The journal is split into segments named after their first
+ * sequence number; segments are deleted once everything in them has been applied to MySQL.
+ *
+ * A batch whose write or fsync fails is cut off the segment again, so none of its records are
+ * replayed and its futures fail with the I/O error. If the segment cannot be truncated, the
+ * journal moves on to a new segment, and the futures fail with {@link UnknownOutcomeException}:
+ * some of the records may be on disk and may be replayed.
+ */
+public class StockJournal implements Closeable {
+    
+    private static final Logger logger = Logger.getLogger(StockJournal.class.getName());
+    
+    // seq (8) + productId (8) + delta (4) + crc (4)
+    static final int RECORD_SIZE = 24;
+    private static final int MAX_BATCH = 4096;
+    private static final String SEGMENT_PREFIX = "stock-journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    
+    public record Entry(long seq, long productId, int delta) {
+    }
+    
+    private record Pending(long productId, int delta, CompletableFuture<Long> durable) {
+    }
+    
+    /**
+     * A batch failed and could not be removed from the journal: its records may or may not be replayed.
+     */
+    public static class UnknownOutcomeException extends IOException {
+        
+        UnknownOutcomeException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+    
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean sync;
+    private final Consumer<List<Entry>> onDurable;
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_BATCH * RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private final Thread writer;
+    
+    private FileChannel channel;
+    private long nextSeq;
+    private volatile boolean running = true;
+    
+    /**
+     * @param onDurable invoked on the writer thread, in sequence order, after each batch is written
+     */
+    public StockJournal(Path directory, long segmentBytes, boolean sync, long nextSeq,
+                        Consumer<List<Entry>> onDurable) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.sync = sync;
+        this.nextSeq = nextSeq;
+        this.onDurable = onDurable;
+        Files.createDirectories(directory);
+        openSegment();
+        this.writer = new Thread(this::writeLoop, "stock-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+    
+    /**
+     * @return a future completed with the record's sequence number once it is durable
+     */
+    public CompletableFuture<Long> append(long productId, int delta) {
+        CompletableFuture<Long> durable = new CompletableFuture<>();
+        if (!running) {
+            durable.completeExceptionally(new IllegalStateException("Stock journal is closed"));
+            return durable;
+        }
+        queue.add(new Pending(productId, delta, durable));
+        return durable;
+    }
+    
+    /**
+     * Deletes every segment whose records all have a sequence number of at most {@code appliedSeq}.
+     */
+    public synchronized void releaseUpTo(long appliedSeq) {
+        List<Path> segments = listSegments(directory);
+        // A segment's last record precedes the next segment's first sequence number
+        for (int i = 0; i < segments.size() - 1; i++) {
+            if (firstSeqOf(segments.get(i + 1)) - 1 <= appliedSeq) {
+                try {
+                    Files.deleteIfExists(segments.get(i));
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Could not delete journal segment " + segments.get(i), e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Reads every intact record in {@code directory}. A torn or corrupt record ends its segment:
+     * the rest of that segment is skipped and reading goes on with the next one, which a failed
+     * batch that could not be truncated leaves behind it.
+     */
+    public static List<Entry> readAll(Path directory) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return entries;
+        }
+        CRC32 crc = new CRC32();
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        for (Path segment : listSegments(directory)) {
+            try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+                while (true) {
+                    record.clear();
+                    while (record.hasRemaining() && in.read(record) >= 0) {
+                        // keep reading until the record is complete or the file ends
+                    }
+                    if (record.hasRemaining()) {
+                        break;
+                    }
+                    record.flip();
+                    long seq = record.getLong();
+                    long productId = record.getLong();
+                    int delta = record.getInt();
+                    int checksum = record.getInt();
+                    crc.reset();
+                    crc.update(record.array(), 0, RECORD_SIZE - 4);
+                    if ((int) crc.getValue() != checksum) {
+                        logger.warning("Corrupt record in " + segment + " after seq " + seq
+                                + ", ignoring the rest of the segment");
+                        break;
+                    }
+                    entries.add(new Entry(seq, productId, delta));
+                }
+            }
+        }
+        return entries;
+    }
+    
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH);
+        List<Entry> written = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                
+                long firstSeq = nextSeq;
+                buffer.clear();
+                for (Pending pending : batch) {
+                    long seq = nextSeq++;
+                    writeRecord(seq, pending.productId(), pending.delta());
+                    written.add(new Entry(seq, pending.productId(), pending.delta()));
+                }
+                buffer.flip();
+                IOException failure = writeBatch(firstSeq);
+                if (failure != null) {
+                    batch.forEach(pending -> pending.durable().completeExceptionally(failure));
+                    continue;
+                }
+                
+                onDurable.accept(written);
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).durable().complete(written.get(i).seq());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Stock journal write failed", e);
+                batch.forEach(pending -> pending.durable().completeExceptionally(e));
+            } finally {
+                batch.clear();
+                written.clear();
+            }
+        }
+    }
+    
+    /**
+     * Appends the buffered batch and forces it to disk.
+     *
+     * @return null once the batch is durable, else why it is not
+     */
+    private synchronized IOException writeBatch(long firstSeq) {
+        long start = -1;
+        try {
+            if (!channel.isOpen()) {
+                openSegment();
+            }
+            start = channel.size();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Stock journal write failed", e);
+            if (start < 0 || rollBack(start)) {
+                // Nothing of the batch is left in the journal, so its sequence numbers can be reused
+                nextSeq = firstSeq;
+                return e;
+            }
+            return new UnknownOutcomeException("Stock journal write failed and could not be rolled back", e);
+        }
+        
+        try {
+            if (channel.size() >= segmentBytes) {
+                channel.close();
+                openSegment();
+            }
+        } catch (IOException e) {
+            // The batch is durable; the next batch opens a segment again
+            logger.log(Level.WARNING, "Could not start a new stock journal segment", e);
+        }
+        return null;
+    }
+    
+    // Cuts a failed batch off the segment; if that fails, leaves the segment and starts a new one
+    private boolean rollBack(long start) {
+        try {
+            channel.truncate(start);
+            channel.force(true);
+            return true;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Could not truncate the stock journal after a failed write", e);
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // already reported
+        }
+        try {
+            openSegment();
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Could not start a new stock journal segment", e);
+        }
+        return false;
+    }
+    
+    private void writeRecord(long seq, long productId, int delta) {
+        int start = buffer.position();
+        buffer.putLong(seq).putLong(productId).putInt(delta);
+        crc.reset();
+        crc.update(buffer.duplicate().position(start).limit(start + RECORD_SIZE - 4));
+        buffer.putInt((int) crc.getValue());
+    }
+    
+    private void openSegment() throws IOException {
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSeq, SEGMENT_SUFFIX));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+    
+    private static List<Path> listSegments(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot list journal directory " + directory, e);
+        }
+    }
+    
+    private static long firstSeqOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+    
+    @Override
+    public void close() throws IOException {
+        // The writer drains whatever is still queued before it exits
+        running = false;
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (channel.isOpen()) {
+                channel.force(true);
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.productservice.inventory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock level for a single SKU spread over several independently updated stripes.
+ *
+ * Like {@link java.util.concurrent.atomic.LongAdder} the value is the sum of the stripes, but
+ * every stripe is kept non-negative so a decrement can be granted or denied with a single CAS
+ * on one stripe. Only when no single stripe can cover a request are the stripes drained and
+ * rebalanced under a lock, which keeps the floor check exact: the total never drops below zero.
+ */
+public class StripedStockCounter {
+    
+    // 8 longs = 64 bytes, so neighbouring stripes never share a cache line
+    private static final int PADDING = 8;
+    
+    private final AtomicLongArray cells;
+    private final int stripes;
+    
+    public StripedStockCounter(long initialStock, int stripes) {
+        if (initialStock < 0) {
+            throw new IllegalArgumentException("Initial stock must be non-negative");
+        }
+        this.stripes = Math.max(1, stripes);
+        this.cells = new AtomicLongArray(this.stripes * PADDING);
+        spread(initialStock);
+    }
+    
+    /**
+     * Removes {@code quantity} units if they are available.
+     *
+     * @return {@code true} if the decrement was granted
+     */
+    public boolean tryDecrement(long quantity) {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            int index = ((start + i) % stripes) * PADDING;
+            long current = cells.get(index);
+            while (current >= quantity) {
+                if (cells.compareAndSet(index, current, current - quantity)) {
+                    return true;
+                }
+                current = cells.get(index);
+            }
+        }
+        return rebalanceAndDecrement(quantity);
+    }
+    
+    public void increment(long quantity) {
+        int index = ThreadLocalRandom.current().nextInt(stripes) * PADDING;
+        cells.addAndGet(index, quantity);
+    }
+    
+    /**
+     * @return the current total; a moment-in-time estimate while updates are in flight
+     */
+    public long available() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+    
+    private synchronized boolean rebalanceAndDecrement(long quantity) {
+        // Drain every stripe; concurrent fast-path updates either land before the drain
+        // (and are collected) or after it (and stay in the stripe they hit).
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.getAndSet(i * PADDING, 0);
+        }
+        boolean granted = total >= quantity;
+        spread(granted ? total - quantity : total);
+        return granted;
+    }
+    
+    private void spread(long total) {
+        long share = total / stripes;
+        long remainder = total % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.addAndGet(i * PADDING, share + (i < remainder ? 1 : 0));
+        }
+    }
+}
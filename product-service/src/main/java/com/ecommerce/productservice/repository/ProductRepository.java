@@ -2,8 +2,12 @@ package com.ecommerce.productservice.repository;
 
 import com.ecommerce.productservice.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -11,5 +15,9 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByCategory(String category);
     List<Product> findByNameContainingIgnoreCase(String name);
     List<Product> findByStockGreaterThan(Integer stock);
+    List<Product> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+    
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :delta, p.updatedAt = :updatedAt WHERE p.id = :id")
+    int adjustStock(@Param("id") Long id, @Param("delta") int delta, @Param("updatedAt") LocalDateTime updatedAt);
 }
-
@@ -0,0 +1,82 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.entity.Product;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Product reads over R2DBC, for the NDJSON endpoints (see docs/REACTIVE-READS.md). Rows are
+ * emitted as the driver decodes them and only as fast as the subscriber requests them; with
+ * {@code fetch-size} set, MySQL reads large results through a cursor instead of buffering them.
+ *
+ * Writes stay on {@link ProductRepository}.
+ */
+@Repository
+public class ReactiveProductRepository {
+    
+    private static final String COLUMNS =
+            "SELECT id, name, description, price, stock, category, image_url, created_at, updated_at FROM products";
+    
+    @Autowired
+    private DatabaseClient databaseClient;
+    
+    @Value("${catalog.reactive.fetch-size:500}")
+    private int fetchSize;
+    
+    public Flux<Product> findAll() {
+        return databaseClient.sql(COLUMNS + " ORDER BY id")
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+    
+    public Mono<Product> findById(Long id) {
+        return databaseClient.sql(COLUMNS + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toProduct)
+                .one();
+    }
+    
+    public Flux<Product> findByCategory(String category) {
+        return databaseClient.sql(COLUMNS + " WHERE category = :category ORDER BY id")
+                .bind("category", category)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+    
+    // Same match as ProductRepository.findByNameContainingIgnoreCase; '!' escapes alike on MySQL and H2
+    public Flux<Product> findByNameContainingIgnoreCase(String name) {
+        String pattern = "%" + name.toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_") + "%";
+        return databaseClient.sql(COLUMNS + " WHERE LOWER(name) LIKE :pattern ESCAPE '!' ORDER BY id")
+                .bind("pattern", pattern)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+    
+    private static Product toProduct(Readable row) {
+        return new Product(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("description", String.class),
+                row.get("price", BigDecimal.class),
+                row.get("stock", Integer.class),
+                row.get("category", String.class),
+                row.get("image_url", String.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class));
+    }
+}
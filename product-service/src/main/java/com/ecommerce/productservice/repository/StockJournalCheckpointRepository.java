@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.entity.StockJournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockJournalCheckpointRepository extends JpaRepository<StockJournalCheckpoint, Integer> {
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.productservice.service;
+
+import java.math.BigDecimal;
+
+/**
+ * A stock reservation was made against a price the product no longer has.
+ */
+public class PriceChangedException extends RuntimeException {
+    
+    private final BigDecimal currentPrice;
+    
+    public PriceChangedException(Long productId, BigDecimal expectedPrice, BigDecimal currentPrice) {
+        super("Price of product " + productId + " changed from " + expectedPrice + " to " + currentPrice);
+        this.currentPrice = currentPrice;
+    }
+    
+    public BigDecimal getCurrentPrice() {
+        return currentPrice;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.registry.InstanceResolver;
+import com.ecommerce.registry.ServiceInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tells every registered instance of the subscribing services that a product's name or price
+ * changed, so they drop their cached copy (order-service's product snapshot cache).
+ *
+ * Best effort: notifications are sent asynchronously and a lost one only means a subscriber
+ * keeps the old copy until its TTL runs out. Price correctness does not depend on them, since
+ * stock reservations carry the expected price (see {@link ProductService#updateStock}).
+ */
+@Component
+public class ProductChangeNotifier {
+    
+    private static final Logger logger = Logger.getLogger(ProductChangeNotifier.class.getName());
+    
+    @Autowired
+    private InstanceResolver instanceResolver;
+    
+    @Value("${product-changes.subscribers:order-service}")
+    private List<String> subscribers;
+    
+    @Value("${product-changes.timeout-ms:500}")
+    private long timeoutMs;
+    
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(500))
+            .build();
+    
+    public void productChanged(Long productId, LocalDateTime updatedAt) {
+        String body = "{\"productId\":" + productId + ",\"updatedAt\":\"" + updatedAt + "\"}";
+        for (String serviceId : subscribers) {
+            for (ServiceInstance instance : instanceResolver.resolve(serviceId)) {
+                send(instance, body);
+            }
+        }
+    }
+    
+    private void send(ServiceInstance instance, String body) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(instance.uri() + "/internal/product-changes"))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        logger.log(Level.FINE, "Product change notification to " + instance.instanceId() + " failed", error);
+                    } else if (response.statusCode() >= 300) {
+                        logger.fine("Product change notification to " + instance.instanceId()
+                                + " answered " + response.statusCode());
+                    }
+                });
+    }
+}
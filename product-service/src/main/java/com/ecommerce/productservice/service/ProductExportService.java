@@ -0,0 +1,127 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.catalog.CatalogFormat;
+import com.ecommerce.productservice.entity.Product;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Streams the catalog out as CSV or NDJSON using keyset pagination on the primary key,
+ * so memory use stays constant regardless of catalog size and no long-lived cursor is held.
+ */
+@Service
+public class ProductExportService {
+    
+    private static final String PAGE_SQL = "SELECT id, name, description, price, stock, category, image_url, "
+            + "created_at, updated_at FROM products WHERE id > ? ORDER BY id LIMIT ?";
+    
+    private static final String CSV_HEADER = "id,name,description,price,stock,category,imageUrl,createdAt,updatedAt\n";
+    
+    public static final RowMapper<Product> PRODUCT_ROW_MAPPER = (rs, rowNum) -> new Product(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getString("description"),
+            rs.getBigDecimal("price"),
+            rs.getInt("stock"),
+            rs.getString("category"),
+            rs.getString("image_url"),
+            rs.getTimestamp("created_at") != null ? rs.getTimestamp("created_at").toLocalDateTime() : null,
+            rs.getTimestamp("updated_at") != null ? rs.getTimestamp("updated_at").toLocalDateTime() : null);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${catalog.export.page-size:1000}")
+    private int pageSize;
+    
+    public void exportProducts(OutputStream output, CatalogFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        JsonGenerator generator = null;
+        ObjectWriter rowWriter = null;
+        
+        if (format == CatalogFormat.CSV) {
+            writer.write(CSV_HEADER);
+        } else {
+            generator = objectMapper.getFactory().createGenerator(writer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            rowWriter = objectMapper.writerFor(Product.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+        
+        long lastId = 0;
+        List<Product> page;
+        do {
+            page = jdbcTemplate.query(PAGE_SQL, PRODUCT_ROW_MAPPER, lastId, pageSize);
+            for (Product product : page) {
+                if (generator != null) {
+                    rowWriter.writeValue(generator, product);
+                    generator.writeRaw('\n');
+                } else {
+                    writeCsvRow(writer, product);
+                }
+            }
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == pageSize);
+        
+        if (generator != null) {
+            generator.flush();
+        }
+        writer.flush();
+    }
+    
+    private void writeCsvRow(Writer writer, Product product) throws IOException {
+        writer.write(String.valueOf(product.getId()));
+        writer.write(',');
+        writeCsvField(writer, product.getName());
+        writer.write(',');
+        writeCsvField(writer, product.getDescription());
+        writer.write(',');
+        writer.write(product.getPrice().toPlainString());
+        writer.write(',');
+        writer.write(String.valueOf(product.getStock()));
+        writer.write(',');
+        writeCsvField(writer, product.getCategory());
+        writer.write(',');
+        writeCsvField(writer, product.getImageUrl());
+        writer.write(',');
+        writeCsvField(writer, product.getCreatedAt() != null ? product.getCreatedAt().toString() : null);
+        writer.write(',');
+        writeCsvField(writer, product.getUpdatedAt() != null ? product.getUpdatedAt().toString() : null);
+        writer.write('\n');
+    }
+    
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
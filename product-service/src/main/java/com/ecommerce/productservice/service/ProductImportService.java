@@ -0,0 +1,212 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.ids.SnowflakeIdGenerator;
+import com.ecommerce.productservice.catalog.CatalogFormat;
+import com.ecommerce.productservice.catalog.CsvProductRowReader;
+import com.ecommerce.productservice.catalog.NdjsonProductRowReader;
+import com.ecommerce.productservice.catalog.ProductRow;
+import com.ecommerce.productservice.catalog.ProductRowReader;
+import com.ecommerce.productservice.dto.ImportResult;
+import com.ecommerce.productservice.dto.ProductRequest;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.index.ProductIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON catalog into the products table.
+ *
+ * The input is consumed in batches of {@code catalog.import.batch-size} rows: each batch is
+ * validated in parallel against the same constraints as {@link ProductRequest}, then written
+ * with a single JDBC batch insert in its own transaction. While one batch is being inserted the
+ * next one is parsed and validated, so at most two batches are held in memory at any time.
+ */
+@Service
+public class ProductImportService {
+    
+    private static final Logger logger = Logger.getLogger(ProductImportService.class.getName());
+    
+    private static final String INSERT_SQL = "INSERT INTO products "
+            + "(id, name, description, price, stock, category, image_url, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final int MAX_REPORTED_ERRORS = 100;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private Validator validator;
+    
+    // Same generator as the Product entity's ids
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ProductIndex productIndex;
+    
+    @Value("${catalog.import.batch-size:1000}")
+    private int batchSize;
+    
+    @Value("${catalog.import.parallelism:4}")
+    private int parallelism;
+    
+    private ForkJoinPool validationPool;
+    
+    @PostConstruct
+    public void init() {
+        validationPool = new ForkJoinPool(parallelism);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        validationPool.shutdown();
+    }
+    
+    public ImportResult importProducts(InputStream input, CatalogFormat format) throws IOException {
+        long start = System.nanoTime();
+        AtomicLong rowsRead = new AtomicLong();
+        AtomicLong rowsImported = new AtomicLong();
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong rowsRejected = new AtomicLong();
+        
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try (ProductRowReader reader = openReader(input, format)) {
+            CompletableFuture<Void> inFlight = CompletableFuture.completedFuture(null);
+            List<ProductRow> chunk;
+            while (!(chunk = readChunk(reader)).isEmpty()) {
+                rowsRead.addAndGet(chunk.size());
+                List<ProductRequest> valid = validate(chunk, rowsRejected, errors);
+                
+                // Wait for the previous batch before queueing the next one to bound memory
+                inFlight.join();
+                inFlight = CompletableFuture.runAsync(() -> rowsImported.addAndGet(insertBatch(valid)), writer);
+            }
+            inFlight.join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Import failed after " + rowsImported.get() + " rows: "
+                    + e.getCause().getMessage(), e.getCause());
+        } finally {
+            writer.shutdown();
+        }
+        
+        long elapsedNanos = System.nanoTime() - start;
+        ImportResult result = new ImportResult();
+        result.setRowsRead(rowsRead.get());
+        result.setRowsImported(rowsImported.get());
+        result.setRowsRejected(rowsRejected.get());
+        result.setElapsedMs(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(elapsedNanos > 0 ? rowsImported.get() * 1_000_000_000.0 / elapsedNanos : 0);
+        result.setErrors(errors);
+        
+        logger.info(String.format("Imported %d products (%d rejected) in %d ms, %.0f rows/s",
+                result.getRowsImported(), result.getRowsRejected(), result.getElapsedMs(),
+                result.getRowsPerSecond()));
+        return result;
+    }
+    
+    private ProductRowReader openReader(InputStream input, CatalogFormat format) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        return format == CatalogFormat.CSV
+                ? new CsvProductRowReader(reader)
+                : new NdjsonProductRowReader(reader, objectMapper);
+    }
+    
+    private List<ProductRow> readChunk(ProductRowReader reader) throws IOException {
+        List<ProductRow> chunk = new ArrayList<>(batchSize);
+        ProductRow row;
+        while (chunk.size() < batchSize && (row = reader.next()) != null) {
+            chunk.add(row);
+        }
+        return chunk;
+    }
+    
+    private List<ProductRequest> validate(List<ProductRow> chunk, AtomicLong rowsRejected, List<String> errors) {
+        validationPool.submit(() -> chunk.parallelStream()
+                .filter(ProductRow::isValid)
+                .forEach(row -> {
+                    Set<ConstraintViolation<ProductRequest>> violations = validator.validate(row.getRequest());
+                    if (!violations.isEmpty()) {
+                        row.setError(violations.stream()
+                                .map(ConstraintViolation::getMessage)
+                                .sorted()
+                                .collect(Collectors.joining(", ")));
+                    }
+                })).join();
+        
+        List<ProductRequest> valid = new ArrayList<>(chunk.size());
+        for (ProductRow row : chunk) {
+            if (row.isValid()) {
+                valid.add(row.getRequest());
+            } else {
+                rowsRejected.incrementAndGet();
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add("Line " + row.getLineNumber() + ": " + row.getError());
+                }
+            }
+        }
+        return valid;
+    }
+    
+    private int insertBatch(List<ProductRequest> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Product> products = new ArrayList<>(batch.size());
+        for (ProductRequest request : batch) {
+            products.add(new Product(idGenerator.nextId(), request.getName(), request.getDescription(),
+                    request.getPrice(), request.getStock(), request.getCategory(), request.getImageUrl(), now, now));
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, products, products.size(), (ps, product) -> {
+                    ps.setLong(1, product.getId());
+                    ps.setString(2, product.getName());
+                    ps.setString(3, product.getDescription());
+                    ps.setBigDecimal(4, product.getPrice());
+                    ps.setInt(5, product.getStock());
+                    ps.setString(6, product.getCategory());
+                    ps.setString(7, product.getImageUrl());
+                    ps.setTimestamp(8, timestamp);
+                    ps.setTimestamp(9, timestamp);
+                }));
+        // Committed, so the rows can show up in listings without waiting for the index refresh
+        productIndex.putAll(products);
+        return batch.size();
+    }
+}
@@ -2,11 +2,19 @@ package com.ecommerce.productservice.service;
 
 import com.ecommerce.productservice.dto.ProductRequest;
 import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.events.StockStream;
+import com.ecommerce.productservice.index.ProductIndex;
+import com.ecommerce.productservice.index.ProductQuery;
+import com.ecommerce.productservice.inventory.HotStockService;
 import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.snapshot.CatalogSnapshot;
+import com.ecommerce.productservice.snapshot.CatalogSnapshotManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -16,21 +24,86 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
     
+    @Autowired
+    private HotStockService hotStockService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ProductChangeNotifier productChangeNotifier;
+    
+    @Autowired
+    private ProductIndex productIndex;
+    
+    @Autowired
+    private CatalogSnapshotManager catalogSnapshots;
+    
+    @Autowired
+    private StockStream stockStream;
+    
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        CatalogSnapshot snapshot = catalogSnapshots.current();
+        if (snapshot != null) {
+            return snapshot.all();
+        }
+        if (productIndex.isReady()) {
+            return withHotStock(productIndex.all());
+        }
+        return withHotStock(productRepository.findAll());
     }
     
+    @Transactional(readOnly = true)
     public Product getProductById(Long id) {
-        return productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        if (hotStockService.isHot(id)) {
+            return hotStockService.view(id);
+        }
+        CatalogSnapshot snapshot = catalogSnapshots.current();
+        if (snapshot != null) {
+            Product product = snapshot.get(id);
+            if (product == null) {
+                throw new RuntimeException("Product not found with id: " + id);
+            }
+            return product;
+        }
+        return findProduct(id);
     }
     
-    public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category);
+    @Transactional(readOnly = true)
+    public List<Product> getProductsByCategory(String category, boolean inStockOnly) {
+        CatalogSnapshot snapshot = catalogSnapshots.current();
+        if (snapshot != null) {
+            return snapshot.category(category, inStockOnly);
+        }
+        if (productIndex.isReady()) {
+            return withHotStock(productIndex.category(category, inStockOnly));
+        }
+        List<Product> products = withHotStock(productRepository.findByCategory(category));
+        if (!inStockOnly) {
+            return products;
+        }
+        return products.stream().filter(product -> product.getStock() > 0).toList();
     }
     
+    /**
+     * Filtered, sorted page of the catalog with facet counts, answered from the catalog snapshot
+     * on a read replica and from the in-memory index otherwise.
+     *
+     * @throws IllegalStateException while the index is still being built
+     */
+    public ProductIndex.Result browse(ProductQuery query) {
+        CatalogSnapshot snapshot = catalogSnapshots.current();
+        if (snapshot != null) {
+            return snapshot.query(query);
+        }
+        ProductIndex.Result result = productIndex.query(query);
+        return new ProductIndex.Result(result.total(), withHotStock(result.products()), result.facets());
+    }
+    
+    @Transactional(readOnly = true)
     public List<Product> searchProducts(String query) {
-        return productRepository.findByNameContainingIgnoreCase(query);
+        return withHotStock(productRepository.findByNameContainingIgnoreCase(query));
     }
     
     public Product createProduct(ProductRequest request) {
@@ -44,45 +117,124 @@ public class ProductService {
         product.setCreatedAt(LocalDateTime.now());
         product.setUpdatedAt(LocalDateTime.now());
         
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productIndex.put(saved);
+        return saved;
     }
     
     public Product updateProduct(Long id, ProductRequest request) {
-        Product product = getProductById(id);
-        product.setName(request.getName());
-        product.setDescription(request.getDescription());
-        product.setPrice(request.getPrice());
-        product.setStock(request.getStock());
-        product.setCategory(request.getCategory());
-        product.setImageUrl(request.getImageUrl());
-        product.setUpdatedAt(LocalDateTime.now());
+        boolean hot = hotStockService.isHot(id);
+        // Loaded, edited and saved in one transaction, so only the changed columns are written. A
+        // detached merge would write the stock it read back over the write-behind flush's deltas
+        Product saved = transactionTemplate.execute(status -> {
+            Product product = findProduct(id);
+            product.setName(request.getName());
+            product.setDescription(request.getDescription());
+            product.setPrice(request.getPrice());
+            product.setCategory(request.getCategory());
+            product.setImageUrl(request.getImageUrl());
+            product.setUpdatedAt(LocalDateTime.now());
+            if (!hot) {
+                product.setStock(request.getStock());
+            }
+            return productRepository.save(product);
+        });
         
-        return productRepository.save(product);
+        if (!hot) {
+            productIndex.put(saved);
+            productChangeNotifier.productChanged(id, saved.getUpdatedAt());
+            stockStream.stockChanged(saved);
+            return saved;
+        }
+        
+        // Hot SKU stock is owned by the in-memory counter; the stock column is left untouched
+        hotStockService.refreshSnapshot(saved);
+        productChangeNotifier.productChanged(id, saved.getUpdatedAt());
+        long delta = request.getStock() - hotStockService.available(id);
+        Product updated = delta != 0 ? hotStockService.adjustStock(id, Math.toIntExact(delta)) : hotStockService.view(id);
+        productIndex.put(updated);
+        stockStream.stockChanged(updated);
+        return updated;
     }
     
-    @Transactional
     public Product updateStock(Long id, Integer quantity) {
-        Product product = getProductById(id);
-        int newStock = product.getStock() + quantity;
-        
-        if (newStock < 0) {
-            throw new RuntimeException("Insufficient stock. Available: " + product.getStock());
+        return updateStock(id, quantity, null);
+    }
+    
+    /**
+     * @param expectedPrice price the caller charged for the stock it takes, or null to skip the check
+     * @throws PriceChangedException when {@code expectedPrice} is set and differs from the current price
+     */
+    public Product updateStock(Long id, Integer quantity, BigDecimal expectedPrice) {
+        if (hotStockService.isHot(id)) {
+            if (expectedPrice != null) {
+                checkPrice(hotStockService.view(id), expectedPrice);
+            }
+            // Not re-indexed per change: listings overlay the live counter (withHotStock) and the
+            // index's in-stock bit follows the write-behind flush within a refresh interval
+            Product updated = hotStockService.adjustStock(id, quantity);
+            stockStream.stockChanged(updated);
+            return updated;
         }
         
-        product.setStock(newStock);
-        product.setUpdatedAt(LocalDateTime.now());
-        
-        return productRepository.save(product);
+        Product updated = transactionTemplate.execute(status -> {
+            Product product = findProduct(id);
+            if (expectedPrice != null) {
+                checkPrice(product, expectedPrice);
+            }
+            int newStock = product.getStock() + quantity;
+            
+            if (newStock < 0) {
+                throw new RuntimeException("Insufficient stock. Available: " + product.getStock());
+            }
+            
+            product.setStock(newStock);
+            product.setUpdatedAt(LocalDateTime.now());
+            
+            return productRepository.save(product);
+        });
+        productIndex.put(updated);
+        stockStream.stockChanged(updated);
+        return updated;
     }
     
     public void deleteProduct(Long id) {
-        Product product = getProductById(id);
+        if (hotStockService.isHot(id)) {
+            throw new RuntimeException("Cannot delete product " + id + " while it is a hot SKU");
+        }
+        Product product = findProduct(id);
         productRepository.delete(product);
+        productIndex.remove(id);
+        productChangeNotifier.productChanged(id, LocalDateTime.now());
     }
     
+    // On the primary: order-service checks stock right before it reserves it, a lagging replica would say yes
+    @Transactional
     public boolean checkStock(Long id, Integer quantity) {
-        Product product = getProductById(id);
+        if (hotStockService.isHot(id)) {
+            return hotStockService.available(id) >= quantity;
+        }
+        Product product = findProduct(id);
         return product.getStock() >= quantity;
     }
+    
+    private static void checkPrice(Product product, BigDecimal expectedPrice) {
+        if (product.getPrice().compareTo(expectedPrice) != 0) {
+            throw new PriceChangedException(product.getId(), expectedPrice, product.getPrice());
+        }
+    }
+    
+    private Product findProduct(Long id) {
+        return productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+    }
+    
+    private List<Product> withHotStock(List<Product> products) {
+        if (!hotStockService.hasHotSkus()) {
+            return products;
+        }
+        return products.stream()
+                .map(product -> hotStockService.isHot(product.getId()) ? hotStockService.view(product.getId()) : product)
+                .toList();
+    }
 }
-
@@ -0,0 +1,55 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.inventory.HotStockService;
+import com.ecommerce.productservice.repository.ReactiveProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The product reads of {@link ProductService}, streamed from the database over R2DBC (see
+ * docs/REACTIVE-READS.md). Hot SKUs show their live stock, as in the blocking reads.
+ */
+@Service
+public class ReactiveProductService {
+    
+    @Autowired
+    private ReactiveProductRepository reactiveProductRepository;
+    
+    @Autowired
+    private HotStockService hotStockService;
+    
+    public Flux<Product> getAllProducts() {
+        return withHotStock(reactiveProductRepository.findAll());
+    }
+    
+    public Mono<Product> getProductById(Long id) {
+        if (hotStockService.isHot(id)) {
+            return Mono.fromSupplier(() -> hotStockService.view(id));
+        }
+        return reactiveProductRepository.findById(id);
+    }
+    
+    public Flux<Product> getProductsByCategory(String category, boolean inStockOnly) {
+        Flux<Product> products = withHotStock(reactiveProductRepository.findByCategory(category));
+        if (!inStockOnly) {
+            return products;
+        }
+        return products.filter(product -> product.getStock() > 0);
+    }
+    
+    public Flux<Product> searchProducts(String query) {
+        return withHotStock(reactiveProductRepository.findByNameContainingIgnoreCase(query));
+    }
+    
+    private Flux<Product> withHotStock(Flux<Product> products) {
+        if (!hotStockService.hasHotSkus()) {
+            return products;
+        }
+        return products.map(product -> hotStockService.isHot(product.getId())
+                ? hotStockService.view(product.getId())
+                : product);
+    }
+}
@@ -0,0 +1,354 @@
+package com.ecommerce.productservice.snapshot;
+
+import com.ecommerce.productservice.dto.ProductListing;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.index.ProductIndex;
+import com.ecommerce.productservice.index.ProductQuery;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Read-only, memory-mapped columnar copy of the catalog (see docs/CATALOG-SNAPSHOT.md).
+ *
+ * A snapshot is a directory with one file per column, rows in ascending id order. Fixed-width
+ * columns are read in place; a {@link Product} is only decoded for the rows a request returns,
+ * so the catalog itself lives in the page cache rather than on the heap.
+ *
+ * <pre>
+ * ids.bin            long   product id, ascending
+ * prices.bin         long   price in cents
+ * stock.bin          int
+ * category-codes.bin int    index into categories, -1 for none
+ * created-at.bin     long   UTC epoch microseconds
+ * updated-at.bin     long
+ * nulls.bin          byte   flags for the nullable columns
+ * names.off/.dat            UTF-8 bytes, rows + 1 end offsets
+ * descriptions.off/.dat
+ * image-urls.off/.dat
+ * categories.off/.dat       category dictionary
+ * category-start.bin int    first position of each category in category-rows.bin, plus the end
+ * category-rows.bin  int    rows grouped by category, id order within a category
+ * price-order.bin    int    rows by ascending price
+ * manifest.properties       written last: a directory without it is incomplete
+ * </pre>
+ *
+ * Instances are immutable and safe to share between threads.
+ */
+public final class CatalogSnapshot {
+    
+    static final String IDS = "ids.bin";
+    static final String PRICES = "prices.bin";
+    static final String STOCK = "stock.bin";
+    static final String CATEGORY_CODES = "category-codes.bin";
+    static final String CREATED_AT = "created-at.bin";
+    static final String UPDATED_AT = "updated-at.bin";
+    static final String NULLS = "nulls.bin";
+    static final String NAMES = "names";
+    static final String DESCRIPTIONS = "descriptions";
+    static final String IMAGE_URLS = "image-urls";
+    static final String CATEGORIES = "categories";
+    static final String CATEGORY_START = "category-start.bin";
+    static final String CATEGORY_ROWS = "category-rows.bin";
+    static final String PRICE_ORDER = "price-order.bin";
+    static final String MANIFEST = "manifest.properties";
+    
+    private final Path directory;
+    private final int rows;
+    private final Instant builtAt;
+    private final BigDecimal[] bandBounds;
+    private final long[] bandBoundCents;
+    
+    private final LongBuffer ids;
+    private final LongBuffer prices;
+    private final IntBuffer stock;
+    private final IntBuffer categoryCodes;
+    private final LongBuffer createdAt;
+    private final LongBuffer updatedAt;
+    private final ByteBuffer nulls;
+    private final StringColumn names;
+    private final StringColumn descriptions;
+    private final StringColumn imageUrls;
+    private final IntBuffer categoryStart;
+    private final IntBuffer categoryRows;
+    private final IntBuffer priceOrder;
+    
+    // The dictionary is small and read on every category lookup, so it is decoded once
+    private final String[] categories;
+    private final Map<String, Integer> categoryCodeByName = new HashMap<>();
+    
+    private CatalogSnapshot(Path directory, Properties manifest, BigDecimal[] bandBounds) throws IOException {
+        if (Integer.parseInt(manifest.getProperty("version")) != CatalogSnapshotWriter.FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot version in " + directory);
+        }
+        this.directory = directory;
+        this.rows = Integer.parseInt(manifest.getProperty("rows"));
+        this.builtAt = Instant.parse(manifest.getProperty("builtAt"));
+        this.bandBounds = bandBounds.clone();
+        Arrays.sort(this.bandBounds);
+        this.bandBoundCents = Arrays.stream(this.bandBounds).mapToLong(CatalogSnapshotWriter::toCents).toArray();
+        
+        ids = map(directory.resolve(IDS)).asLongBuffer();
+        prices = map(directory.resolve(PRICES)).asLongBuffer();
+        stock = map(directory.resolve(STOCK)).asIntBuffer();
+        categoryCodes = map(directory.resolve(CATEGORY_CODES)).asIntBuffer();
+        createdAt = map(directory.resolve(CREATED_AT)).asLongBuffer();
+        updatedAt = map(directory.resolve(UPDATED_AT)).asLongBuffer();
+        nulls = map(directory.resolve(NULLS));
+        names = new StringColumn(directory, NAMES);
+        descriptions = new StringColumn(directory, DESCRIPTIONS);
+        imageUrls = new StringColumn(directory, IMAGE_URLS);
+        categoryStart = map(directory.resolve(CATEGORY_START)).asIntBuffer();
+        categoryRows = map(directory.resolve(CATEGORY_ROWS)).asIntBuffer();
+        priceOrder = map(directory.resolve(PRICE_ORDER)).asIntBuffer();
+        
+        StringColumn dictionary = new StringColumn(directory, CATEGORIES);
+        categories = new String[Integer.parseInt(manifest.getProperty("categories"))];
+        for (int code = 0; code < categories.length; code++) {
+            categories[code] = dictionary.get(code);
+            categoryCodeByName.put(categories[code], code);
+        }
+        if (ids.limit() != rows || priceOrder.limit() != rows) {
+            throw new IOException("Snapshot columns do not match the manifest in " + directory);
+        }
+    }
+    
+    /**
+     * Maps a complete snapshot directory.
+     *
+     * @param bandBounds price band boundaries for the price facet
+     * @throws IOException when the directory is incomplete or unreadable
+     */
+    public static CatalogSnapshot open(Path directory, BigDecimal[] bandBounds) throws IOException {
+        Properties manifest = new Properties();
+        try (InputStream in = Files.newInputStream(directory.resolve(MANIFEST))) {
+            manifest.load(in);
+        } catch (NoSuchFileException e) {
+            throw new IOException("Incomplete snapshot, no manifest: " + directory, e);
+        }
+        return new CatalogSnapshot(directory, manifest, bandBounds);
+    }
+    
+    // The mapping stays valid after the channel is closed, and after the file is deleted
+    static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+    
+    public Path directory() {
+        return directory;
+    }
+    
+    public int size() {
+        return rows;
+    }
+    
+    public Instant builtAt() {
+        return builtAt;
+    }
+    
+    /**
+     * The product with this id, or null.
+     */
+    public Product get(long id) {
+        int low = 0;
+        int high = rows - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = ids.get(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return product(mid);
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * All products, oldest first.
+     */
+    public List<Product> all() {
+        List<Product> result = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            result.add(product(row));
+        }
+        return result;
+    }
+    
+    /**
+     * The products in {@code category}, oldest first.
+     */
+    public List<Product> category(String category, boolean inStockOnly) {
+        Integer code = categoryCodeByName.get(category);
+        if (code == null) {
+            return List.of();
+        }
+        int from = categoryStart.get(code);
+        int to = categoryStart.get(code + 1);
+        List<Product> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            int row = categoryRows.get(i);
+            if (!inStockOnly || stock.get(row) > 0) {
+                result.add(product(row));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Same contract as {@link ProductIndex#query}: one page of the matching products plus
+     * disjunctive facet counts.
+     *
+     * One pass over the fixed-width columns counts the matches and every facet; the page is then
+     * read in the requested order, stopping as soon as it is full.
+     */
+    public ProductIndex.Result query(ProductQuery query) {
+        int code = query.category() == null ? -1 : categoryCodeByName.getOrDefault(query.category(), -2);
+        long minCents = query.minPrice() == null ? Long.MIN_VALUE : ceilCents(query.minPrice());
+        long maxCents = query.maxPrice() == null ? Long.MAX_VALUE : floorCents(query.maxPrice());
+        
+        long total = 0;
+        long inStockCount = 0;
+        long[] categoryCounts = new long[categories.length];
+        long[] bandCounts = new long[bandBoundCents.length + 1];
+        for (int row = 0; row < rows; row++) {
+            int rowCode = categoryCodes.get(row);
+            long cents = prices.get(row);
+            boolean inStock = stock.get(row) > 0;
+            boolean categoryMatch = code == -1 || rowCode == code;
+            boolean priceMatch = cents >= minCents && cents <= maxCents;
+            boolean stockMatch = inStock || !query.inStockOnly();
+            
+            if (priceMatch && stockMatch && rowCode >= 0) {
+                categoryCounts[rowCode]++;
+            }
+            if (categoryMatch && stockMatch) {
+                bandCounts[band(cents)]++;
+            }
+            if (categoryMatch && priceMatch) {
+                if (inStock) {
+                    inStockCount++;
+                }
+                if (stockMatch) {
+                    total++;
+                }
+            }
+        }
+        
+        Map<String, Long> categoryFacet = new TreeMap<>();
+        for (int i = 0; i < categories.length; i++) {
+            if (categoryCounts[i] > 0) {
+                categoryFacet.put(categories[i], categoryCounts[i]);
+            }
+        }
+        List<ProductListing.PriceBand> bandFacet = new ArrayList<>(bandCounts.length);
+        for (int i = 0; i < bandCounts.length; i++) {
+            bandFacet.add(new ProductListing.PriceBand(i == 0 ? BigDecimal.ZERO : bandBounds[i - 1],
+                    i < bandBounds.length ? bandBounds[i] : null, bandCounts[i]));
+        }
+        
+        return new ProductIndex.Result(total, page(query, code, minCents, maxCents),
+                new ProductListing.Facets(categoryFacet, bandFacet, inStockCount));
+    }
+    
+    private List<Product> page(ProductQuery query, int code, long minCents, long maxCents) {
+        long skip = (long) query.page() * query.size();
+        List<Product> page = new ArrayList<>(Math.min(query.size(), 256));
+        for (int i = 0; i < rows && page.size() < query.size(); i++) {
+            int row = switch (query.sort()) {
+                case ID -> i;
+                case NEWEST -> rows - 1 - i;
+                case PRICE_ASC -> priceOrder.get(i);
+                case PRICE_DESC -> priceOrder.get(rows - 1 - i);
+            };
+            long cents = prices.get(row);
+            boolean match = (code == -1 || categoryCodes.get(row) == code)
+                    && cents >= minCents && cents <= maxCents
+                    && (!query.inStockOnly() || stock.get(row) > 0);
+            if (match && skip-- <= 0) {
+                page.add(product(row));
+            }
+        }
+        return page;
+    }
+    
+    private Product product(int row) {
+        byte rowNulls = nulls.get(row);
+        int code = categoryCodes.get(row);
+        return new Product(
+                ids.get(row),
+                names.get(row),
+                (rowNulls & CatalogSnapshotWriter.NULL_DESCRIPTION) != 0 ? null : descriptions.get(row),
+                BigDecimal.valueOf(prices.get(row), 2),
+                stock.get(row),
+                code < 0 ? null : categories[code],
+                (rowNulls & CatalogSnapshotWriter.NULL_IMAGE_URL) != 0 ? null : imageUrls.get(row),
+                (rowNulls & CatalogSnapshotWriter.NULL_CREATED_AT) != 0 ? null : fromMicros(createdAt.get(row)),
+                (rowNulls & CatalogSnapshotWriter.NULL_UPDATED_AT) != 0 ? null : fromMicros(updatedAt.get(row)));
+    }
+    
+    private int band(long cents) {
+        int band = 0;
+        while (band < bandBoundCents.length && cents >= bandBoundCents[band]) {
+            band++;
+        }
+        return band;
+    }
+    
+    private static long ceilCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.CEILING).unscaledValue().longValueExact();
+    }
+    
+    private static long floorCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.FLOOR).unscaledValue().longValueExact();
+    }
+    
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+    
+    private static final class StringColumn {
+        
+        private final IntBuffer offsets;
+        private final ByteBuffer data;
+        
+        StringColumn(Path directory, String name) throws IOException {
+            offsets = map(directory.resolve(name + ".off")).asIntBuffer();
+            data = map(directory.resolve(name + ".dat"));
+        }
+        
+        String get(int row) {
+            int start = offsets.get(row);
+            byte[] bytes = new byte[offsets.get(row + 1) - start];
+            data.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
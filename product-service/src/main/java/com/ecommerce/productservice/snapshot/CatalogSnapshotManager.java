@@ -0,0 +1,233 @@
+package com.ecommerce.productservice.snapshot;
+
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.service.ProductExportService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Builds the catalog snapshot from the database and swaps it in for readers (see
+ * docs/CATALOG-SNAPSHOT.md).
+ *
+ * Each build writes a new directory next to the current one and renames it into place, so a
+ * snapshot is never seen half-written. Readers hold on to the {@link CatalogSnapshot} they got
+ * from {@link #current()}: a swap does not disturb a request in progress, and the old mapping is
+ * released once the last of them is done with it.
+ */
+@Component
+public class CatalogSnapshotManager {
+    
+    private static final Logger logger = Logger.getLogger(CatalogSnapshotManager.class.getName());
+    
+    private static final String PAGE_SQL = "SELECT id, name, description, price, stock, category, image_url, "
+            + "created_at, updated_at FROM products WHERE id > ? ORDER BY id LIMIT ?";
+    
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${catalog.snapshot.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${catalog.snapshot.directory:./data/catalog-snapshot}")
+    private String directory;
+    
+    @Value("${catalog.snapshot.page-size:5000}")
+    private int pageSize;
+    
+    @Value("${catalog.index.price-bands:500,1000,5000,10000,50000,100000}")
+    private BigDecimal[] priceBands;
+    
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    
+    // One build at a time: a build asked for while another runs is skipped
+    private final ReentrantLock building = new ReentrantLock();
+    
+    private Timer buildTimer;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!enabled) {
+            return;
+        }
+        buildTimer = Timer.builder("catalog.snapshot.build")
+                .description("Building a catalog snapshot from the database")
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.size", this, manager -> manager.size())
+                .description("Products in the catalog snapshot being served")
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.age", this, manager -> manager.ageSeconds())
+                .description("Seconds since the catalog snapshot being served was built")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        
+        // A restart serves the last snapshot right away and replaces it once a fresh one is built
+        loadLatest();
+        refresh();
+    }
+    
+    /**
+     * Whether this instance serves reads from the snapshot and refuses writes.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * The snapshot to read from, or null while snapshots are disabled or none has been built yet.
+     */
+    public CatalogSnapshot current() {
+        return current.get();
+    }
+    
+    @Scheduled(fixedDelayString = "${catalog.snapshot.refresh-interval-ms:60000}",
+            initialDelayString = "${catalog.snapshot.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!enabled || !building.tryLock()) {
+            return;
+        }
+        try {
+            buildTimer.record(this::build);
+        } finally {
+            building.unlock();
+        }
+    }
+    
+    private void build() {
+        Path root = Paths.get(directory);
+        Path target = root.resolve(String.format("%s%015d", SNAPSHOT_PREFIX, System.currentTimeMillis()));
+        Path temporary = root.resolve(target.getFileName() + ".tmp");
+        long start = System.nanoTime();
+        try {
+            int rows;
+            try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(temporary)) {
+                writeCatalog(writer);
+                rows = writer.finish();
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            current.set(CatalogSnapshot.open(target, priceBands));
+            logger.info("Catalog snapshot of " + rows + " products built in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+            deleteAllBut(root, target);
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Catalog snapshot build failed, still serving the previous one", e);
+            delete(temporary);
+        }
+    }
+    
+    // Keyset pages on the primary key, each in its own read-only transaction so it can go to a replica
+    private void writeCatalog(CatalogSnapshotWriter writer) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        long lastId = 0;
+        List<Product> page;
+        do {
+            long after = lastId;
+            page = readOnly.execute(status ->
+                    jdbcTemplate.query(PAGE_SQL, ProductExportService.PRODUCT_ROW_MAPPER, after, pageSize));
+            for (Product product : page) {
+                try {
+                    writer.add(product);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == pageSize);
+    }
+    
+    private void loadLatest() {
+        Path root = Paths.get(directory);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> entries = Files.list(root)) {
+            List<Path> snapshots = entries
+                    .filter(path -> path.getFileName().toString().startsWith(SNAPSHOT_PREFIX))
+                    .filter(path -> !path.getFileName().toString().endsWith(".tmp"))
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+            for (Path snapshot : snapshots) {
+                try {
+                    current.set(CatalogSnapshot.open(snapshot, priceBands));
+                    logger.info("Serving catalog snapshot " + snapshot.getFileName() + " from the previous run");
+                    return;
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Skipping unreadable catalog snapshot " + snapshot, e);
+                }
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not list catalog snapshots in " + root, e);
+        }
+    }
+    
+    // Mapped files can be deleted on Linux; where they cannot, the next build tries again
+    private void deleteAllBut(Path root, Path keep) {
+        try (Stream<Path> entries = Files.list(root)) {
+            entries.filter(path -> path.getFileName().toString().startsWith(SNAPSHOT_PREFIX))
+                    .filter(path -> !path.equals(keep))
+                    .forEach(this::delete);
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Could not clean up " + root, e);
+        }
+    }
+    
+    private void delete(Path snapshot) {
+        if (!Files.exists(snapshot)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(snapshot)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Could not delete " + snapshot, e);
+        }
+    }
+    
+    private int size() {
+        CatalogSnapshot snapshot = current.get();
+        return snapshot == null ? 0 : snapshot.size();
+    }
+    
+    private double ageSeconds() {
+        CatalogSnapshot snapshot = current.get();
+        return snapshot == null ? Double.NaN : Duration.between(snapshot.builtAt(), Instant.now()).toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,251 @@
+package com.ecommerce.productservice.snapshot;
+
+import com.ecommerce.productservice.entity.Product;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Writes a catalog snapshot directory, one product at a time in ascending id order (see
+ * {@link CatalogSnapshot} for the layout).
+ *
+ * Columns are streamed straight to their files. Only the two row orders are built on the heap,
+ * about 16 bytes per product, once every row has been written.
+ */
+class CatalogSnapshotWriter implements Closeable {
+    
+    static final int FORMAT_VERSION = 1;
+    
+    // Price order sorts (cents << ROW_BITS | row) as plain longs: DECIMAL(10,2) needs 34 bits
+    static final int ROW_BITS = 29;
+    static final long MAX_PRICE_CENTS = (1L << (Long.SIZE - 1 - ROW_BITS)) - 1;
+    
+    static final byte NULL_DESCRIPTION = 1;
+    static final byte NULL_IMAGE_URL = 2;
+    static final byte NULL_CREATED_AT = 4;
+    static final byte NULL_UPDATED_AT = 8;
+    
+    private final Path directory;
+    private final DataOutputStream ids;
+    private final DataOutputStream prices;
+    private final DataOutputStream stocks;
+    private final DataOutputStream categoryCodes;
+    private final DataOutputStream createdAt;
+    private final DataOutputStream updatedAt;
+    private final DataOutputStream nulls;
+    private final StringColumnWriter names;
+    private final StringColumnWriter descriptions;
+    private final StringColumnWriter imageUrls;
+    private final Map<String, Integer> categories = new LinkedHashMap<>();
+    private final List<Closeable> open = new ArrayList<>();
+    
+    private int rows;
+    private long lastId = Long.MIN_VALUE;
+    
+    CatalogSnapshotWriter(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        ids = column(CatalogSnapshot.IDS);
+        prices = column(CatalogSnapshot.PRICES);
+        stocks = column(CatalogSnapshot.STOCK);
+        categoryCodes = column(CatalogSnapshot.CATEGORY_CODES);
+        createdAt = column(CatalogSnapshot.CREATED_AT);
+        updatedAt = column(CatalogSnapshot.UPDATED_AT);
+        nulls = column(CatalogSnapshot.NULLS);
+        names = new StringColumnWriter(CatalogSnapshot.NAMES);
+        descriptions = new StringColumnWriter(CatalogSnapshot.DESCRIPTIONS);
+        imageUrls = new StringColumnWriter(CatalogSnapshot.IMAGE_URLS);
+    }
+    
+    void add(Product product) throws IOException {
+        if (product.getId() <= lastId) {
+            throw new IllegalArgumentException("Products must be added in ascending id order, got "
+                    + product.getId() + " after " + lastId);
+        }
+        if (rows == 1 << ROW_BITS) {
+            throw new IllegalStateException("A snapshot holds at most " + (1 << ROW_BITS) + " products");
+        }
+        long cents = toCents(product.getPrice());
+        if (cents < 0 || cents > MAX_PRICE_CENTS) {
+            throw new IllegalArgumentException("Price out of range for product " + product.getId());
+        }
+        lastId = product.getId();
+        
+        ids.writeLong(product.getId());
+        prices.writeLong(cents);
+        stocks.writeInt(product.getStock());
+        categoryCodes.writeInt(product.getCategory() == null
+                ? -1
+                : categories.computeIfAbsent(product.getCategory(), category -> categories.size()));
+        createdAt.writeLong(toMicros(product.getCreatedAt()));
+        updatedAt.writeLong(toMicros(product.getUpdatedAt()));
+        nulls.writeByte((product.getDescription() == null ? NULL_DESCRIPTION : 0)
+                | (product.getImageUrl() == null ? NULL_IMAGE_URL : 0)
+                | (product.getCreatedAt() == null ? NULL_CREATED_AT : 0)
+                | (product.getUpdatedAt() == null ? NULL_UPDATED_AT : 0));
+        names.add(product.getName());
+        descriptions.add(product.getDescription());
+        imageUrls.add(product.getImageUrl());
+        rows++;
+    }
+    
+    /**
+     * Flushes the columns, writes the row orders and finally the manifest, whose presence marks
+     * the snapshot as complete.
+     *
+     * @return products written
+     */
+    int finish() throws IOException {
+        close();
+        
+        StringColumnWriter dictionary = new StringColumnWriter(CatalogSnapshot.CATEGORIES);
+        for (String category : categories.keySet()) {
+            dictionary.add(category);
+        }
+        dictionary.close();
+        
+        writeCategoryOrder();
+        writePriceOrder();
+        
+        Properties manifest = new Properties();
+        manifest.setProperty("version", String.valueOf(FORMAT_VERSION));
+        manifest.setProperty("rows", String.valueOf(rows));
+        manifest.setProperty("categories", String.valueOf(categories.size()));
+        manifest.setProperty("builtAt", Instant.now().toString());
+        try (OutputStream out = Files.newOutputStream(directory.resolve(CatalogSnapshot.MANIFEST))) {
+            manifest.store(out, "Catalog snapshot");
+        }
+        return rows;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        for (Closeable column : open) {
+            column.close();
+        }
+        open.clear();
+    }
+    
+    // Rows grouped by category code, in id order within each category, plus where each group starts
+    private void writeCategoryOrder() throws IOException {
+        IntBuffer codes = CatalogSnapshot.map(directory.resolve(CatalogSnapshot.CATEGORY_CODES)).asIntBuffer();
+        int[] start = new int[categories.size() + 1];
+        for (int row = 0; row < rows; row++) {
+            int code = codes.get(row);
+            if (code >= 0) {
+                start[code + 1]++;
+            }
+        }
+        for (int code = 0; code < categories.size(); code++) {
+            start[code + 1] += start[code];
+        }
+        int[] order = new int[start[categories.size()]];
+        int[] next = Arrays.copyOf(start, categories.size());
+        for (int row = 0; row < rows; row++) {
+            int code = codes.get(row);
+            if (code >= 0) {
+                order[next[code]++] = row;
+            }
+        }
+        writeInts(CatalogSnapshot.CATEGORY_START, start);
+        writeInts(CatalogSnapshot.CATEGORY_ROWS, order);
+    }
+    
+    // Rows by ascending price, ties in id order
+    private void writePriceOrder() throws IOException {
+        LongBuffer cents = CatalogSnapshot.map(directory.resolve(CatalogSnapshot.PRICES)).asLongBuffer();
+        long[] keys = new long[rows];
+        for (int row = 0; row < rows; row++) {
+            keys[row] = cents.get(row) << ROW_BITS | row;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[rows];
+        long rowMask = (1L << ROW_BITS) - 1;
+        for (int i = 0; i < rows; i++) {
+            order[i] = (int) (keys[i] & rowMask);
+        }
+        writeInts(CatalogSnapshot.PRICE_ORDER, order);
+    }
+    
+    private void writeInts(String name, int[] values) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(directory.resolve(name)), 64 * 1024))) {
+            for (int value : values) {
+                out.writeInt(value);
+            }
+        }
+    }
+    
+    private DataOutputStream column(String name) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(directory.resolve(name)), 64 * 1024));
+        open.add(out);
+        return out;
+    }
+    
+    static long toCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return 0;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+    
+    /**
+     * UTF-8 bytes of every value back to back, and the offset where each row's value ends
+     * ({@code rows + 1} offsets, starting with 0). Null is stored as empty.
+     */
+    private final class StringColumnWriter implements Closeable {
+        
+        private final DataOutputStream offsets;
+        private final OutputStream data;
+        private long position;
+        
+        StringColumnWriter(String name) throws IOException {
+            offsets = column(name + ".off");
+            data = new BufferedOutputStream(Files.newOutputStream(directory.resolve(name + ".dat")), 64 * 1024);
+            open.add(data);
+            offsets.writeInt(0);
+        }
+        
+        void add(String value) throws IOException {
+            if (value != null) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                data.write(bytes);
+                position += bytes.length;
+                if (position > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("String column over 2 GB: " + directory);
+                }
+            }
+            offsets.writeInt((int) position);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            offsets.close();
+            data.close();
+        }
+    }
+}
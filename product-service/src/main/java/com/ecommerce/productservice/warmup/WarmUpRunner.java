@@ -0,0 +1,147 @@
+package com.ecommerce.productservice.warmup;
+
+import com.ecommerce.auth.JwtTokenService;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.support.jdbc.ConnectionPools;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Warms the service up before it reports ready (see docs/WARMUP.md). Spring Boot runs
+ * {@link ApplicationRunner}s before it marks the application ready, so until this returns,
+ * {@code /actuator/health/readiness} answers 503 and the instance is not registered.
+ *
+ * It opens the database pools' connections, then sends the main reads through the service's own
+ * HTTP stack with a bearer token: product by id (also as order-service asks for it), stock check,
+ * category, browse page, search and the NDJSON read. That compiles the hot paths and loads
+ * Hibernate's, Jackson's and the token library's classes before real traffic arrives. Failures
+ * are logged and do not hold up readiness.
+ */
+@Component
+public class WarmUpRunner implements ApplicationRunner {
+    
+    private static final Logger logger = Logger.getLogger(WarmUpRunner.class.getName());
+    
+    private static final Long WARMUP_USER_ID = 0L;
+    
+    @Autowired
+    private Environment environment;
+    
+    @Autowired
+    private ConnectionPools connectionPools;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private JwtTokenService jwtTokenService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${warmup.iterations:100}")
+    private int iterations;
+    
+    @Value("${warmup.max-duration:30s}")
+    private Duration maxDuration;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        int connections = connectionPools.openIdleConnections();
+        List<HttpRequest> requests = requests("http://localhost:" + environment.getProperty("local.server.port"),
+                jwtTokenService.issue(WARMUP_USER_ID, "warmup", "USER"));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        int sent = 0;
+        int failed = 0;
+        try {
+            for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+                for (HttpRequest request : requests) {
+                    sent++;
+                    if (!send(client, request)) {
+                        failed++;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long elapsed = System.nanoTime() - start;
+        meterRegistry.timer("startup.warmup").record(elapsed, TimeUnit.NANOSECONDS);
+        logger.info(String.format("Warm-up took %d ms: %d connections opened, %d requests, %d failed",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), connections, sent, failed));
+    }
+    
+    private List<HttpRequest> requests(String baseUrl, String token) {
+        List<Product> sample = productRepository.findAll(PageRequest.of(0, 10)).getContent();
+        List<HttpRequest> requests = new ArrayList<>();
+        // An empty catalog still exercises the lookups, answered with 404s and empty lists
+        String id = sample.isEmpty() ? "1" : String.valueOf(sample.get(0).getId());
+        String category = sample.isEmpty() ? "warmup" : sample.get(0).getCategory();
+        String word = sample.isEmpty() ? "warmup" : sample.get(0).getName().split("\\s+")[0];
+        for (Product product : sample) {
+            requests.add(get(baseUrl + "/api/products/" + product.getId(), token, "application/json"));
+        }
+        requests.add(get(baseUrl + "/api/products/" + id, token, "application/json"));
+        requests.add(get(baseUrl + "/api/products/" + id + "?fields=id,name,price,category,updatedAt", token,
+                "application/cbor"));
+        requests.add(get(baseUrl + "/api/products/" + id + "/check-stock?quantity=1", token, "application/json"));
+        requests.add(get(baseUrl + "/api/products/category/" + encode(category), token, "application/json"));
+        requests.add(get(baseUrl + "/api/products/browse?category=" + encode(category), token, "application/json"));
+        requests.add(get(baseUrl + "/api/products/search?query=" + encode(word), token, "application/json"));
+        requests.add(get(baseUrl + "/api/products/" + id, token, "application/x-ndjson"));
+        return requests;
+    }
+    
+    // Client errors are expected (unknown ids); only server errors and I/O failures count
+    private static boolean send(HttpClient client, HttpRequest request) throws InterruptedException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 500;
+        } catch (IOException e) {
+            logger.fine("Warm-up request " + request.uri() + " failed: " + e);
+            return false;
+        }
+    }
+    
+    private static HttpRequest get(String uri, String token, String accept) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .timeout(Duration.ofSeconds(5))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", accept)
+                .build();
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,63 @@
+#!/usr/bin/env bash
+# Compares startup of a service as a plain fat jar and as the cds profile build
+# (AOT-processed context + AppCDS archive). Build first with: mvn -Pcds package -DskipTests
+#
+#   scripts/measure-startup.sh <service-dir> [runs]
+#
+# Prints, per mode, the "Started ... in" time Spring reports and the wall-clock time from
+# launching the JVM to the first successful response from the health endpoint.
+# No database is needed: schema and JDBC metadata access and the warm-up (docs/WARMUP.md) are
+# switched off for the runs.
+set -euo pipefail
+
+SERVICE=${1:?usage: $0 <service-dir> [runs]}
+RUNS=${2:-5}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+TARGET="$ROOT/$SERVICE/target"
+PORT=${PORT:-18999}
+
+case "$SERVICE" in
+    api-gateway) HEALTH=/health ;;
+    user-service) HEALTH=/api/users/health ;;
+    product-service) HEALTH=/api/products/health ;;
+    order-service) HEALTH=/api/orders/health ;;
+    *) echo "unknown service: $SERVICE" >&2; exit 1 ;;
+esac
+
+FAT_JAR=$(ls "$TARGET"/"$SERVICE"-*.jar | grep -v -- '-cds.jar' | head -1)
+CDS_DIR="$TARGET/cds"
+CDS_JAR=$(ls "$CDS_DIR"/*-cds.jar)
+ARGS=(--server.port=$PORT --tracing.file.enabled=false --warmup.enabled=false
+      --spring.jpa.hibernate.ddl-auto=none
+      --spring.jpa.properties.hibernate.temp.use_jdbc_metadata_defaults=false)
+
+now_ms() { date +%s%3N; }
+
+run() {
+    local mode=$1; shift
+    local log
+    log=$(mktemp)
+    local start
+    start=$(now_ms)
+    "$@" "${ARGS[@]}" > "$log" 2>&1 &
+    local pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT$HEALTH"; do
+        if ! kill -0 $pid 2>/dev/null; then
+            echo "$mode: process exited, log in $log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    local first_request=$(( $(now_ms) - start ))
+    kill $pid
+    wait $pid 2>/dev/null || true
+    local started
+    started=$(grep -o 'Started [A-Za-z]* in [0-9.]* seconds' "$log" | grep -o '[0-9.]* seconds' || echo "?")
+    printf '%-8s started in %-14s first request after %6d ms\n' "$mode" "$started" "$first_request"
+    rm -f "$log"
+}
+
+for i in $(seq "$RUNS"); do
+    run fat-jar java -jar "$FAT_JAR"
+    run cds java -Xlog:cds=off -XX:SharedArchiveFile="$CDS_DIR/application.jsa" -Dspring.aot.enabled=true -jar "$CDS_JAR"
+done
@@ -0,0 +1,142 @@
+package com.ecommerce.registry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registry kept in a directory shared by all instances (a local path, or a volume mounted into
+ * every container): {@code <directory>/<serviceId>/<instanceId>.json}. A heartbeat touches the
+ * file; readers skip files whose modification time is older than the TTL, so a crashed instance
+ * drops out without anyone cleaning up after it. Readers delete files that have been stale for
+ * ten TTLs.
+ *
+ * Lookups are cached for {@code refreshInterval} so a busy client lists the directory about
+ * once a second, not once per request.
+ */
+public class FileServiceRegistry implements ServiceRegistry {
+    
+    private static final Logger logger = Logger.getLogger(FileServiceRegistry.class.getName());
+    
+    private static final int ABANDONED_AFTER_TTLS = 10;
+    
+    private final Path directory;
+    private final Duration ttl;
+    private final Duration refreshInterval;
+    private final Clock clock;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    
+    public FileServiceRegistry(Path directory, Duration ttl, Duration refreshInterval) {
+        this(directory, ttl, refreshInterval, Clock.systemUTC());
+    }
+    
+    FileServiceRegistry(Path directory, Duration ttl, Duration refreshInterval, Clock clock) {
+        this.directory = directory;
+        this.ttl = ttl;
+        this.refreshInterval = refreshInterval;
+        this.clock = clock;
+    }
+    
+    @Override
+    public void register(ServiceInstance instance) {
+        Path file = fileOf(instance);
+        try {
+            Files.createDirectories(file.getParent());
+            // Written aside and moved into place so readers never see a half-written file
+            Path temp = Files.createTempFile(file.getParent(), instance.instanceId(), ".tmp");
+            objectMapper.writeValue(temp.toFile(), instance);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to register " + instance.instanceId() + " in " + directory, e);
+        }
+    }
+    
+    @Override
+    public void heartbeat(ServiceInstance instance) {
+        try {
+            Files.setLastModifiedTime(fileOf(instance), FileTime.fromMillis(clock.millis()));
+        } catch (NoSuchFileException e) {
+            // Removed from under us (directory wiped, volume recreated): announce again
+            register(instance);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to heartbeat " + instance.instanceId(), e);
+        }
+    }
+    
+    @Override
+    public void deregister(ServiceInstance instance) {
+        try {
+            Files.deleteIfExists(fileOf(instance));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to deregister " + instance.instanceId(), e);
+        }
+    }
+    
+    @Override
+    public List<ServiceInstance> getInstances(String serviceId) {
+        long now = clock.millis();
+        Snapshot snapshot = snapshots.get(serviceId);
+        if (snapshot == null || now - snapshot.loadedAt() >= refreshInterval.toMillis()) {
+            snapshot = new Snapshot(scan(serviceId, now), now);
+            snapshots.put(serviceId, snapshot);
+        }
+        return snapshot.instances();
+    }
+    
+    private List<ServiceInstance> scan(String serviceId, long now) {
+        Path serviceDirectory = directory.resolve(serviceId);
+        if (!Files.isDirectory(serviceDirectory)) {
+            return List.of();
+        }
+        long oldest = now - ttl.toMillis();
+        long abandoned = now - ttl.toMillis() * ABANDONED_AFTER_TTLS;
+        List<ServiceInstance> instances = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(serviceDirectory, "*.json")) {
+            for (Path file : files) {
+                try {
+                    long modified = Files.getLastModifiedTime(file).toMillis();
+                    if (modified >= oldest) {
+                        instances.add(objectMapper.readValue(file.toFile(), ServiceInstance.class));
+                    } else if (modified < abandoned) {
+                        // Left behind by an instance that was killed before it could deregister
+                        Files.deleteIfExists(file);
+                    }
+                } catch (IOException e) {
+                    // Deregistered between listing and reading
+                    logger.log(Level.FINE, "Skipping " + file, e);
+                }
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to list " + serviceDirectory, e);
+        }
+        return List.copyOf(instances);
+    }
+    
+    private Path fileOf(ServiceInstance instance) {
+        return directory.resolve(instance.serviceId()).resolve(instance.instanceId() + ".json");
+    }
+    
+    private record Snapshot(List<ServiceInstance> instances, long loadedAt) {
+    }
+}
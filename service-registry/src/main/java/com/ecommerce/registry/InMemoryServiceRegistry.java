@@ -0,0 +1,62 @@
+package com.ecommerce.registry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry held in this JVM only. Used when no shared directory is configured, where it
+ * effectively leaves discovery to the static instances.
+ */
+public class InMemoryServiceRegistry implements ServiceRegistry {
+    
+    private final Map<String, Map<String, Registration>> services = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Clock clock;
+    
+    public InMemoryServiceRegistry(Duration ttl) {
+        this(ttl, Clock.systemUTC());
+    }
+    
+    InMemoryServiceRegistry(Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+    
+    @Override
+    public void register(ServiceInstance instance) {
+        services.computeIfAbsent(instance.serviceId(), id -> new ConcurrentHashMap<>())
+                .put(instance.instanceId(), new Registration(instance, clock.millis()));
+    }
+    
+    @Override
+    public void heartbeat(ServiceInstance instance) {
+        register(instance);
+    }
+    
+    @Override
+    public void deregister(ServiceInstance instance) {
+        Map<String, Registration> instances = services.get(instance.serviceId());
+        if (instances != null) {
+            instances.remove(instance.instanceId());
+        }
+    }
+    
+    @Override
+    public List<ServiceInstance> getInstances(String serviceId) {
+        Map<String, Registration> instances = services.get(serviceId);
+        if (instances == null) {
+            return List.of();
+        }
+        long oldest = clock.millis() - ttl.toMillis();
+        return instances.values().stream()
+                .filter(registration -> registration.lastHeartbeat() >= oldest)
+                .map(Registration::instance)
+                .toList();
+    }
+    
+    private record Registration(ServiceInstance instance, long lastHeartbeat) {
+    }
+}
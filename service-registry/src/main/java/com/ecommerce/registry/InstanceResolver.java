@@ -0,0 +1,53 @@
+package com.ecommerce.registry;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Instances of a service: the registered ones, or the configured static ones while none are
+ * registered. The static list keeps a single-host setup working without any registry.
+ *
+ * A service with a fallback resolves to the fallback's instances while none of its own are
+ * registered, for example read replicas falling back to the primary service.
+ */
+public class InstanceResolver {
+    
+    private final ServiceRegistry registry;
+    private final Map<String, List<ServiceInstance>> staticInstances;
+    private final Map<String, String> fallbacks;
+    
+    public InstanceResolver(ServiceRegistry registry, Map<String, List<String>> staticUrls) {
+        this(registry, staticUrls, Map.of());
+    }
+    
+    public InstanceResolver(ServiceRegistry registry, Map<String, List<String>> staticUrls,
+                            Map<String, String> fallbacks) {
+        this.registry = registry;
+        this.fallbacks = Map.copyOf(fallbacks);
+        this.staticInstances = staticUrls.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey,
+                        entry -> toInstances(entry.getKey(), entry.getValue())));
+    }
+    
+    public List<ServiceInstance> resolve(String serviceId) {
+        List<ServiceInstance> registered = registry.getInstances(serviceId);
+        if (!registered.isEmpty()) {
+            return registered;
+        }
+        String fallback = fallbacks.get(serviceId);
+        if (fallback != null && !fallback.equals(serviceId)) {
+            return resolve(fallback);
+        }
+        return staticInstances.getOrDefault(serviceId, List.of());
+    }
+    
+    private static List<ServiceInstance> toInstances(String serviceId, List<String> urls) {
+        return urls.stream()
+                .filter(url -> !url.isBlank())
+                .map(url -> URI.create(url.trim()))
+                .map(uri -> new ServiceInstance(serviceId, "static-" + uri.getAuthority(), uri))
+                .toList();
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.registry;
+
+import com.ecommerce.registry.balancer.LoadBalancer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+import java.nio.file.Path;
+
+@AutoConfiguration
+@EnableConfigurationProperties(RegistryProperties.class)
+public class RegistryAutoConfiguration {
+    
+    // Decided here rather than with conditions: AOT builds freeze conditions at build time,
+    // and the directory is only known when the container starts
+    @Bean
+    @ConditionalOnMissingBean
+    public ServiceRegistry serviceRegistry(RegistryProperties properties) {
+        String directory = properties.getDirectory();
+        if (directory == null || directory.isBlank()) {
+            return new InMemoryServiceRegistry(properties.getTtl());
+        }
+        return new FileServiceRegistry(Path.of(directory), properties.getTtl(), properties.getRefreshInterval());
+    }
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public InstanceResolver instanceResolver(ServiceRegistry serviceRegistry, RegistryProperties properties) {
+        return new InstanceResolver(serviceRegistry, properties.getStaticInstances(), properties.getFallbacks());
+    }
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public LoadBalancer loadBalancer(InstanceResolver instanceResolver, RegistryProperties properties) {
+        return new LoadBalancer(instanceResolver, properties.getBalancer());
+    }
+    
+    @Bean
+    @ConditionalOnWebApplication
+    public ServiceRegistration serviceRegistration(ServiceRegistry serviceRegistry, RegistryProperties properties,
+                                                   @Value("${spring.application.name}") String serviceId) {
+        return new ServiceRegistration(serviceRegistry, properties, serviceId);
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.registry;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties("registry")
+public class RegistryProperties {
+    
+    /**
+     * Shared directory holding the registrations. Blank keeps the registry in memory, which
+     * leaves clients with the static instances only.
+     */
+    private String directory;
+    
+    /**
+     * Whether this application registers itself. Clients such as the gateway turn it off.
+     */
+    private boolean register = true;
+    
+    private Duration heartbeatInterval = Duration.ofSeconds(2);
+    
+    /**
+     * How long a registration lives without a heartbeat.
+     */
+    private Duration ttl = Duration.ofSeconds(6);
+    
+    /**
+     * How long a client reuses its last lookup of a service.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(1);
+    
+    private Instance instance = new Instance();
+    
+    /**
+     * Fallback base URLs per service id, used while no instance of that service is registered.
+     */
+    private Map<String, List<String>> staticInstances = new LinkedHashMap<>();
+    
+    /**
+     * Service to use instead, per service id, while no instance of that service is registered.
+     * Checked before the static instances.
+     */
+    private Map<String, String> fallbacks = new LinkedHashMap<>();
+    
+    private Balancer balancer = new Balancer();
+    
+    @Data
+    public static class Instance {
+        
+        /**
+         * Host other applications reach this instance at. Defaults to the first non-loopback
+         * IPv4 address.
+         */
+        private String host;
+    }
+    
+    @Data
+    public static class Balancer {
+        
+        private Strategy strategy = Strategy.EWMA;
+        
+        /**
+         * Consecutive failures after which an instance is ejected.
+         */
+        private int failureThreshold = 3;
+        
+        /**
+         * First ejection period. Doubles with each ejection in a row, up to maxEjectionTime.
+         */
+        private Duration ejectionTime = Duration.ofSeconds(5);
+        
+        private Duration maxEjectionTime = Duration.ofSeconds(60);
+        
+        /**
+         * Time constant of the response time average: older samples weigh less the longer ago they were.
+         */
+        private Duration ewmaDecay = Duration.ofSeconds(10);
+    }
+    
+    public enum Strategy {
+        /**
+         * Fewest requests in flight.
+         */
+        LEAST_OUTSTANDING,
+        /**
+         * Lowest expected latency: moving average of response times, times requests in flight.
+         */
+        EWMA
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.registry;
+
+import java.net.URI;
+
+/**
+ * One running instance of a service, reachable at {@code uri}.
+ */
+public record ServiceInstance(String serviceId, String instanceId, URI uri) {
+}
@@ -0,0 +1,144 @@
+package com.ecommerce.registry;
+
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.SmartApplicationListener;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registers this application once it accepts traffic and keeps the registration alive with
+ * heartbeats. It deregisters as soon as readiness goes away or the context closes, so clients
+ * stop picking it before the server stops listening.
+ */
+public class ServiceRegistration implements SmartApplicationListener {
+    
+    private static final Logger logger = Logger.getLogger(ServiceRegistration.class.getName());
+    
+    private final ServiceRegistry registry;
+    private final RegistryProperties properties;
+    private final String serviceId;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "registry-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private volatile int port;
+    private volatile ServiceInstance instance;
+    private ScheduledFuture<?> heartbeat;
+    
+    public ServiceRegistration(ServiceRegistry registry, RegistryProperties properties, String serviceId) {
+        this.registry = registry;
+        this.properties = properties;
+        this.serviceId = serviceId;
+    }
+    
+    @Override
+    public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+        return WebServerInitializedEvent.class.isAssignableFrom(eventType)
+                || AvailabilityChangeEvent.class.isAssignableFrom(eventType)
+                || ContextClosedEvent.class.isAssignableFrom(eventType);
+    }
+    
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (event instanceof WebServerInitializedEvent initialized) {
+            // Management servers on a separate port publish this event too
+            if (initialized.getApplicationContext().getServerNamespace() == null) {
+                port = initialized.getWebServer().getPort();
+            }
+        } else if (event instanceof AvailabilityChangeEvent<?> change) {
+            if (change.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+                register();
+            } else if (change.getState() == ReadinessState.REFUSING_TRAFFIC) {
+                deregister();
+            }
+        } else if (event instanceof ContextClosedEvent) {
+            deregister();
+            scheduler.shutdownNow();
+        }
+    }
+    
+    public ServiceInstance getInstance() {
+        return instance;
+    }
+    
+    private synchronized void register() {
+        if (!properties.isRegister() || instance != null || port <= 0) {
+            return;
+        }
+        String host = properties.getInstance().getHost();
+        if (host == null || host.isBlank()) {
+            host = localAddress();
+        }
+        ServiceInstance self = new ServiceInstance(serviceId,
+                serviceId + "-" + host + "-" + port + "-" + UUID.randomUUID().toString().substring(0, 8),
+                URI.create("http://" + host + ":" + port));
+        try {
+            registry.register(self);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Failed to register " + self.instanceId() + ", will retry with the next heartbeat", e);
+        }
+        instance = self;
+        long interval = properties.getHeartbeatInterval().toMillis();
+        heartbeat = scheduler.scheduleWithFixedDelay(this::sendHeartbeat, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info("Registered " + self.instanceId() + " at " + self.uri());
+    }
+    
+    private synchronized void deregister() {
+        if (instance == null) {
+            return;
+        }
+        heartbeat.cancel(false);
+        registry.deregister(instance);
+        logger.info("Deregistered " + instance.instanceId());
+        instance = null;
+    }
+    
+    private void sendHeartbeat() {
+        ServiceInstance self = instance;
+        if (self == null) {
+            return;
+        }
+        try {
+            registry.heartbeat(self);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Heartbeat failed for " + self.instanceId(), e);
+        }
+    }
+    
+    private static String localAddress() {
+        try {
+            for (NetworkInterface networkInterface : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+                if (!networkInterface.isUp() || networkInterface.isLoopback()) {
+                    continue;
+                }
+                for (InetAddress address : Collections.list(networkInterface.getInetAddresses())) {
+                    if (address instanceof Inet4Address && !address.isLoopbackAddress()) {
+                        return address.getHostAddress();
+                    }
+                }
+            }
+            return InetAddress.getLocalHost().getHostAddress();
+        } catch (SocketException | UnknownHostException e) {
+            return "localhost";
+        }
+    }
+}
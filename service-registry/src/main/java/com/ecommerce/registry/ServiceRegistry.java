@@ -0,0 +1,21 @@
+package com.ecommerce.registry;
+
+import java.util.List;
+
+/**
+ * Where instances announce themselves and where clients look them up. An instance stays
+ * registered as long as it keeps sending heartbeats within the registry's TTL.
+ */
+public interface ServiceRegistry {
+    
+    void register(ServiceInstance instance);
+    
+    void heartbeat(ServiceInstance instance);
+    
+    void deregister(ServiceInstance instance);
+    
+    /**
+     * @return the live instances of {@code serviceId}, possibly empty
+     */
+    List<ServiceInstance> getInstances(String serviceId);
+}
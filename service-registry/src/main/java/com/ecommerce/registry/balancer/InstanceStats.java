@@ -0,0 +1,104 @@
+package com.ecommerce.registry.balancer;
+
+import com.ecommerce.registry.RegistryProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * What the balancer knows about one instance: requests in flight, a peak-sensitive moving
+ * average of response times, and whether it is ejected after repeated failures.
+ */
+class InstanceStats {
+    
+    private static final Logger logger = Logger.getLogger(InstanceStats.class.getName());
+    
+    // Assumed response time of an instance nothing has been measured on yet
+    private static final double INITIAL_RTT_NANOS = 10_000_000;
+    
+    private final String instanceId;
+    private final RegistryProperties.Balancer config;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    
+    private double ewmaNanos = INITIAL_RTT_NANOS;
+    private long lastSampleNanos;
+    private int consecutiveFailures;
+    private int ejections;
+    private long ejectedUntilNanos;
+    
+    InstanceStats(String instanceId, RegistryProperties.Balancer config) {
+        this.instanceId = instanceId;
+        this.config = config;
+    }
+    
+    void start() {
+        outstanding.incrementAndGet();
+    }
+    
+    void release() {
+        outstanding.decrementAndGet();
+    }
+    
+    synchronized void recordSuccess(long rttNanos, long now) {
+        outstanding.decrementAndGet();
+        observe(rttNanos, now);
+        consecutiveFailures = 0;
+        ejections = 0;
+    }
+    
+    synchronized void recordFailure(long rttNanos, long now) {
+        outstanding.decrementAndGet();
+        observe(rttNanos, now);
+        if (++consecutiveFailures >= config.getFailureThreshold() && now - ejectedUntilNanos >= 0) {
+            long ejectionNanos = Math.min(config.getEjectionTime().toNanos() << Math.min(ejections, 20),
+                    config.getMaxEjectionTime().toNanos());
+            ejectedUntilNanos = now + ejectionNanos;
+            ejections++;
+            consecutiveFailures = 0;
+            logger.warning("Ejected " + instanceId + " for " + ejectionNanos / 1_000_000 + "ms after "
+                    + config.getFailureThreshold() + " consecutive failures");
+        }
+    }
+    
+    synchronized boolean isEjected(long now) {
+        return now - ejectedUntilNanos < 0;
+    }
+    
+    int outstanding() {
+        return outstanding.get();
+    }
+    
+    /**
+     * Lower is better.
+     */
+    synchronized double cost(RegistryProperties.Strategy strategy, long now) {
+        int inFlight = Math.max(outstanding.get(), 0);
+        if (strategy == RegistryProperties.Strategy.LEAST_OUTSTANDING) {
+            return inFlight;
+        }
+        return decayed(now) * (inFlight + 1);
+    }
+    
+    // The average fades while no responses arrive, so an instance that was slow once (a cold
+    // start, a GC pause) is tried again after a while instead of being avoided for good
+    private double decayed(long now) {
+        if (lastSampleNanos == 0) {
+            return ewmaNanos;
+        }
+        double elapsed = Math.max(now - lastSampleNanos, 0);
+        return ewmaNanos * Math.exp(-elapsed / config.getEwmaDecay().toNanos());
+    }
+    
+    // Peak EWMA: a slower sample is taken as is, faster ones are blended in with a weight that
+    // grows with the time since the previous sample
+    private void observe(long rttNanos, long now) {
+        if (lastSampleNanos == 0 || rttNanos > decayed(now)) {
+            ewmaNanos = rttNanos;
+        } else {
+            double elapsed = Math.max(now - lastSampleNanos, 0);
+            double weight = Math.exp(-elapsed / config.getEwmaDecay().toNanos());
+            ewmaNanos = ewmaNanos * weight + rttNanos * (1 - weight);
+        }
+        lastSampleNanos = now;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.registry.balancer;
+
+import com.ecommerce.registry.InstanceResolver;
+import com.ecommerce.registry.RegistryProperties;
+import com.ecommerce.registry.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Client-side balancing across the instances of a service. Each call draws two instances at
+ * random and takes the cheaper one (power of two choices): close to always picking the best
+ * instance, without every client piling onto the same one or scanning all of them.
+ *
+ * Ejected instances are skipped. If every instance is ejected they are all used anyway, since
+ * sending traffic somewhere beats failing every request.
+ */
+public class LoadBalancer {
+    
+    private final InstanceResolver resolver;
+    private final RegistryProperties.Balancer config;
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    
+    public LoadBalancer(InstanceResolver resolver, RegistryProperties.Balancer config) {
+        this.resolver = resolver;
+        this.config = config;
+    }
+    
+    /**
+     * Picks an instance of {@code serviceId} for one request.
+     *
+     * @throws NoAvailableInstanceException when the service has no instance at all
+     */
+    public Selection choose(String serviceId) {
+        List<ServiceInstance> instances = resolver.resolve(serviceId);
+        if (instances.isEmpty()) {
+            throw new NoAvailableInstanceException(serviceId);
+        }
+        if (instances.size() == 1) {
+            ServiceInstance only = instances.get(0);
+            return new Selection(only, statsOf(only));
+        }
+        
+        long now = System.nanoTime();
+        List<ServiceInstance> candidates = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!statsOf(instance).isEjected(now)) {
+                candidates.add(instance);
+            }
+        }
+        if (candidates.isEmpty()) {
+            candidates = instances;
+        }
+        
+        ServiceInstance chosen;
+        if (candidates.size() == 1) {
+            chosen = candidates.get(0);
+        } else {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(candidates.size());
+            int second = random.nextInt(candidates.size() - 1);
+            if (second >= first) {
+                second++;
+            }
+            ServiceInstance a = candidates.get(first);
+            ServiceInstance b = candidates.get(second);
+            chosen = statsOf(a).cost(config.getStrategy(), now) <= statsOf(b).cost(config.getStrategy(), now) ? a : b;
+        }
+        return new Selection(chosen, statsOf(chosen));
+    }
+    
+    /**
+     * Requests currently in flight to the instance, for diagnostics.
+     */
+    public int outstanding(ServiceInstance instance) {
+        InstanceStats instanceStats = stats.get(instance.instanceId());
+        return instanceStats == null ? 0 : instanceStats.outstanding();
+    }
+    
+    private InstanceStats statsOf(ServiceInstance instance) {
+        return stats.computeIfAbsent(instance.instanceId(), id -> new InstanceStats(id, config));
+    }
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.registry.balancer;
+
+public class NoAvailableInstanceException extends RuntimeException {
+    
+    public NoAvailableInstanceException(String serviceId) {
+        super("No instance of " + serviceId + " available");
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.registry.balancer;
+
+import com.ecommerce.registry.ServiceInstance;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One request's pick of an instance. Exactly one of {@link #recordSuccess()},
+ * {@link #recordFailure()} or {@link #release()} must be called once the request is over;
+ * later calls are ignored.
+ */
+public class Selection {
+    
+    private final ServiceInstance instance;
+    private final InstanceStats stats;
+    private final long startNanos;
+    private final AtomicBoolean done = new AtomicBoolean();
+    
+    Selection(ServiceInstance instance, InstanceStats stats) {
+        this.instance = instance;
+        this.stats = stats;
+        this.startNanos = System.nanoTime();
+        stats.start();
+    }
+    
+    public ServiceInstance instance() {
+        return instance;
+    }
+    
+    public URI uri() {
+        return instance.uri();
+    }
+    
+    public void recordSuccess() {
+        if (done.compareAndSet(false, true)) {
+            long now = System.nanoTime();
+            stats.recordSuccess(now - startNanos, now);
+        }
+    }
+    
+    /**
+     * The instance could not be reached or answered with a server error.
+     */
+    public void recordFailure() {
+        if (done.compareAndSet(false, true)) {
+            long now = System.nanoTime();
+            stats.recordFailure(now - startNanos, now);
+        }
+    }
+    
+    /**
+     * The request ended without an outcome that says anything about the instance, e.g. the
+     * caller cancelled it.
+     */
+    public void release() {
+        if (done.compareAndSet(false, true)) {
+            stats.release();
+        }
+    }
+}
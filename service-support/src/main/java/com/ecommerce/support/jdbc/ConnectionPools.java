@@ -0,0 +1,60 @@
+package com.ecommerce.support.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The Hikari pools behind the {@code dataSource} bean: the primary, then any replicas. The bean
+ * itself is wrapped, by datasource-micrometer's proxy and, with replicas, by the read-write
+ * router, so it cannot be unwrapped to a pool.
+ */
+public class ConnectionPools {
+    
+    private static final Logger logger = Logger.getLogger(ConnectionPools.class.getName());
+    
+    private final List<HikariDataSource> pools;
+    
+    public ConnectionPools(List<HikariDataSource> pools) {
+        this.pools = List.copyOf(pools);
+    }
+    
+    public List<HikariDataSource> getPools() {
+        return pools;
+    }
+    
+    /**
+     * Holds as many connections from each pool as it keeps idle ({@code minimum-idle}), so each
+     * has been opened once, and returns them. A pool that fails is logged and skipped.
+     *
+     * @return the number of connections opened across all pools
+     */
+    public int openIdleConnections() {
+        int opened = 0;
+        for (HikariDataSource pool : pools) {
+            List<Connection> held = new ArrayList<>();
+            try {
+                while (held.size() < Math.max(pool.getMinimumIdle(), 1)) {
+                    held.add(pool.getConnection());
+                }
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Could not open connections in pool " + pool.getPoolName(), e);
+            } finally {
+                for (Connection connection : held) {
+                    try {
+                        connection.close();
+                    } catch (SQLException e) {
+                        // back to the pool or discarded by it either way
+                    }
+                }
+            }
+            opened += held.size();
+        }
+        return opened;
+    }
+}
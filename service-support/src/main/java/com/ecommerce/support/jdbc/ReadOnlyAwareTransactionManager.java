@@ -0,0 +1,30 @@
+package com.ecommerce.support.jdbc;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JpaTransactionManager that exposes a new transaction's read-only flag while it is begun.
+ * The stock manager only binds the flag after the connection has been borrowed, which is too
+ * late for {@link ReadWriteRoutingDataSource} to pick a replica.
+ */
+public class ReadOnlyAwareTransactionManager extends JpaTransactionManager {
+    
+    public ReadOnlyAwareTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+    
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        boolean previous = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(definition.isReadOnly());
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException | Error e) {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(previous);
+            throw e;
+        }
+    }
+}
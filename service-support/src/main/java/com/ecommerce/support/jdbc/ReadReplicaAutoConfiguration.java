@@ -0,0 +1,113 @@
+package com.ecommerce.support.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The DataSource of the JPA services: the primary Hikari pool configured from
+ * {@code spring.datasource.*}, plus one pool per replica in {@code datasource.replica-urls} when
+ * any are set. With replicas, {@code @Transactional(readOnly = true)} work is routed to them (see
+ * docs/DATABASE.md). Ahead of Boot's own, which back off once these beans exist. The pools
+ * themselves are available as {@link ConnectionPools}.
+ *
+ * Replicas are decided at startup rather than through a condition so the choice also applies
+ * to AOT-processed builds.
+ */
+@AutoConfiguration(before = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
+@ConditionalOnClass({HikariDataSource.class, EntityManagerFactory.class, JpaTransactionManager.class})
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReadReplicaAutoConfiguration {
+    
+    @Autowired
+    private Environment environment;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${datasource.replica-urls:}")
+    private List<String> replicaUrls;
+    
+    // The primary first, then the replicas
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    
+    private boolean routed;
+    
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties) {
+        HikariDataSource primary = createPool(properties, properties.determineUrl());
+        pools.add(primary);
+        List<String> urls = replicaUrls.stream().filter(StringUtils::hasText).map(String::trim).toList();
+        if (urls.isEmpty()) {
+            return primary;
+        }
+        
+        // Behind the routing proxy the pools are no longer beans, so Boot won't bind their metrics
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = createPool(properties, urls.get(i));
+            replica.setPoolName(primary.getPoolName() + "-replica-" + (i + 1));
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        pools.addAll(replicas);
+        routed = true;
+        pools.forEach(pool -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry)));
+        
+        return new ReadWriteRoutingDataSource(primary, replicas);
+    }
+    
+    // Takes the DataSource so that its pools have been created
+    @Bean
+    public ConnectionPools connectionPools(DataSource dataSource) {
+        return new ConnectionPools(pools);
+    }
+    
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                         ObjectProvider<TransactionManagerCustomizers> customizers) {
+        ReadOnlyAwareTransactionManager transactionManager = new ReadOnlyAwareTransactionManager(entityManagerFactory);
+        customizers.ifAvailable(c -> c.customize(transactionManager));
+        return transactionManager;
+    }
+    
+    private HikariDataSource createPool(DataSourceProperties properties, String url) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        return pool;
+    }
+    
+    @PreDestroy
+    public void closeRoutedPools() {
+        // Without replicas the primary is the bean, and the context closes it
+        if (routed) {
+            pools.forEach(HikariDataSource::close);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.support.jdbc;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to the replicas, round robin, and everything
+ * else to the primary.
+ *
+ * Relies on {@link ReadOnlyAwareTransactionManager} binding the read-only flag before the
+ * transaction borrows its connection.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    private static final String PRIMARY = "primary";
+    
+    private final int replicaCount;
+    private final AtomicInteger next = new AtomicInteger();
+    
+    public ReadWriteRoutingDataSource(DataSource primary, List<? extends DataSource> replicas) {
+        this.replicaCount = replicas.size();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaCount > 0 && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Math.floorMod(next.getAndIncrement(), replicaCount);
+        }
+        return PRIMARY;
+    }
+}
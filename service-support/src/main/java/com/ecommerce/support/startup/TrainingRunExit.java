@@ -0,0 +1,24 @@
+package com.ecommerce.support.startup;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Shuts the application down as soon as it is ready when {@code startup.training-run} is set
+ * (the {@code training} profile). The cds build profile starts the service this way to record
+ * the classes loaded during startup into a CDS archive.
+ */
+public class TrainingRunExit implements ApplicationListener<ApplicationReadyEvent> {
+    
+    @Value("${startup.training-run:false}")
+    private boolean trainingRun;
+    
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (trainingRun) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+}
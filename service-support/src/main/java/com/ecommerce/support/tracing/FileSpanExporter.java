@@ -0,0 +1,107 @@
+package com.ecommerce.support.tracing;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Appends finished spans to a local file, one JSON object per line, as a stand-in for an
+ * OTLP collector. Files from several services can be merged by trace id
+ * (see docs/TRACING.md).
+ */
+public class FileSpanExporter implements SpanExporter {
+    
+    private static final Logger logger = Logger.getLogger(FileSpanExporter.class.getName());
+    
+    private final String service;
+    private final OutputStream output;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    
+    public FileSpanExporter(Path file, String service) throws IOException {
+        this.service = service;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.output = new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+    }
+    
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            for (SpanData span : spans) {
+                writeSpan(span);
+            }
+            output.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to write spans", e);
+            return CompletableResultCode.ofFailure();
+        }
+    }
+    
+    private void writeSpan(SpanData span) throws IOException {
+        JsonGenerator json = jsonFactory.createGenerator(output, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.writeStartObject();
+        json.writeStringField("service", service);
+        json.writeStringField("traceId", span.getTraceId());
+        json.writeStringField("spanId", span.getSpanId());
+        if (SpanId.isValid(span.getParentSpanId())) {
+            json.writeStringField("parentSpanId", span.getParentSpanId());
+        }
+        json.writeStringField("name", span.getName());
+        json.writeStringField("kind", span.getKind().name());
+        json.writeNumberField("startEpochNanos", span.getStartEpochNanos());
+        json.writeNumberField("durationMicros", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1000);
+        json.writeStringField("status", span.getStatus().getStatusCode().name());
+        json.writeObjectFieldStart("attributes");
+        span.getAttributes().forEach((key, value) -> {
+            try {
+                json.writeStringField(key.getKey(), String.valueOf(value));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        json.writeEndObject();
+        json.writeEndObject();
+        json.close();
+        output.write('\n');
+    }
+    
+    @Override
+    public CompletableResultCode flush() {
+        try {
+            synchronized (this) {
+                output.flush();
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+    
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        try {
+            output.close();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.support.tracing;
+
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Writes the spans of every service to {@code tracing.file.path} (see docs/TRACING.md).
+ */
+@AutoConfiguration
+@ConditionalOnClass(SpanExporter.class)
+public class FileTracingAutoConfiguration {
+    
+    // Picked up by Boot's OpenTelemetry auto-configuration and fed through its batch span processor.
+    // The flag is checked here rather than with a condition so it still applies to AOT-processed builds.
+    @Bean
+    public SpanExporter fileSpanExporter(@Value("${tracing.file.enabled:true}") boolean enabled,
+                                         @Value("${tracing.file.path}") String path,
+                                         @Value("${spring.application.name}") String service) throws IOException {
+        return enabled ? new FileSpanExporter(Paths.get(path), service) : SpanExporter.composite();
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.support.web;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Lets the servlet services send small responses with a Content-Length and compress them (see
+ * docs/HTTP.md).
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class DeferredFlushAutoConfiguration {
+    
+    // Registered by Boot like any Filter bean, for every request
+    @Bean
+    public DeferredFlushFilter deferredFlushFilter() {
+        return new DeferredFlushFilter();
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecommerce.support.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Ignores flushes of synchronous responses until the request completes. Spring's message
+ * converters flush right after writing the body, which commits the response before Tomcat
+ * knows its length: every JSON response went out chunked, and server.compression's
+ * min-response-size never applied. Without those flushes, a body that fits Tomcat's response
+ * buffer gets a Content-Length and is compressed only if it is big enough.
+ *
+ * Async responses (streaming exports, server-sent events) flush as before.
+ */
+public class DeferredFlushFilter extends OncePerRequestFilter {
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(request, new DeferredFlushResponse(request, response));
+    }
+    
+    private static class DeferredFlushResponse extends HttpServletResponseWrapper {
+        
+        private final HttpServletRequest request;
+        private ServletOutputStream outputStream;
+        
+        DeferredFlushResponse(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+        
+        @Override
+        public void flushBuffer() throws IOException {
+            if (request.isAsyncStarted()) {
+                super.flushBuffer();
+            }
+        }
+        
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new DeferredFlushOutputStream(super.getOutputStream(), request);
+            }
+            return outputStream;
+        }
+    }
+    
+    private static class DeferredFlushOutputStream extends ServletOutputStream {
+        
+        private final ServletOutputStream delegate;
+        private final HttpServletRequest request;
+        
+        DeferredFlushOutputStream(ServletOutputStream delegate, HttpServletRequest request) {
+            this.delegate = delegate;
+            this.request = request;
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            if (request.isAsyncStarted()) {
+                delegate.flush();
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+        
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+        
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -3,8 +3,14 @@ CREATE DATABASE IF NOT EXISTS order_db;
 
 USE order_db;
 
+-- Range-partitioned by month of created_at (see docs/ORDER-PARTITIONING.md). Only pmax is
+-- created here; order-service splits it into pYYYYMM partitions at startup and drops
+-- partitions past retention once they are archived. Every unique key has to contain
+-- created_at, hence the (id, created_at) primary key and DATETIME rather than TIMESTAMP.
+-- The key no longer makes id unique on its own; order-service's id generator does, with a
+-- distinct node id per instance (see docs/ENTITY-IDS.md).
 CREATE TABLE IF NOT EXISTS orders (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT AUTO_INCREMENT,
     user_id BIGINT NOT NULL,
     product_id BIGINT NOT NULL,
     quantity INT NOT NULL,
@@ -12,15 +18,18 @@ CREATE TABLE IF NOT EXISTS orders (
     status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
     payment_method VARCHAR(50),
     shipping_address TEXT,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    created_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    INDEX idx_user_id (user_id),
+    PRIMARY KEY (id, created_at),
+    INDEX idx_user_created (user_id, created_at),
+    INDEX idx_status_created (status, created_at),
     INDEX idx_product_id (product_id),
-    INDEX idx_status (status),
-    INDEX idx_created_at (created_at),
     CHECK (quantity > 0),
     CHECK (total_price > 0)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+PARTITION BY RANGE COLUMNS (created_at) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
 
 -- Insert sample orders
 INSERT INTO orders (user_id, product_id, quantity, total_price, status, payment_method, shipping_address) VALUES
@@ -0,0 +1,23 @@
+-- Converts an orders table created by an earlier order-db-init.sql to the monthly
+-- partitioned layout (see docs/ORDER-PARTITIONING.md). Rewrites the whole table, so run it
+-- in a maintenance window; order-service adds the monthly partitions on its next start.
+-- The new (id, created_at) primary key no longer makes id unique on its own; make sure every
+-- order-service instance has its own ID_NODE_ID first (see docs/ENTITY-IDS.md).
+USE order_db;
+
+ALTER TABLE orders
+    MODIFY created_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at),
+    DROP INDEX idx_user_id,
+    DROP INDEX idx_status,
+    DROP INDEX idx_created_at,
+    ADD INDEX idx_user_created (user_id, created_at),
+    ADD INDEX idx_status_created (status, created_at);
+
+-- Existing orders all go to pmax; order-service splits them out by month from the oldest
+-- created_at on its next start, one REORGANIZE per run of months
+ALTER TABLE orders
+    PARTITION BY RANGE COLUMNS (created_at) (
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+    );
@@ -15,10 +15,17 @@ CREATE TABLE IF NOT EXISTS products (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_category (category),
     INDEX idx_name (name),
+    INDEX idx_updated_at (updated_at),
     CHECK (price > 0),
     CHECK (stock >= 0)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Last stock journal sequence applied to products (hot-SKU inventory mode)
+CREATE TABLE IF NOT EXISTS stock_journal_checkpoint (
+    id INT PRIMARY KEY,
+    applied_seq BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- Insert sample products
 INSERT INTO products (name, description, price, stock, category, image_url) VALUES
 ('MacBook Pro 16"', 'Apple MacBook Pro with M3 chip, 16GB RAM, 512GB SSD', 249900.00, 50, 'Electronics', 'https://example.com/macbook.jpg'),
@@ -1,6 +1,8 @@
 package com.ecommerce.userservice.config;
 
 import com.ecommerce.userservice.security.AuthTokenFilter;
+import com.ecommerce.userservice.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,9 +30,12 @@ public class SecurityConfig {
     @Autowired
     private AuthTokenFilter authTokenFilter;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
     
     @Bean
@@ -53,6 +58,8 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/users/health").permitAll()
+                .requestMatchers("/internal/token-revocations").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/prometheus").permitAll()
                 .anyRequest().authenticated()
             );
         
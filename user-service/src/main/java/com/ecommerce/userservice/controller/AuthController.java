@@ -1,9 +1,11 @@
 package com.ecommerce.userservice.controller;
 
+import com.ecommerce.auth.TokenClaims;
 import com.ecommerce.userservice.dto.*;
 import com.ecommerce.userservice.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,6 +27,14 @@ public class AuthController {
         }
     }
     
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestAttribute(name = TokenClaims.REQUEST_ATTRIBUTE, required = false) TokenClaims caller) {
+        if (caller == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new MessageResponse("Error: No valid token"));
+        }
+        return ResponseEntity.ok(authService.logout(caller));
+    }
+    
     @PostMapping("/signup")
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signupRequest) {
         try {
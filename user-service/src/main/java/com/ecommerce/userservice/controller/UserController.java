@@ -1,8 +1,10 @@
 package com.ecommerce.userservice.controller;
 
-import com.ecommerce.userservice.entity.User;
+import com.ecommerce.userservice.dto.UserField;
+import com.ecommerce.userservice.dto.UserResponse;
 import com.ecommerce.userservice.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -10,6 +12,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/users")
@@ -29,16 +32,24 @@ public class UserController {
     
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userRepository.findAll());
+    public ResponseEntity<List<UserResponse>> getAllUsers(@RequestParam(required = false) String fields) {
+        Set<UserField> selected = UserField.parse(fields);
+        return ResponseEntity.ok(UserResponse.fromAll(userRepository.findAll(), selected));
     }
     
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<?> getUserById(@PathVariable Long id) {
+    public ResponseEntity<?> getUserById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        Set<UserField> selected = UserField.parse(fields);
         return userRepository.findById(id)
-                .map(ResponseEntity::ok)
+                .map(user -> ResponseEntity.ok(UserResponse.from(user, selected)))
                 .orElse(ResponseEntity.notFound().build());
     }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleUnknownField(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+    }
 }
 
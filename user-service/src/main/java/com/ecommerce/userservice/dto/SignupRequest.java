@@ -18,7 +18,5 @@ public class SignupRequest {
     @NotBlank
     @Size(min = 6, max = 40)
     private String password;
-    
-    private String role = "USER";
 }
 
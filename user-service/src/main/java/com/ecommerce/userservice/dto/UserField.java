@@ -0,0 +1,58 @@
+package com.ecommerce.userservice.dto;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The fields of a {@link UserResponse} a client can select with {@code ?fields=}.
+ */
+public enum UserField {
+    ID("id"),
+    USERNAME("username"),
+    EMAIL("email"),
+    ROLE("role"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+    
+    public static final Set<UserField> ALL = Collections.unmodifiableSet(EnumSet.allOf(UserField.class));
+    
+    // Quoted and UTF-8 encoded once instead of on every write
+    private final SerializedString jsonName;
+    
+    UserField(String name) {
+        this.jsonName = new SerializedString(name);
+    }
+    
+    public SerializedString jsonName() {
+        return jsonName;
+    }
+    
+    /**
+     * Parses a comma-separated list such as {@code id,username,email}; null or blank selects every field.
+     */
+    public static Set<UserField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        EnumSet<UserField> selected = EnumSet.noneOf(UserField.class);
+        for (String name : fields.split(",")) {
+            selected.add(fromName(name.trim()));
+        }
+        return selected;
+    }
+    
+    private static UserField fromName(String name) {
+        for (UserField field : values()) {
+            if (field.jsonName.getValue().equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + name + ". Available: "
+                + Arrays.stream(values()).map(f -> f.jsonName.getValue()).collect(Collectors.joining(",")));
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.userservice.dto;
+
+import com.ecommerce.userservice.entity.User;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * What the user endpoints return. Only the selected {@code fields} are written.
+ */
+@JsonSerialize(using = UserResponseSerializer.class)
+public record UserResponse(Long id,
+                           String username,
+                           String email,
+                           String role,
+                           LocalDateTime createdAt,
+                           LocalDateTime updatedAt,
+                           Set<UserField> fields) {
+    
+    public static UserResponse from(User user, Set<UserField> fields) {
+        return new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getRole(),
+                user.getCreatedAt(), user.getUpdatedAt(), fields);
+    }
+    
+    public static List<UserResponse> fromAll(List<User> users, Set<UserField> fields) {
+        return users.stream().map(user -> from(user, fields)).toList();
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.userservice.security;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+
+/**
+ * The user as loaded for a login, carrying what the token and the login response need besides
+ * the credentials, so neither has to look the user up again.
+ */
+public class UserAccount extends User {
+    
+    private final Long id;
+    private final String email;
+    private final String role;
+    
+    public UserAccount(Long id, String username, String password, String email, String role) {
+        super(username, password, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+        this.id = id;
+        this.email = email;
+        this.role = role;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public String getRole() {
+        return role;
+    }
+}
@@ -1,15 +1,17 @@
 package com.ecommerce.userservice.service;
 
+import com.ecommerce.auth.TokenClaims;
+import com.ecommerce.auth.TokenRevocationList;
 import com.ecommerce.userservice.dto.*;
 import com.ecommerce.userservice.entity.User;
 import com.ecommerce.userservice.repository.UserRepository;
 import com.ecommerce.userservice.security.JwtUtils;
+import com.ecommerce.userservice.security.UserAccount;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -30,6 +32,12 @@ public class AuthService {
     @Autowired
     private JwtUtils jwtUtils;
     
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+    
+    @Autowired
+    private TokenRevocationNotifier tokenRevocationNotifier;
+    
     public JwtResponse authenticateUser(LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())
@@ -38,11 +46,26 @@ public class AuthService {
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = jwtUtils.generateJwtToken(authentication);
         
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        User user = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // Loaded by the authentication above, with everything the response needs
+        UserAccount account = (UserAccount) authentication.getPrincipal();
         
-        return new JwtResponse(jwt, user.getId(), user.getUsername(), user.getEmail(), user.getRole());
+        return new JwtResponse(jwt, account.getId(), account.getUsername(), account.getEmail(), account.getRole());
+    }
+    
+    /**
+     * Revokes the caller's token here and, through {@link TokenRevocationNotifier}, in the other
+     * services. A no-op while {@code jwt.revocation.enabled} is off.
+     */
+    public MessageResponse logout(TokenClaims caller) {
+        if (!tokenRevocationList.isEnabled()) {
+            return new MessageResponse("Token revocation is disabled; the token stays valid until it expires");
+        }
+        boolean revoked = tokenRevocationList.revoke(caller.tokenId(), caller.expiresAt());
+        tokenRevocationNotifier.tokenRevoked(caller.tokenId(), caller.expiresAt());
+        if (!revoked) {
+            return new MessageResponse("Too many revoked tokens; the token stays valid until it expires");
+        }
+        return new MessageResponse("Logged out");
     }
     
     public MessageResponse registerUser(SignupRequest signupRequest) {
@@ -58,7 +81,8 @@ public class AuthService {
         user.setUsername(signupRequest.getUsername());
         user.setEmail(signupRequest.getEmail());
         user.setPassword(passwordEncoder.encode(signupRequest.getPassword()));
-        user.setRole(signupRequest.getRole());
+        // Signups are always customers; admins are granted out of band (see docs/AUTH-TOKENS.md)
+        user.setRole("USER");
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
         
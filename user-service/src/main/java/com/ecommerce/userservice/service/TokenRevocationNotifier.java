@@ -0,0 +1,70 @@
+package com.ecommerce.userservice.service;
+
+import com.ecommerce.registry.InstanceResolver;
+import com.ecommerce.registry.ServiceInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tells every registered instance of the services verifying tokens that one was revoked, so
+ * they refuse it before it expires (see docs/AUTH-TOKENS.md).
+ *
+ * Best effort, like product change notifications: an instance that misses one, or starts
+ * afterwards, accepts the token until its expiry.
+ */
+@Component
+public class TokenRevocationNotifier {
+    
+    private static final Logger logger = Logger.getLogger(TokenRevocationNotifier.class.getName());
+    
+    @Autowired
+    private InstanceResolver instanceResolver;
+    
+    @Value("${jwt.revocation.subscribers:user-service,order-service,product-service}")
+    private List<String> subscribers;
+    
+    @Value("${jwt.revocation.timeout-ms:2000}")
+    private long timeoutMs;
+    
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(500))
+            .build();
+    
+    public void tokenRevoked(UUID tokenId, Instant expiresAt) {
+        String body = "{\"tokenId\":\"" + tokenId + "\",\"expiresAt\":\"" + expiresAt + "\"}";
+        for (String serviceId : subscribers) {
+            for (ServiceInstance instance : instanceResolver.resolve(serviceId)) {
+                send(instance, body);
+            }
+        }
+    }
+    
+    private void send(ServiceInstance instance, String body) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(instance.uri() + "/internal/token-revocations"))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        logger.log(Level.WARNING, "Token revocation notification to " + instance.instanceId() + " failed", error);
+                    } else if (response.statusCode() >= 300) {
+                        logger.warning("Token revocation notification to " + instance.instanceId()
+                                + " answered " + response.statusCode());
+                    }
+                });
+    }
+}
@@ -0,0 +1,175 @@
+package com.ecommerce.userservice.warmup;
+
+import com.ecommerce.auth.JwtTokenService;
+import com.ecommerce.support.jdbc.ConnectionPools;
+import com.ecommerce.userservice.entity.User;
+import com.ecommerce.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Warms the service up before it reports ready (see docs/WARMUP.md). Spring Boot runs
+ * {@link ApplicationRunner}s before it marks the application ready, so until this returns,
+ * {@code /actuator/health/readiness} answers 503 and the instance is not registered.
+ *
+ * It opens the database pools' connections, then sends the main calls through the service's own
+ * HTTP stack: user lookups with a bearer token, an invalid signup that validation refuses, and a
+ * login for an unknown user. Spring Security checks a dummy BCrypt hash for unknown users, so the
+ * login compiles the password check without touching an account. BCrypt is slow on purpose, so
+ * the login is sent only every {@value #LOGIN_EVERY} iterations. Failures are logged and do not
+ * hold up readiness.
+ */
+@Component
+public class WarmUpRunner implements ApplicationRunner {
+    
+    private static final Logger logger = Logger.getLogger(WarmUpRunner.class.getName());
+    
+    private static final Long WARMUP_USER_ID = 0L;
+    
+    // Logs a WARN for every request that validation refuses
+    private static final String RESOLVER_LOGGER =
+            "org.springframework.web.servlet.mvc.support.DefaultHandlerExceptionResolver";
+    
+    private static final int LOGIN_EVERY = 10;
+    
+    @Autowired
+    private Environment environment;
+    
+    @Autowired
+    private ConnectionPools connectionPools;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JwtTokenService jwtTokenService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private LoggingSystem loggingSystem;
+    
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${warmup.iterations:100}")
+    private int iterations;
+    
+    @Value("${warmup.max-duration:30s}")
+    private Duration maxDuration;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        int connections = connectionPools.openIdleConnections();
+        String baseUrl = "http://localhost:" + environment.getProperty("local.server.port");
+        List<HttpRequest> requests = requests(baseUrl);
+        HttpRequest login = post(baseUrl + "/api/auth/login", null,
+                "{\"username\":\"warmup-unknown-user\",\"password\":\"warmup-password\"}");
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        int sent = 0;
+        int failed = 0;
+        // The refused signups are expected, so they stay out of the log
+        LoggerConfiguration resolver = loggingSystem.getLoggerConfiguration(RESOLVER_LOGGER);
+        loggingSystem.setLogLevel(RESOLVER_LOGGER, LogLevel.ERROR);
+        try {
+            for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+                for (HttpRequest request : requests) {
+                    sent++;
+                    if (!send(client, request)) {
+                        failed++;
+                    }
+                }
+                if (i % LOGIN_EVERY == 0) {
+                    sent++;
+                    if (!send(client, login)) {
+                        failed++;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            loggingSystem.setLogLevel(RESOLVER_LOGGER, resolver == null ? null : resolver.getConfiguredLevel());
+        }
+        long elapsed = System.nanoTime() - start;
+        meterRegistry.timer("startup.warmup").record(elapsed, TimeUnit.NANOSECONDS);
+        logger.info(String.format("Warm-up took %d ms: %d connections opened, %d requests, %d failed",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), connections, sent, failed));
+    }
+    
+    private List<HttpRequest> requests(String baseUrl) {
+        List<User> sample = userRepository.findAll(PageRequest.of(0, 10)).getContent();
+        List<HttpRequest> requests = new ArrayList<>();
+        for (User user : sample) {
+            requests.add(get(baseUrl + "/api/users/" + user.getId(),
+                    jwtTokenService.issue(user.getId(), user.getUsername(), user.getRole())));
+        }
+        if (sample.isEmpty()) {
+            requests.add(get(baseUrl + "/api/users/" + WARMUP_USER_ID,
+                    jwtTokenService.issue(WARMUP_USER_ID, "warmup", "USER")));
+        }
+        // Fails validation (no email, short password), so no account is created
+        requests.add(post(baseUrl + "/api/auth/signup", null, "{\"username\":\"warmup\",\"password\":\"x\"}"));
+        return requests;
+    }
+    
+    // Client errors are expected (the refused login and signup); only server errors and I/O
+    // failures count
+    private static boolean send(HttpClient client, HttpRequest request) throws InterruptedException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 500;
+        } catch (IOException e) {
+            logger.fine("Warm-up request " + request.uri() + " failed: " + e);
+            return false;
+        }
+    }
+    
+    private static HttpRequest get(String uri, String token) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .timeout(Duration.ofSeconds(5))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json")
+                .build();
+    }
+    
+    private static HttpRequest post(String uri, String token, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(uri))
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+}